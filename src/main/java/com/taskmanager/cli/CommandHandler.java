@@ -4,12 +4,18 @@ import com.taskmanager.domain.Category;
 import com.taskmanager.domain.Priority;
 import com.taskmanager.domain.Status;
 import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.TextMatch;
 import com.taskmanager.service.CategoryService;
+import com.taskmanager.service.QueryBatch;
 import com.taskmanager.service.SearchService;
+import com.taskmanager.service.TaskAggregation;
 import com.taskmanager.service.TaskService;
 import com.taskmanager.util.DateUtil;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
@@ -18,6 +24,9 @@ import java.util.Scanner;
  * Demonstrates Command pattern for handling different user commands.
  */
 public class CommandHandler {
+    private static final int LIST_PAGE_SIZE = 20;
+    private static final int DASHBOARD_SECTION_SIZE = 5;
+
     private final TaskService taskService;
     private final CategoryService categoryService;
     private final SearchService searchService;
@@ -50,7 +59,8 @@ public class CommandHandler {
                 case "complete", "done" -> handleCompleteTask();
                 case "search", "find" -> handleSearch(args);
                 case "category", "cat" -> handleCategory(args);
-                case "stats", "statistics" -> handleStatistics();
+                case "stats", "statistics" -> handleStatistics(args);
+                case "dashboard", "dash" -> handleDashboard();
                 case "help", "?" -> handleHelp();
                 case "exit", "quit", "q" -> System.exit(0);
                 default -> System.out.println("Unknown command. Type 'help' for available commands.");
@@ -102,14 +112,19 @@ public class CommandHandler {
     }
 
     private void handleListTasks(String args) {
-        List<Task> tasks;
+        List<Task> tasks = null;
         String header = "All Tasks";
+        String filterType = "";
+        int pageNumber = 1;
+
+        String[] parts = args.isEmpty() ? new String[0] : args.split("\\s+");
+        if (parts.length > 0 && parts[parts.length - 1].matches("\\d+")) {
+            pageNumber = Math.max(1, Integer.parseInt(parts[parts.length - 1]));
+            parts = Arrays.copyOf(parts, parts.length - 1);
+        }
 
-        if (args.isEmpty()) {
-            tasks = taskService.getAllTasks();
-        } else {
-            String[] parts = args.split("\\s+", 2);
-            String filterType = parts[0].toLowerCase();
+        if (parts.length > 0) {
+            filterType = parts[0].toLowerCase();
             
             tasks = switch (filterType) {
                 case "todo" -> {
@@ -132,12 +147,17 @@ public class CommandHandler {
                     header = "High Priority Tasks";
                     yield searchService.filterByPriority(Priority.HIGH);
                 }
-                default -> taskService.getAllTasks();
+                default -> null;
             };
         }
 
-        tasks = searchService.sort(tasks, SearchService.SortStrategy.PRIORITY_DESC);
-        formatter.printTaskList(tasks, categoryService, header);
+        int offset = (pageNumber - 1) * LIST_PAGE_SIZE;
+        SearchService.Page page = tasks == null
+            ? searchService.listAll(SearchService.SortStrategy.PRIORITY_DESC, offset, LIST_PAGE_SIZE)
+            : searchService.page(tasks, SearchService.SortStrategy.PRIORITY_DESC, offset, LIST_PAGE_SIZE);
+        String next = page.hasMore()
+            ? ("list " + (filterType.isEmpty() ? "" : filterType + " ") + (pageNumber + 1)) : null;
+        formatter.printTaskPage(page, categoryService, header, next);
     }
 
     private void handleUpdateTask() {
@@ -248,10 +268,39 @@ public class CommandHandler {
             keyword = scanner.nextLine().trim();
         }
         
-        List<Task> results = searchService.searchByKeyword(keyword);
+        if (keyword.startsWith("-r ")) {
+            String words = keyword.substring(3).trim();
+            List<Task> results = searchService.searchRanked(words, LIST_PAGE_SIZE);
+            formatter.printTaskList(results, categoryService, "Best Matches for: " + words);
+            return;
+        }
+        List<Task> results = searchService.searchByKeyword(searchText(keyword), searchMode(keyword));
         formatter.printTaskList(results, categoryService, "Search Results for: " + keyword);
     }
 
+    /**
+     * Pick the match mode from the search syntax: {@code "words in order"} for a phrase,
+     * {@code a OR b} for any word, {@code -w words} for all words, otherwise a substring.
+     */
+    private static TextMatch searchMode(String input) {
+        if (input.startsWith("-w ")) {
+            return TextMatch.ALL_TERMS;
+        }
+        if (input.length() > 1 && input.startsWith("\"") && input.endsWith("\"")) {
+            return TextMatch.PHRASE;
+        }
+        return input.matches(".*\\sOR\\s.*") ? TextMatch.ANY_TERM : TextMatch.SUBSTRING;
+    }
+
+    private static String searchText(String input) {
+        return switch (searchMode(input)) {
+            case ALL_TERMS -> input.substring(3).trim();
+            case PHRASE -> input.substring(1, input.length() - 1);
+            case ANY_TERM -> input.replaceAll("\\sOR\\s", " ");
+            case SUBSTRING -> input;
+        };
+    }
+
     private void handleCategory(String args) {
         if (args.isEmpty() || args.equals("list")) {
             List<Category> categories = categoryService.getAllCategories();
@@ -277,9 +326,51 @@ public class CommandHandler {
         System.out.println("✓ Category created: " + category.name());
     }
 
-    private void handleStatistics() {
-        TaskService.TaskStatistics stats = taskService.getStatistics();
-        formatter.printStatistics(stats);
+    private void handleStatistics(String args) {
+        String[] parts = args.isBlank() ? new String[0] : args.trim().toLowerCase().split("[\\s,]+");
+        if (parts.length == 0) {
+            TaskService.TaskStatistics stats = taskService.getStatistics();
+            formatter.printStatistics(stats);
+            return;
+        }
+
+        AttributeQuery filter = AttributeQuery.any();
+        List<TaskAggregation.Dimension> dimensions = new ArrayList<>();
+        for (String part : parts) {
+            if (part.equals("open")) {
+                filter = filter.withStatuses(Status.TODO, Status.IN_PROGRESS);
+            } else if (!part.equals("by")) {
+                dimensions.add(TaskAggregation.Dimension.fromString(part));
+            }
+        }
+        TaskAggregation aggregation = new TaskAggregation(dimensions, List.of(TaskAggregation.Aggregate.COUNT,
+            TaskAggregation.Aggregate.DONE, TaskAggregation.Aggregate.OVERDUE, TaskAggregation.Aggregate.MIN_DUE,
+            TaskAggregation.Aggregate.COMPLETION_RATE), filter, LocalDateTime.now());
+        formatter.printAggregation(aggregation, searchService.aggregate(aggregation), categoryService);
+    }
+
+    private void handleDashboard() {
+        AttributeQuery open = AttributeQuery.any().withStatuses(Status.TODO, Status.IN_PROGRESS);
+        QueryBatch batch = QueryBatch.at(LocalDateTime.now())
+            .overdue("Overdue")
+            .dueSoon("Due Soon")
+            .filter("High Priority", open.withPriorityAtLeast(Priority.HIGH))
+            .filter("In Progress", AttributeQuery.any().withStatuses(Status.IN_PROGRESS))
+            .aggregate("totals", AttributeQuery.any())
+            .build();
+        QueryBatch.Result result = searchService.evaluate(batch);
+
+        List<TaskAggregation.Group> totals = result.groups("totals");
+        if (totals.isEmpty()) {
+            System.out.println("No tasks found.");
+            return;
+        }
+        TaskAggregation.Group all = totals.get(0);
+        System.out.printf("%n%d tasks, %d done (%.1f%%), %d overdue%n",
+            all.count(), all.done(), all.completionRate() * 100, all.overdue());
+        result.tasks().forEach((header, tasks) -> formatter.printTaskPage(
+            searchService.page(tasks, SearchService.SortStrategy.PRIORITY_DESC, 0, DASHBOARD_SECTION_SIZE),
+            categoryService, header, null));
     }
 
     private void handleHelp() {
@@ -289,11 +380,13 @@ public class CommandHandler {
             
             Task Management:
               create, add, new          Create a new task
-              list [filter]             List all tasks or filter by: todo, progress, done, overdue, high
+              list [filter] [page]      List tasks, %d per page; filter by: todo, progress, done, overdue, high
               update, edit              Update an existing task
               delete, remove, rm        Delete a task
               complete, done            Mark a task as completed
               search <keyword>          Search tasks by keyword
+                                        ("exact phrase", a OR b, -w all words,
+                                         -r words for the best matches first)
             
             Category Management:
               category list             List all categories
@@ -301,10 +394,13 @@ public class CommandHandler {
             
             Other:
               stats, statistics         Show task statistics
+              dashboard, dash           Show overdue, due soon, high priority and in-progress tasks
+              stats [open] <by...>      Group statistics by category, status, priority,
+                                        week, month, created or completed
               help, ?                   Show this help message
               exit, quit, q             Exit the application
             
-            """);
+            """.formatted(LIST_PAGE_SIZE));
     }
 }
 
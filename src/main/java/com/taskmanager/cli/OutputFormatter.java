@@ -3,10 +3,14 @@ package com.taskmanager.cli;
 import com.taskmanager.domain.Category;
 import com.taskmanager.domain.Task;
 import com.taskmanager.service.CategoryService;
+import com.taskmanager.service.SearchService;
+import com.taskmanager.service.TaskAggregation;
 import com.taskmanager.service.TaskService;
 import com.taskmanager.util.DateUtil;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Formats output for CLI display.
@@ -56,8 +60,19 @@ public class OutputFormatter {
      * Print a list of tasks in table format.
      */
     public void printTaskList(List<Task> tasks, CategoryService categoryService, String header) {
+        printTaskPage(new SearchService.Page(tasks, 0, tasks.size()), categoryService, header, null);
+    }
+
+    /**
+     * Print one page of a task listing; rows are numbered by their position in the whole listing.
+     *
+     * @param nextCommand command that shows the next page, or null on the last page
+     */
+    public void printTaskPage(SearchService.Page page, CategoryService categoryService, String header,
+                              String nextCommand) {
+        List<Task> tasks = page.tasks();
         System.out.println("\n" + BORDER);
-        System.out.println("  " + header + " (" + tasks.size() + " tasks)");
+        System.out.println("  " + header + " (" + page.total() + " tasks)");
         System.out.println(BORDER);
 
         if (tasks.isEmpty()) {
@@ -81,9 +96,14 @@ public class OutputFormatter {
             }
 
             System.out.printf("  %-4d %-30s %-12s %-10s %-15s%n", 
-                i + 1, title, status, priority, dueDate);
+                page.offset() + i + 1, title, status, priority, dueDate);
         }
 
+        if (page.tasks().size() < page.total()) {
+            System.out.println(LINE);
+            System.out.printf("  Showing %d-%d of %d%s%n", page.offset() + 1, page.offset() + tasks.size(),
+                page.total(), nextCommand == null ? "" : " · '" + nextCommand + "' for more");
+        }
         System.out.println(BORDER);
     }
 
@@ -134,6 +154,83 @@ public class OutputFormatter {
         System.out.println(BORDER);
     }
 
+    /**
+     * Print grouped aggregates as a table, one row per group.
+     */
+    public void printAggregation(TaskAggregation aggregation, List<TaskAggregation.Group> groups,
+                                 CategoryService categoryService) {
+        System.out.println("\n" + BORDER);
+        System.out.println("  Task Statistics by "
+            + aggregation.dimensions().stream().map(this::label).collect(Collectors.joining(", ")));
+        System.out.println(BORDER);
+
+        StringBuilder header = new StringBuilder(" ");
+        aggregation.dimensions().forEach(dimension -> header.append(String.format(" %-16s", label(dimension))));
+        aggregation.aggregates().forEach(aggregate -> header.append(String.format(" %10s", heading(aggregate))));
+        System.out.println(header);
+        System.out.println(LINE);
+
+        for (TaskAggregation.Group group : groups) {
+            StringBuilder row = new StringBuilder(" ");
+            for (int i = 0; i < group.key().size(); i++) {
+                String value = keyText(aggregation.dimensions().get(i), group.key().get(i), categoryService);
+                row.append(String.format(" %-16s", truncate(value, 16)));
+            }
+            for (TaskAggregation.Aggregate aggregate : aggregation.aggregates()) {
+                row.append(String.format(" %10s", valueText(group.value(aggregate))));
+            }
+            System.out.println(row);
+        }
+        if (groups.isEmpty()) {
+            System.out.println("  No tasks found.");
+        }
+
+        System.out.println(BORDER);
+    }
+
+    private String label(Enum<?> value) {
+        String words = value.name().toLowerCase().replace('_', ' ');
+        return Character.toUpperCase(words.charAt(0)) + words.substring(1);
+    }
+
+    private String heading(TaskAggregation.Aggregate aggregate) {
+        return switch (aggregate) {
+            case COUNT -> "Tasks";
+            case DONE -> "Done";
+            case OVERDUE -> "Overdue";
+            case MIN_DUE -> "First due";
+            case MAX_DUE -> "Last due";
+            case COMPLETION_RATE -> "Completed";
+        };
+    }
+
+    private String keyText(TaskAggregation.Dimension dimension, Object value, CategoryService categoryService) {
+        if (value == null) {
+            return "(none)";
+        }
+        if (dimension == TaskAggregation.Dimension.CATEGORY) {
+            try {
+                return categoryService.getCategory((String) value).name();
+            } catch (Exception e) {
+                return value.toString();
+            }
+        }
+        return value.toString();
+    }
+
+    private String valueText(Object value) {
+        if (value == null) {
+            return "-";
+        }
+        if (value instanceof Double rate) {
+            return String.format("%.1f%%", rate * 100);
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate().toString();
+        }
+        return value.toString();
+    }
+
     /**
      * Get icon for status.
      */
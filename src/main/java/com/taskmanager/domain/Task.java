@@ -1,5 +1,6 @@
 package com.taskmanager.domain;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.UUID;
@@ -10,6 +11,11 @@ import java.util.UUID;
  * Uses immutable design with builder pattern for flexibility.
  */
 public final class Task {
+    /**
+     * How far ahead of its due date a task counts as due soon.
+     */
+    public static final Duration DUE_SOON_WINDOW = Duration.ofHours(24);
+
     private final String id;
     private final String title;
     private final String description;
@@ -19,6 +25,7 @@ public final class Task {
     private final LocalDateTime dueDate;
     private final LocalDateTime createdAt;
     private final LocalDateTime updatedAt;
+    private final long version;
 
     private Task(Builder builder) {
         this.id = builder.id;
@@ -30,6 +37,7 @@ public final class Task {
         this.dueDate = builder.dueDate;
         this.createdAt = builder.createdAt;
         this.updatedAt = builder.updatedAt;
+        this.version = builder.version;
     }
 
     // Getters
@@ -43,23 +51,45 @@ public final class Task {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
 
+    /**
+     * Optimistic concurrency stamp, advanced by the repository each time the task is
+     * stored; copies made with the {@code with} methods keep the version they came from.
+     */
+    public long getVersion() { return version; }
+
     /**
      * Check if task is overdue.
      */
     public boolean isOverdue() {
+        return isOverdue(LocalDateTime.now());
+    }
+
+    /**
+     * Check if task is overdue at the given instant.
+     * Callers checking many tasks pass one captured clock reading.
+     */
+    public boolean isOverdue(LocalDateTime now) {
         return dueDate != null && 
                status != Status.DONE && 
-               LocalDateTime.now().isAfter(dueDate);
+               now.isAfter(dueDate);
     }
 
     /**
      * Check if task is due soon (within 24 hours).
      */
     public boolean isDueSoon() {
+        return isDueSoon(LocalDateTime.now());
+    }
+
+    /**
+     * Check if task is due soon (within 24 hours) at the given instant:
+     * not done, not yet overdue, and due before the window ends.
+     */
+    public boolean isDueSoon(LocalDateTime now) {
         return dueDate != null && 
                status != Status.DONE && 
-               LocalDateTime.now().plusHours(24).isAfter(dueDate) &&
-               !isOverdue();
+               now.plus(DUE_SOON_WINDOW).isAfter(dueDate) &&
+               !isOverdue(now);
     }
 
     /**
@@ -166,14 +196,17 @@ public final class Task {
         private LocalDateTime dueDate;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        private long version;
 
+        /**
+         * ID and timestamps default to a random UUID and the build time.
+         * They are filled in by {@link #build()} so that loaders restoring
+         * stored tasks don't pay for values they immediately overwrite.
+         */
         public Builder() {
-            this.id = UUID.randomUUID().toString();
             this.priority = Priority.MEDIUM;
             this.status = Status.TODO;
             this.description = "";
-            this.createdAt = LocalDateTime.now();
-            this.updatedAt = LocalDateTime.now();
         }
 
         /**
@@ -189,6 +222,7 @@ public final class Task {
             this.dueDate = task.dueDate;
             this.createdAt = task.createdAt;
             this.updatedAt = task.updatedAt;
+            this.version = task.version;
         }
 
         public Builder id(String id) {
@@ -236,11 +270,25 @@ public final class Task {
             return this;
         }
 
+        public Builder version(long version) {
+            this.version = version;
+            return this;
+        }
+
         public Task build() {
             Objects.requireNonNull(title, "Task title cannot be null");
             if (title.isBlank()) {
                 throw new IllegalArgumentException("Task title cannot be blank");
             }
+            if (id == null) {
+                id = UUID.randomUUID().toString();
+            }
+            if (createdAt == null) {
+                createdAt = LocalDateTime.now();
+            }
+            if (updatedAt == null) {
+                updatedAt = createdAt;
+            }
             return new Task(this);
         }
     }
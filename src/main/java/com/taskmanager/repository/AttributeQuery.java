@@ -0,0 +1,93 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Set-valued criteria on the enumerable task attributes: a task matches when its
+ * status, priority and category are each among the allowed values.
+ * An empty set leaves that attribute unconstrained, so implementations can answer
+ * the query from per-value indexes with unions inside and intersections across
+ * attributes.
+ *
+ * @param statuses    allowed statuses
+ * @param priorities  allowed priorities
+ * @param categoryIds allowed category IDs; a null element allows uncategorized tasks
+ */
+public record AttributeQuery(Set<Status> statuses, Set<Priority> priorities, Set<String> categoryIds) {
+
+    public AttributeQuery {
+        statuses = statuses == null || statuses.isEmpty()
+            ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(statuses));
+        priorities = priorities == null || priorities.isEmpty()
+            ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(priorities));
+        categoryIds = categoryIds == null || categoryIds.isEmpty()
+            ? Set.of() : Collections.unmodifiableSet(new LinkedHashSet<>(categoryIds));
+    }
+
+    /**
+     * Query matching every task.
+     */
+    public static AttributeQuery any() {
+        return new AttributeQuery(Set.of(), Set.of(), Set.of());
+    }
+
+    /**
+     * This query restricted to the given statuses.
+     */
+    public AttributeQuery withStatuses(Status... statuses) {
+        return new AttributeQuery(Set.copyOf(Arrays.asList(statuses)), priorities, categoryIds);
+    }
+
+    /**
+     * This query restricted to the given priorities.
+     */
+    public AttributeQuery withPriorities(Priority... priorities) {
+        return new AttributeQuery(statuses, Set.copyOf(Arrays.asList(priorities)), categoryIds);
+    }
+
+    /**
+     * This query restricted to priorities at or above the given level.
+     */
+    public AttributeQuery withPriorityAtLeast(Priority minimum) {
+        Set<Priority> allowed = EnumSet.noneOf(Priority.class);
+        for (Priority priority : Priority.values()) {
+            if (priority.getLevel() >= minimum.getLevel()) {
+                allowed.add(priority);
+            }
+        }
+        return new AttributeQuery(statuses, allowed, categoryIds);
+    }
+
+    /**
+     * This query restricted to the given categories; pass null to include uncategorized tasks.
+     */
+    public AttributeQuery inCategories(String... categoryIds) {
+        return inCategories(Arrays.asList(categoryIds));
+    }
+
+    /**
+     * This query restricted to the given categories; a null element includes uncategorized tasks.
+     */
+    public AttributeQuery inCategories(Collection<String> categoryIds) {
+        return new AttributeQuery(statuses, priorities, new LinkedHashSet<>(categoryIds));
+    }
+
+    /**
+     * Build a predicate that applies the constrained attributes.
+     */
+    public Predicate<Task> asPredicate() {
+        return task -> (statuses.isEmpty() || statuses.contains(task.getStatus()))
+            && (priorities.isEmpty() || priorities.contains(task.getPriority()))
+            && (categoryIds.isEmpty() || categoryIds.contains(task.getCategoryId()));
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Optional;
  * Repository interface for Category persistence operations.
  * Demonstrates Repository pattern and Interface Segregation Principle.
  */
-public interface CategoryRepository {
+public interface CategoryRepository extends AutoCloseable {
     /**
      * Save a category. Creates new or updates existing.
      * 
@@ -59,5 +59,16 @@ public interface CategoryRepository {
      * @return category count
      */
     long count();
-}
 
+    /**
+     * Write any buffered changes to durable storage.
+     * Returns once every change acknowledged so far has been persisted.
+     */
+    void flush();
+
+    /**
+     * Flush pending changes and release storage resources.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,61 @@
+package com.taskmanager.repository;
+
+import java.util.List;
+
+/**
+ * How a repository evaluated a query, with estimated and actual row counts per step.
+ * Returned by {@link TaskRepository#explain(TaskQuery)} to help tune queries and indexes.
+ *
+ * @param steps  the steps in execution order
+ * @param detail backend-specific plan text, or an empty string
+ */
+public record QueryPlan(List<Step> steps, String detail) {
+
+    /**
+     * What a step contributes to the result.
+     */
+    public enum Role {
+        /** Produces the candidate rows every later step filters. */
+        DRIVER,
+        /** Keeps candidates found in another index's ID set. */
+        INTERSECT,
+        /** Evaluates the remaining criteria on each surviving row. */
+        RESIDUAL
+    }
+
+    /**
+     * One step of a plan.
+     *
+     * @param accessPath    index or criteria the step uses
+     * @param role          what the step does with the rows
+     * @param estimatedRows rows the planner expected from this access path, or -1 if unknown
+     * @param actualRows    rows left after this step ran
+     */
+    public record Step(String accessPath, Role role, long estimatedRows, long actualRows) {
+    }
+
+    public QueryPlan {
+        steps = List.copyOf(steps);
+    }
+
+    /**
+     * Rows the query returned.
+     */
+    public long actualRows() {
+        return steps.isEmpty() ? 0 : steps.get(steps.size() - 1).actualRows();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Step step : steps) {
+            text.append(String.format("%-9s %-28s estimated %8s  actual %8d%n",
+                step.role(), step.accessPath(),
+                step.estimatedRows() < 0 ? "?" : String.valueOf(step.estimatedRows()), step.actualRows()));
+        }
+        if (!detail.isEmpty()) {
+            text.append(detail).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Weights for relevance-ranked search.
+ *
+ * <p>Text relevance is BM25 over title and description, with each field's term
+ * frequencies scaled by its weight before saturation, so a word in the title can
+ * count for more than the same word in the description. The optional boosts then
+ * multiply a task's score: by up to {@code 1 + priorityBoost} for the highest
+ * priority, and by up to {@code 1 + recencyBoost} for a task updated just now,
+ * halving with every {@code recencyHalfLife} of age.
+ *
+ * @param titleWeight       weight of a term occurrence in the title
+ * @param descriptionWeight weight of a term occurrence in the description
+ * @param priorityBoost     extra score factor for the highest priority; 0 to disable
+ * @param recencyBoost      extra score factor for a task updated at {@code now}; 0 to disable
+ * @param recencyHalfLife   age at which the recency boost has halved
+ * @param now               instant against which recency is measured
+ */
+public record Ranking(
+    double titleWeight,
+    double descriptionWeight,
+    double priorityBoost,
+    double recencyBoost,
+    Duration recencyHalfLife,
+    LocalDateTime now
+) {
+    private static final int MAX_LEVEL = Priority.CRITICAL.getLevel();
+
+    public Ranking {
+        if (titleWeight < 0 || descriptionWeight < 0 || priorityBoost < 0 || recencyBoost < 0) {
+            throw new IllegalArgumentException("Weights and boosts must not be negative");
+        }
+        if (recencyHalfLife == null || recencyHalfLife.isZero() || recencyHalfLife.isNegative()) {
+            throw new IllegalArgumentException("Recency half-life must be positive");
+        }
+        if (now == null) {
+            throw new IllegalArgumentException("Ranking instant cannot be null");
+        }
+    }
+
+    /**
+     * Text relevance only, with title matches weighted twice as much as description matches.
+     */
+    public static Ranking defaults(LocalDateTime now) {
+        return new Ranking(2.0, 1.0, 0.0, 0.0, Duration.ofDays(7), now);
+    }
+
+    /**
+     * This ranking with scores raised for higher priorities.
+     */
+    public Ranking withPriorityBoost(double boost) {
+        return new Ranking(titleWeight, descriptionWeight, boost, recencyBoost, recencyHalfLife, now);
+    }
+
+    /**
+     * This ranking with scores raised for recently updated tasks.
+     */
+    public Ranking withRecencyBoost(double boost, Duration halfLife) {
+        return new Ranking(titleWeight, descriptionWeight, priorityBoost, boost, halfLife, now);
+    }
+
+    /**
+     * Factor applied to a task's text relevance; 1 when no boost is enabled.
+     */
+    public double boost(Task task) {
+        double factor = 1.0;
+        if (priorityBoost > 0) {
+            factor *= 1.0 + priorityBoost * (task.getPriority().getLevel() - 1) / (MAX_LEVEL - 1);
+        }
+        if (recencyBoost > 0 && task.getUpdatedAt() != null) {
+            double ages = Math.max(0, Duration.between(task.getUpdatedAt(), now).toMillis())
+                / (double) recencyHalfLife.toMillis();
+            factor *= 1.0 + recencyBoost * Math.pow(0.5, ages);
+        }
+        return factor;
+    }
+}
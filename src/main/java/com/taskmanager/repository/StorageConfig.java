@@ -0,0 +1,444 @@
+package com.taskmanager.repository;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Storage configuration for repository implementations.
+ * Values are read from system properties (e.g. {@code -Dtaskmanager.persistence=journal})
+ * so storage behaviour can be changed without touching the service layer.
+ */
+public final class StorageConfig {
+    public static final String PREFIX = "taskmanager.";
+
+    private final Path dataDirectory;
+    private final Backend backend;
+    private final String jdbcUrl;
+    private final PersistenceMode persistenceMode;
+    private final SnapshotFormat snapshotFormat;
+    private final int compactionThreshold;
+    private final int shardCount;
+    private final boolean writeBehind;
+    private final boolean sharedAccess;
+    private final SyncPolicy syncPolicy;
+    private final Set<TaskOrder> sortedViews;
+    private final boolean wordIndex;
+    private final boolean trigramIndex;
+    private final long syncIntervalMillis;
+    private final long flushIntervalMillis;
+    private final int flushBatchSize;
+    private final int writeQueueCapacity;
+    private final Backpressure backpressure;
+
+    private StorageConfig(Builder builder) {
+        this.dataDirectory = builder.dataDirectory;
+        this.backend = builder.backend;
+        this.jdbcUrl = builder.jdbcUrl;
+        this.persistenceMode = builder.persistenceMode;
+        this.snapshotFormat = builder.snapshotFormat;
+        this.compactionThreshold = builder.compactionThreshold;
+        this.shardCount = builder.shardCount;
+        this.writeBehind = builder.writeBehind;
+        this.sharedAccess = builder.sharedAccess;
+        this.syncPolicy = builder.syncPolicy;
+        this.syncIntervalMillis = builder.syncIntervalMillis;
+        this.sortedViews = Set.copyOf(builder.sortedViews);
+        this.wordIndex = builder.wordIndex;
+        this.trigramIndex = builder.trigramIndex;
+        this.flushIntervalMillis = builder.flushIntervalMillis;
+        this.flushBatchSize = builder.flushBatchSize;
+        this.writeQueueCapacity = builder.writeQueueCapacity;
+        this.backpressure = builder.backpressure;
+    }
+
+    /**
+     * Build configuration from {@code taskmanager.*} system properties,
+     * falling back to defaults for anything not set.
+     */
+    public static StorageConfig fromSystemProperties() {
+        Builder builder = new Builder();
+        String dataDir = System.getProperty(PREFIX + "dataDir");
+        if (dataDir != null && !dataDir.isBlank()) {
+            builder.dataDirectory(Paths.get(dataDir));
+        }
+        String backend = System.getProperty(PREFIX + "backend");
+        if (backend != null && !backend.isBlank()) {
+            builder.backend(Backend.fromString(backend));
+        }
+        String jdbcUrl = System.getProperty(PREFIX + "jdbc.url");
+        if (jdbcUrl != null && !jdbcUrl.isBlank()) {
+            builder.jdbcUrl(jdbcUrl.trim());
+        }
+        String mode = System.getProperty(PREFIX + "persistence");
+        if (mode != null && !mode.isBlank()) {
+            builder.persistenceMode(PersistenceMode.fromString(mode));
+        }
+        String format = System.getProperty(PREFIX + "format");
+        if (format != null && !format.isBlank()) {
+            builder.snapshotFormat(SnapshotFormat.fromString(format));
+        }
+        builder.compactionThreshold(
+            intProperty("journal.compactionThreshold", builder.compactionThreshold));
+        builder.shardCount(intProperty("shards", builder.shardCount));
+        builder.writeBehind(Boolean.parseBoolean(System.getProperty(PREFIX + "writeBehind", "false")));
+        builder.sharedAccess(Boolean.parseBoolean(System.getProperty(PREFIX + "shared", "false")));
+        String sync = System.getProperty(PREFIX + "sync");
+        if (sync != null && !sync.isBlank()) {
+            builder.syncPolicy(SyncPolicy.fromString(sync));
+        }
+        builder.syncIntervalMillis(intProperty("sync.intervalMs", (int) builder.syncIntervalMillis));
+        builder.flushIntervalMillis(
+            intProperty("writeBehind.intervalMs", (int) builder.flushIntervalMillis));
+        builder.flushBatchSize(intProperty("writeBehind.batchSize", builder.flushBatchSize));
+        builder.writeQueueCapacity(intProperty("writeQueue.capacity", builder.writeQueueCapacity));
+        String backpressure = System.getProperty(PREFIX + "writeQueue.backpressure");
+        if (backpressure != null && !backpressure.isBlank()) {
+            builder.backpressure(Backpressure.fromString(backpressure));
+        }
+        String views = System.getProperty(PREFIX + "sortedViews");
+        if (views != null && !views.isBlank()) {
+            Set<TaskOrder> orders = EnumSet.noneOf(TaskOrder.class);
+            for (String name : views.split(",")) {
+                if (!name.isBlank()) {
+                    orders.add(TaskOrder.fromString(name));
+                }
+            }
+            builder.sortedViews(orders);
+        }
+        builder.wordIndex(Boolean.parseBoolean(System.getProperty(PREFIX + "wordIndex", "false")));
+        builder.trigramIndex(Boolean.parseBoolean(System.getProperty(PREFIX + "trigramIndex", "false")));
+        return builder.build();
+    }
+
+    /**
+     * Default configuration: JSON snapshot storage under {@code data/}.
+     */
+    public static StorageConfig defaults() {
+        return new Builder().build();
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(PREFIX + name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + PREFIX + name + ": " + value, e);
+        }
+    }
+
+    public Path getDataDirectory() { return dataDirectory; }
+    public Backend getBackend() { return backend; }
+    public PersistenceMode getPersistenceMode() { return persistenceMode; }
+    public SnapshotFormat getSnapshotFormat() { return snapshotFormat; }
+    public int getCompactionThreshold() { return compactionThreshold; }
+    public int getShardCount() { return shardCount; }
+    public boolean isWriteBehind() { return writeBehind; }
+    public boolean isSharedAccess() { return sharedAccess; }
+    public SyncPolicy getSyncPolicy() { return syncPolicy; }
+    public long getSyncIntervalMillis() { return syncIntervalMillis; }
+    public long getFlushIntervalMillis() { return flushIntervalMillis; }
+    public int getFlushBatchSize() { return flushBatchSize; }
+    public int getWriteQueueCapacity() { return writeQueueCapacity; }
+    public Backpressure getBackpressure() { return backpressure; }
+    public Set<TaskOrder> getSortedViews() { return sortedViews; }
+    public boolean isWordIndex() { return wordIndex; }
+    public boolean isTrigramIndex() { return trigramIndex; }
+
+    /**
+     * JDBC URL for the SQL backend; defaults to an H2 database file in the data directory,
+     * opened in auto-server mode when the directory is shared between processes.
+     */
+    public String getJdbcUrl() {
+        if (jdbcUrl != null) {
+            return jdbcUrl;
+        }
+        String url = "jdbc:h2:file:" + dataDirectory.toAbsolutePath().resolve("taskmanager");
+        return sharedAccess ? url + ";AUTO_SERVER=TRUE" : url;
+    }
+
+    /**
+     * Resolve a file name inside the data directory.
+     */
+    public Path resolve(String fileName) {
+        return dataDirectory.resolve(fileName);
+    }
+
+    /**
+     * Where tasks and categories are kept.
+     */
+    public enum Backend {
+        /** In-memory maps persisted to files according to the persistence mode and format. */
+        FILE,
+        /** Embedded SQL database accessed through JDBC, with indexed queries. */
+        SQL;
+
+        public static Backend fromString(String value) {
+            return switch (value.trim().toUpperCase()) {
+                case "FILE", "JSON" -> FILE;
+                case "SQL", "JDBC", "H2" -> SQL;
+                default -> throw new IllegalArgumentException("Invalid storage backend: " + value);
+            };
+        }
+    }
+
+    /**
+     * How mutations are made durable.
+     */
+    public enum PersistenceMode {
+        /** Rewrite the whole data file on every mutation. */
+        SNAPSHOT,
+        /** Append each mutation to a journal and compact it into a snapshot in the background. */
+        JOURNAL,
+        /** Spread tasks over hash-selected shard files and rewrite only the affected shard. */
+        SHARDED;
+
+        public static PersistenceMode fromString(String value) {
+            return switch (value.trim().toUpperCase()) {
+                case "SNAPSHOT", "JSON" -> SNAPSHOT;
+                case "JOURNAL", "WAL", "LOG" -> JOURNAL;
+                case "SHARDED", "SHARDS" -> SHARDED;
+                default -> throw new IllegalArgumentException("Invalid persistence mode: " + value);
+            };
+        }
+    }
+
+    /**
+     * Encoding of task snapshot files.
+     */
+    public enum SnapshotFormat {
+        /** Pretty-printed JSON array in {@code tasks.json}. */
+        JSON,
+        /** Length-prefixed binary records in {@code tasks.bin}, memory-mapped on load. */
+        BINARY;
+
+        public static SnapshotFormat fromString(String value) {
+            return switch (value.trim().toUpperCase()) {
+                case "JSON" -> JSON;
+                case "BINARY", "BIN" -> BINARY;
+                default -> throw new IllegalArgumentException("Invalid snapshot format: " + value);
+            };
+        }
+    }
+
+    /**
+     * When written files are flushed to the storage device.
+     * Every policy replaces files atomically; they differ only in how much
+     * acknowledged data an OS crash or power loss can take with it.
+     */
+    public enum SyncPolicy {
+        /** fsync before every write returns; nothing acknowledged is lost. */
+        ALWAYS,
+        /** fsync written files in the background once per interval; at most one interval is lost. */
+        INTERVAL,
+        /** Leave flushing to the OS; fastest, but recent writes may be lost on power failure. */
+        NONE;
+
+        public static SyncPolicy fromString(String value) {
+            return switch (value.trim().toUpperCase()) {
+                case "ALWAYS", "FSYNC" -> ALWAYS;
+                case "INTERVAL", "PERIODIC" -> INTERVAL;
+                case "NONE", "OS" -> NONE;
+                default -> throw new IllegalArgumentException("Invalid sync policy: " + value);
+            };
+        }
+    }
+
+    /**
+     * What a caller does when the write queue is full.
+     */
+    public enum Backpressure {
+        /** Wait until the writer thread makes room. */
+        BLOCK,
+        /** Write the queued mutations and its own on the calling thread. */
+        SYNC,
+        /** Reject the write with an exception. */
+        FAIL;
+
+        public static Backpressure fromString(String value) {
+            return switch (value.trim().toUpperCase().replace('-', '_')) {
+                case "BLOCK", "WAIT" -> BLOCK;
+                case "SYNC", "DROP_TO_SYNC", "CALLER" -> SYNC;
+                case "FAIL", "REJECT" -> FAIL;
+                default -> throw new IllegalArgumentException("Invalid backpressure policy: " + value);
+            };
+        }
+    }
+
+    /**
+     * Builder for storage configuration.
+     */
+    public static class Builder {
+        private Path dataDirectory = Paths.get("data");
+        private Backend backend = Backend.FILE;
+        private String jdbcUrl;
+        private PersistenceMode persistenceMode = PersistenceMode.SNAPSHOT;
+        private SnapshotFormat snapshotFormat = SnapshotFormat.JSON;
+        private int compactionThreshold = 10_000;
+        private int shardCount = 16;
+        private boolean writeBehind = false;
+        private boolean sharedAccess = false;
+        private SyncPolicy syncPolicy = SyncPolicy.ALWAYS;
+        private long syncIntervalMillis = 1_000;
+        private long flushIntervalMillis = 1_000;
+        private int flushBatchSize = 1_000;
+        private int writeQueueCapacity = 0;
+        private Backpressure backpressure = Backpressure.BLOCK;
+        private Set<TaskOrder> sortedViews = Set.of();
+        private boolean wordIndex = false;
+        private boolean trigramIndex = false;
+
+        public Builder dataDirectory(Path dataDirectory) {
+            this.dataDirectory = dataDirectory;
+            return this;
+        }
+
+        public Builder backend(Backend backend) {
+            this.backend = backend;
+            return this;
+        }
+
+        /**
+         * JDBC URL used by the SQL backend instead of the default database file.
+         */
+        public Builder jdbcUrl(String jdbcUrl) {
+            this.jdbcUrl = jdbcUrl;
+            return this;
+        }
+
+        public Builder persistenceMode(PersistenceMode persistenceMode) {
+            this.persistenceMode = persistenceMode;
+            return this;
+        }
+
+        public Builder snapshotFormat(SnapshotFormat snapshotFormat) {
+            this.snapshotFormat = snapshotFormat;
+            return this;
+        }
+
+        public Builder compactionThreshold(int compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        public Builder shardCount(int shardCount) {
+            this.shardCount = shardCount;
+            return this;
+        }
+
+        /**
+         * Coalesce mutations and write them from a background flusher thread.
+         */
+        public Builder writeBehind(boolean writeBehind) {
+            this.writeBehind = writeBehind;
+            return this;
+        }
+
+        /**
+         * Coordinate with other processes using the same data directory.
+         * Requires snapshot or sharded persistence with synchronous writes.
+         */
+        public Builder sharedAccess(boolean sharedAccess) {
+            this.sharedAccess = sharedAccess;
+            return this;
+        }
+
+        public Builder syncPolicy(SyncPolicy syncPolicy) {
+            this.syncPolicy = syncPolicy;
+            return this;
+        }
+
+        public Builder syncIntervalMillis(long syncIntervalMillis) {
+            this.syncIntervalMillis = syncIntervalMillis;
+            return this;
+        }
+
+        public Builder flushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+            return this;
+        }
+
+        public Builder flushBatchSize(int flushBatchSize) {
+            this.flushBatchSize = flushBatchSize;
+            return this;
+        }
+
+        /**
+         * Hand file writes to a single writer thread through a queue of this many
+         * mutations; 0, the default, writes on the calling thread.
+         */
+        public Builder writeQueueCapacity(int writeQueueCapacity) {
+            this.writeQueueCapacity = writeQueueCapacity;
+            return this;
+        }
+
+        public Builder backpressure(Backpressure backpressure) {
+            this.backpressure = backpressure;
+            return this;
+        }
+
+        /**
+         * Orders the file backend keeps a sorted view of, updated on every save and
+         * delete, so listings in those orders start without sorting.
+         */
+        public Builder sortedViews(Set<TaskOrder> sortedViews) {
+            this.sortedViews = sortedViews;
+            return this;
+        }
+
+        /**
+         * Keep a word index over titles and descriptions in the file backend, so
+         * word and phrase searches and relevance ranking only visit the postings of
+         * the query's words. Costs memory for every (word, task) pair.
+         */
+        public Builder wordIndex(boolean wordIndex) {
+            this.wordIndex = wordIndex;
+            return this;
+        }
+
+        /**
+         * Keep a trigram index over titles and descriptions in the file backend, so
+         * substring searches and keyword filters only verify the tasks containing
+         * every trigram of the text. Costs memory for every (trigram, task) pair.
+         */
+        public Builder trigramIndex(boolean trigramIndex) {
+            this.trigramIndex = trigramIndex;
+            return this;
+        }
+
+        public StorageConfig build() {
+            Objects.requireNonNull(dataDirectory, "Data directory cannot be null");
+            Objects.requireNonNull(backend, "Backend cannot be null");
+            Objects.requireNonNull(persistenceMode, "Persistence mode cannot be null");
+            Objects.requireNonNull(snapshotFormat, "Snapshot format cannot be null");
+            Objects.requireNonNull(syncPolicy, "Sync policy cannot be null");
+            Objects.requireNonNull(sortedViews, "Sorted views cannot be null");
+            Objects.requireNonNull(backpressure, "Backpressure cannot be null");
+            if (compactionThreshold < 1) {
+                throw new IllegalArgumentException("Compaction threshold must be positive");
+            }
+            if (shardCount < 1) {
+                throw new IllegalArgumentException("Shard count must be positive");
+            }
+            if (syncIntervalMillis < 1) {
+                throw new IllegalArgumentException("Sync interval must be positive");
+            }
+            if (flushIntervalMillis < 1 || flushBatchSize < 1) {
+                throw new IllegalArgumentException("Flush interval and batch size must be positive");
+            }
+            if (writeQueueCapacity < 0) {
+                throw new IllegalArgumentException("Write queue capacity cannot be negative");
+            }
+            if (sharedAccess && (writeBehind || writeQueueCapacity > 0 || persistenceMode == PersistenceMode.JOURNAL)) {
+                throw new IllegalArgumentException(
+                    "Shared access requires snapshot or sharded persistence without write-behind or a write queue");
+            }
+            return new StorageConfig(this);
+        }
+    }
+}
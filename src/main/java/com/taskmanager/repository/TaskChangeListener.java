@@ -0,0 +1,25 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.domain.Task;
+
+/**
+ * Receives the changes made to a repository's tasks, for callers that keep
+ * derived state such as cached query results.
+ * Listeners are called on the writing thread after the change is visible and
+ * the repository version has been advanced; they must be quick and must not
+ * write to the repository.
+ */
+public interface TaskChangeListener {
+    /**
+     * One task changed.
+     *
+     * @param old     the task before the change, or null if it was added
+     * @param current the task after the change, or null if it was deleted
+     */
+    void changed(Task old, Task current);
+
+    /**
+     * Tasks changed in a way not described task by task; any derived state may be stale.
+     */
+    void changedAll();
+}
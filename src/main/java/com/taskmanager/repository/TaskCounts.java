@@ -0,0 +1,46 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Task counts by status and priority, with the number of tasks overdue at one instant.
+ *
+ * @param total      number of tasks
+ * @param byStatus   tasks per status; every status is present
+ * @param byPriority tasks per priority; every priority is present
+ * @param overdue    tasks overdue at the instant the counts were taken
+ */
+public record TaskCounts(long total, Map<Status, Long> byStatus, Map<Priority, Long> byPriority, long overdue) {
+
+    public TaskCounts {
+        Map<Status, Long> statuses = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            statuses.put(status, byStatus.getOrDefault(status, 0L));
+        }
+        Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            priorities.put(priority, byPriority.getOrDefault(priority, 0L));
+        }
+        byStatus = Collections.unmodifiableMap(statuses);
+        byPriority = Collections.unmodifiableMap(priorities);
+    }
+
+    /**
+     * Number of tasks with the given status.
+     */
+    public long withStatus(Status status) {
+        return byStatus.get(status);
+    }
+
+    /**
+     * Number of tasks with the given priority.
+     */
+    public long withPriority(Priority priority) {
+        return byPriority.get(priority);
+    }
+}
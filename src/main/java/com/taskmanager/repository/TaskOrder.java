@@ -0,0 +1,61 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Task;
+
+import java.util.Comparator;
+
+/**
+ * Orderings of tasks that a repository can list in.
+ * Ties are broken by task ID, so every task has one position and a task can
+ * serve as the cursor of a page.
+ */
+public enum TaskOrder {
+    PRIORITY_DESC(Comparator.comparing(Task::getPriority,
+        Comparator.comparingInt(Priority::getLevel).reversed())),
+    PRIORITY_ASC(Comparator.comparing(Task::getPriority,
+        Comparator.comparingInt(Priority::getLevel))),
+    DUE_DATE_ASC(Comparator.comparing(Task::getDueDate,
+        Comparator.nullsLast(Comparator.naturalOrder()))),
+    DUE_DATE_DESC(Comparator.comparing(Task::getDueDate,
+        Comparator.nullsLast(Comparator.reverseOrder()))),
+    CREATED_ASC(Comparator.comparing(Task::getCreatedAt)),
+    CREATED_DESC(Comparator.comparing(Task::getCreatedAt).reversed()),
+    TITLE_ASC(Comparator.comparing(Task::getTitle)),
+    TITLE_DESC(Comparator.comparing(Task::getTitle).reversed());
+
+    private final Comparator<Task> comparator;
+    private final Comparator<Task> keysetComparator;
+
+    TaskOrder(Comparator<Task> comparator) {
+        this.comparator = comparator;
+        this.keysetComparator = comparator.thenComparing(Task::getId);
+    }
+
+    /**
+     * The order's sort key alone, leaving tasks with equal keys tied.
+     */
+    public Comparator<Task> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * The order's sort key with ties broken by task ID.
+     */
+    public Comparator<Task> getKeysetComparator() {
+        return keysetComparator;
+    }
+
+    /**
+     * Parse an order name, ignoring case.
+     *
+     * @throws IllegalArgumentException if the name is not an order
+     */
+    public static TaskOrder fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid task order: " + value, e);
+        }
+    }
+}
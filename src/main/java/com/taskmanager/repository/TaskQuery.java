@@ -0,0 +1,110 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+/**
+ * Criteria for repository-side task queries.
+ * Null fields are not constrained, so implementations can push every
+ * non-null criterion down to their storage (indexes, SQL WHERE clauses).
+ *
+ * @param status      exact status
+ * @param priority    exact priority
+ * @param categoryId  exact category ID
+ * @param keyword     case-insensitive substring of title or description
+ * @param dueFrom     due date on or after this instant
+ * @param dueTo       due date on or before this instant
+ * @param overdueAt   task is overdue at this instant (due before it and not DONE)
+ * @param dueSoonAt   task is due soon at this instant (see {@link Task#isDueSoon(LocalDateTime)})
+ */
+public record TaskQuery(
+    Status status,
+    Priority priority,
+    String categoryId,
+    String keyword,
+    LocalDateTime dueFrom,
+    LocalDateTime dueTo,
+    LocalDateTime overdueAt,
+    LocalDateTime dueSoonAt
+) {
+    public TaskQuery {
+        if (keyword != null && keyword.isBlank()) {
+            keyword = null;
+        }
+    }
+
+    /**
+     * Query matching every task.
+     */
+    public static TaskQuery all() {
+        return new TaskQuery(null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Query for tasks whose title or description contains the keyword.
+     */
+    public static TaskQuery withKeyword(String keyword) {
+        return new TaskQuery(null, null, null, keyword, null, null, null, null);
+    }
+
+    /**
+     * Query for tasks due within a range, both ends inclusive.
+     */
+    public static TaskQuery dueBetween(LocalDateTime from, LocalDateTime to) {
+        return new TaskQuery(null, null, null, null, from, to, null, null);
+    }
+
+    /**
+     * Query for tasks overdue at the given instant.
+     */
+    public static TaskQuery overdueAt(LocalDateTime now) {
+        return new TaskQuery(null, null, null, null, null, null, now, null);
+    }
+
+    /**
+     * Query for tasks due soon at the given instant.
+     */
+    public static TaskQuery dueSoonAt(LocalDateTime now) {
+        return new TaskQuery(null, null, null, null, null, null, null, now);
+    }
+
+    /**
+     * Build a predicate that applies only the criteria that are set.
+     * Storage without a native query engine uses this as its filter.
+     */
+    public Predicate<Task> asPredicate() {
+        Predicate<Task> predicate = task -> true;
+        if (status != null) {
+            predicate = predicate.and(task -> task.getStatus() == status);
+        }
+        if (priority != null) {
+            predicate = predicate.and(task -> task.getPriority() == priority);
+        }
+        if (categoryId != null) {
+            predicate = predicate.and(task -> categoryId.equals(task.getCategoryId()));
+        }
+        if (keyword != null) {
+            String lowerKeyword = keyword.toLowerCase();
+            predicate = predicate.and(task ->
+                task.getTitle().toLowerCase().contains(lowerKeyword) ||
+                task.getDescription().toLowerCase().contains(lowerKeyword));
+        }
+        if (dueFrom != null) {
+            predicate = predicate.and(task -> task.getDueDate() != null && !task.getDueDate().isBefore(dueFrom));
+        }
+        if (dueTo != null) {
+            predicate = predicate.and(task -> task.getDueDate() != null && !task.getDueDate().isAfter(dueTo));
+        }
+        if (overdueAt != null) {
+            predicate = predicate.and(task -> task.isOverdue(overdueAt));
+        }
+        if (dueSoonAt != null) {
+            predicate = predicate.and(task -> task.isDueSoon(dueSoonAt));
+        }
+        return predicate;
+    }
+}
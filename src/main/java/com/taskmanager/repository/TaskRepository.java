@@ -1,15 +1,22 @@
 package com.taskmanager.repository;
 
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
 import com.taskmanager.domain.Task;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Task persistence operations.
  * Follows Repository pattern and Dependency Inversion Principle (SOLID).
  * This abstraction allows for different storage implementations (JSON, DB, etc.).
  */
-public interface TaskRepository {
+public interface TaskRepository extends AutoCloseable {
     /**
      * Save a task. Creates new or updates existing.
      * 
@@ -18,6 +25,49 @@ public interface TaskRepository {
      */
     Task save(Task task);
 
+    /**
+     * Save a task, returning a future that completes once the change is durable.
+     * Callers may ignore the future for fire-and-forget writes or wait on it.
+     * Backends without a write queue persist the task before returning.
+     * 
+     * @param task the task to save
+     * @return the saved task, once it has been written
+     */
+    CompletableFuture<Task> saveAsync(Task task);
+
+    /**
+     * Save several tasks as one batch, persisted with a single write.
+     * 
+     * @param tasks the tasks to save
+     * @return the saved tasks
+     */
+    List<Task> saveAll(Collection<Task> tasks);
+
+    /**
+     * Save several tasks as one batch, each only if it is still stored with the
+     * version it carries, so changes computed from tasks read earlier never
+     * overwrite a concurrent save. Tasks saved or deleted in between are skipped.
+     * 
+     * @param tasks the changed tasks, carrying the versions they were read at
+     * @return the tasks that were saved, as stored
+     */
+    List<Task> saveAllIfUnchanged(Collection<Task> tasks);
+
+    /**
+     * Atomically replace a task with a function of its current version.
+     * The function is applied without holding any lock; if the task was changed
+     * by someone else before the result could be stored, the function is applied
+     * again to the new current version, so it may run more than once and should
+     * have no side effects. Exceptions it throws, such as a rejected status
+     * transition, propagate and leave the task unchanged.
+     * 
+     * @param id task ID
+     * @param change produces the updated task; returning the same instance means no change
+     * @return the task as stored, or empty if no task has the ID
+     * @throws IllegalArgumentException if the change returns null or alters the task ID
+     */
+    Optional<Task> update(String id, UnaryOperator<Task> change);
+
     /**
      * Find a task by its ID.
      * 
@@ -33,6 +83,14 @@ public interface TaskRepository {
      */
     List<Task> findAll();
 
+    /**
+     * Stream every task for a single pass, without first copying them into a list
+     * where the storage allows it. The stream may be made parallel.
+     * 
+     * @return stream of all tasks
+     */
+    Stream<Task> stream();
+
     /**
      * Find tasks by category ID.
      * 
@@ -41,6 +99,96 @@ public interface TaskRepository {
      */
     List<Task> findByCategoryId(String categoryId);
 
+    /**
+     * Find tasks with the given status.
+     * 
+     * @param status the status
+     * @return list of tasks with that status
+     */
+    List<Task> findByStatus(Status status);
+
+    /**
+     * Find tasks with the given priority.
+     * 
+     * @param priority the priority
+     * @return list of tasks with that priority
+     */
+    List<Task> findByPriority(Priority priority);
+
+    /**
+     * Find tasks due within a date range, both ends inclusive.
+     * 
+     * @param start earliest due date
+     * @param end latest due date
+     * @return list of tasks due in the range
+     */
+    List<Task> findByDueDateBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Find tasks in a given order, starting after a cursor task.
+     * 
+     * @param order the order to list tasks in
+     * @param after the cursor, or null to start from the first task
+     * @param offset number of tasks to skip after the cursor
+     * @param limit maximum number of tasks returned
+     * @return list of tasks in order
+     */
+    List<Task> findSorted(TaskOrder order, Task after, int offset, int limit);
+
+    /**
+     * Find tasks matching all criteria of a query.
+     * 
+     * @param query the query criteria
+     * @return list of matching tasks
+     */
+    List<Task> findMatching(TaskQuery query);
+
+    /**
+     * Find tasks whose status, priority and category are each among the allowed values.
+     * 
+     * @param query the allowed attribute values
+     * @return list of matching tasks
+     */
+    List<Task> findByAttributes(AttributeQuery query);
+
+    /**
+     * Count tasks whose status, priority and category are each among the allowed values.
+     * 
+     * @param query the allowed attribute values
+     * @return number of matching tasks
+     */
+    long countByAttributes(AttributeQuery query);
+
+    /**
+     * Run a query and describe how it was evaluated, with estimated and actual
+     * row counts, to help tune queries and indexes.
+     * 
+     * @param query the query criteria
+     * @return the executed plan
+     */
+    QueryPlan explain(TaskQuery query);
+
+    /**
+     * Find tasks whose title or description match search text.
+     * 
+     * @param text the search text
+     * @param match how the text is matched
+     * @return list of matching tasks
+     */
+    List<Task> search(String text, TextMatch match);
+
+    /**
+     * Find the tasks most relevant to search words, best first. Tasks containing
+     * any of the words are scored with BM25 over title and description and the
+     * ranking's boosts.
+     * 
+     * @param text the search words
+     * @param ranking field weights and boosts
+     * @param limit maximum number of tasks returned
+     * @return list of the best matching tasks
+     */
+    List<Task> searchRanked(String text, Ranking ranking, int limit);
+
     /**
      * Delete a task by ID.
      * 
@@ -49,6 +197,22 @@ public interface TaskRepository {
      */
     boolean deleteById(String id);
 
+    /**
+     * Delete a task by ID, returning a future that completes once the deletion is durable.
+     * 
+     * @param id the task ID
+     * @return true if deleted, false if not found, once the deletion has been written
+     */
+    CompletableFuture<Boolean> deleteByIdAsync(String id);
+
+    /**
+     * Delete several tasks by ID as one batch, persisted with a single write.
+     * 
+     * @param ids the task IDs
+     * @return number of tasks that existed and were deleted
+     */
+    int deleteAllById(Collection<String> ids);
+
     /**
      * Delete all tasks.
      */
@@ -60,5 +224,40 @@ public interface TaskRepository {
      * @return task count
      */
     long count();
-}
 
+    /**
+     * Modification version, advanced by every change to the tasks.
+     * Changes made by other processes sharing the storage are picked up first
+     * where the backend tracks them.
+     * 
+     * @return the current version
+     */
+    long version();
+
+    /**
+     * Register a listener for changes to the tasks.
+     * 
+     * @param listener the listener
+     */
+    void addChangeListener(TaskChangeListener listener);
+
+    /**
+     * Count tasks by status and priority, and those overdue at the given instant.
+     * 
+     * @param now instant against which overdue tasks are counted
+     * @return the counts
+     */
+    TaskCounts countTasks(LocalDateTime now);
+
+    /**
+     * Write any buffered changes to durable storage.
+     * Returns once every change acknowledged so far has been persisted.
+     */
+    void flush();
+
+    /**
+     * Flush pending changes and release storage resources.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,76 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.domain.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * How search text is matched against a task's title and description.
+ *
+ * <p>The term modes compare whole words: text is split into lowercase runs of
+ * letters and digits, and title and description are matched separately, so a
+ * phrase never spans from one into the other. Text without any word matches
+ * nothing in these modes. {@link #SUBSTRING} keeps the original case-insensitive
+ * {@code contains} semantics, which also finds fragments of words.
+ */
+public enum TextMatch {
+    /** Every word of the text occurs in the task. */
+    ALL_TERMS,
+    /** At least one word of the text occurs in the task. */
+    ANY_TERM,
+    /** The words occur consecutively and in order in the title or the description. */
+    PHRASE,
+    /** The text occurs anywhere in the title or description, ignoring case. */
+    SUBSTRING;
+
+    /**
+     * Split text into lowercase words of letters and digits, in order.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Build a predicate that evaluates this mode directly on each task.
+     * Storage without a text index uses this as its filter.
+     */
+    public Predicate<Task> asPredicate(String text) {
+        if (this == SUBSTRING) {
+            String lowerText = text.toLowerCase();
+            return task -> task.getTitle().toLowerCase().contains(lowerText)
+                || task.getDescription().toLowerCase().contains(lowerText);
+        }
+        List<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return task -> false;
+        }
+        return task -> {
+            List<String> title = tokenize(task.getTitle());
+            List<String> description = tokenize(task.getDescription());
+            if (this == PHRASE) {
+                return Collections.indexOfSubList(title, terms) >= 0
+                    || Collections.indexOfSubList(description, terms) >= 0;
+            }
+            Predicate<String> present = term -> title.contains(term) || description.contains(term);
+            return this == ALL_TERMS ? terms.stream().allMatch(present) : terms.stream().anyMatch(present);
+        };
+    }
+}
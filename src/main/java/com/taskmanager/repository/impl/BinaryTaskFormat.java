@@ -0,0 +1,225 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot read through a memory-mapped FileChannel.
+ *
+ * <p>Layout (big-endian):
+ * <pre>
+ * header      magic "TMGR" (int), version (int), category count (int), task count (int)
+ * dictionary  category IDs as strings; tasks refer to them by index
+ * records     length (int) followed by:
+ *               id, title, description (strings)
+ *               priority ordinal, status ordinal (byte)
+ *               category index (int, -1 for none)
+ *               dueDate, createdAt, updatedAt (timestamps)
+ *               version (long; absent in version 1 files, read as 0)
+ * string      byte length (int, -1 for null) followed by UTF-8 bytes
+ * timestamp   UTC epoch seconds (long, Long.MIN_VALUE for null) and nanos (int)
+ * </pre>
+ * Records are length-prefixed so a reader can step over one without decoding every field.
+ * Counts, lengths, codes and indexes are range-checked on read, so a corrupt file fails
+ * with a {@link DataPersistenceException} rather than an arbitrary runtime exception.
+ */
+class BinaryTaskFormat implements TaskFormat {
+    static final int MAGIC = 0x544D4752; // "TMGR"
+    static final int VERSION = 2;
+
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    @Override
+    public String fileName() {
+        return "tasks.bin";
+    }
+
+    @Override
+    public void read(Path file, Map<String, Task> target) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new DataPersistenceException("Binary snapshot too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            readSnapshot(buffer, target, file);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            throw new DataPersistenceException("Failed to read binary snapshot: " + file, e);
+        }
+    }
+
+    private void readSnapshot(ByteBuffer buffer, Map<String, Task> target, Path file) {
+        if (buffer.getInt() != MAGIC) {
+            throw new DataPersistenceException("Not a task snapshot: " + file);
+        }
+        int version = buffer.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new DataPersistenceException("Unsupported snapshot version " + version + " in " + file);
+        }
+        // Every string and record takes at least four bytes
+        String[] categories = new String[checked(buffer.getInt(), 0, buffer.remaining() / 4, "category count")];
+        int taskCount = checked(buffer.getInt(), 0, buffer.remaining() / 4, "task count");
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = readString(buffer);
+        }
+
+        for (int i = 0; i < taskCount; i++) {
+            int length = checked(buffer.getInt(), 0, buffer.remaining(), "record length");
+            int end = buffer.position() + length;
+            Task.Builder builder = new Task.Builder()
+                .id(readString(buffer))
+                .title(required(readString(buffer), "title"))
+                .description(readString(buffer))
+                .priority(PRIORITIES[checked(buffer.get(), 0, PRIORITIES.length - 1, "priority")])
+                .status(STATUSES[checked(buffer.get(), 0, STATUSES.length - 1, "status")]);
+            int categoryIndex = checked(buffer.getInt(), -1, categories.length - 1, "category index");
+            builder
+                .categoryId(categoryIndex < 0 ? null : categories[categoryIndex])
+                .dueDate(readTimestamp(buffer))
+                .createdAt(readTimestamp(buffer))
+                .updatedAt(readTimestamp(buffer));
+            if (version >= 2) {
+                builder.version(buffer.getLong());
+            }
+            Task task = builder.build();
+            buffer.position(end);
+            target.put(task.getId(), task);
+        }
+    }
+
+    /**
+     * A value read from the file, if it lies within [min, max].
+     *
+     * @throws IllegalArgumentException if it does not, reported as a corrupt snapshot
+     */
+    private static int checked(int value, int min, int max, String field) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+        return value;
+    }
+
+    private static String required(String value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = checked(buffer.getInt(), -1, buffer.remaining(), "string length");
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime readTimestamp(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = checked(buffer.getInt(), 0, 999_999_999, "nanos");
+        return seconds == NULL_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    @Override
+    public void encode(List<Task> tasks, OutputStream stream) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> categories = new ArrayList<>();
+        for (Task task : tasks) {
+            String categoryId = task.getCategoryId();
+            if (categoryId != null && !dictionary.containsKey(categoryId)) {
+                dictionary.put(categoryId, categories.size());
+                categories.add(categoryId);
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(categories.size());
+        out.writeInt(tasks.size());
+        for (String category : categories) {
+            writeString(out, category);
+        }
+
+        RecordBuffer record = new RecordBuffer();
+        for (Task task : tasks) {
+            record.reset();
+            writeString(record.data, task.getId());
+            writeString(record.data, task.getTitle());
+            writeString(record.data, task.getDescription());
+            record.data.writeByte(task.getPriority().ordinal());
+            record.data.writeByte(task.getStatus().ordinal());
+            record.data.writeInt(task.getCategoryId() == null ? -1 : dictionary.get(task.getCategoryId()));
+            writeTimestamp(record.data, task.getDueDate());
+            writeTimestamp(record.data, task.getCreatedAt());
+            writeTimestamp(record.data, task.getUpdatedAt());
+            record.data.writeLong(task.getVersion());
+            out.writeInt(record.size());
+            record.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeLong(NULL_TIMESTAMP);
+            out.writeInt(0);
+        } else {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    /**
+     * Reusable scratch buffer so each record can be length-prefixed.
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        final DataOutputStream data = new DataOutputStream(this);
+
+        RecordBuffer() {
+            super(256);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Bitmap indexes over status, priority and category, for set-valued filters and counts.
+ *
+ * <p>Every task is given a dense integer slot, reused after the task is deleted, and
+ * every attribute value has a {@link SlotBitmap} of the slots holding it. An
+ * {@link AttributeQuery} is evaluated one 64-bit word at a time: the bitmaps of the
+ * values allowed for one attribute are ORed, the attributes are ANDed, and a block
+ * that is empty for any attribute is skipped whole. Counts are population counts of
+ * the resulting words, so no task is looked at; only matching slots are resolved
+ * to tasks, and those are checked against the query again in case their slot was
+ * reused during the scan.
+ */
+class BitmapIndex {
+    private static final int SLOT_SHIFT = 12;
+    private static final int SLOTS_PER_BLOCK = 1 << SLOT_SHIFT;
+
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private volatile AtomicReferenceArray<?>[] tasks = new AtomicReferenceArray<?>[0];
+
+    private final Map<Status, SlotBitmap> byStatus = new EnumMap<>(Status.class);
+    private final Map<Priority, SlotBitmap> byPriority = new EnumMap<>(Priority.class);
+    private final ConcurrentHashMap<String, SlotBitmap> byCategory = new ConcurrentHashMap<>();
+    private final SlotBitmap uncategorized = new SlotBitmap();
+
+    BitmapIndex() {
+        for (Status status : Status.values()) {
+            byStatus.put(status, new SlotBitmap());
+        }
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, new SlotBitmap());
+        }
+    }
+
+    /**
+     * Replace a task's old version with its new one; either may be null.
+     * Callers serialize updates per task ID. Bits of the new version are set
+     * before those of the old one are cleared.
+     */
+    void update(Task old, Task current) {
+        if (current == null) {
+            Integer slot = slots.remove(old.getId());
+            if (slot != null) {
+                clearBits(old, null, slot);
+                slotTable(slot).set(slot & (SLOTS_PER_BLOCK - 1), null);
+                freeSlots.add(slot);
+            }
+            return;
+        }
+        Integer existing = old == null ? null : slots.get(old.getId());
+        int slot = existing == null ? allocate(current.getId()) : existing;
+        slotTable(slot).set(slot & (SLOTS_PER_BLOCK - 1), current);
+        byStatus.get(current.getStatus()).set(slot);
+        byPriority.get(current.getPriority()).set(slot);
+        categoryBitmap(current.getCategoryId(), true).set(slot);
+        if (old != null) {
+            clearBits(old, current, slot);
+        }
+    }
+
+    /**
+     * Tasks matching the query.
+     */
+    List<Task> find(AttributeQuery query) {
+        List<Task> result = new ArrayList<>();
+        Predicate<Task> predicate = query.asPredicate();
+        scan(query, (firstSlot, bits) -> {
+            while (bits != 0) {
+                int slot = firstSlot + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                Task task = taskAt(slot);
+                if (task != null && predicate.test(task)) {
+                    result.add(task);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Number of tasks matching the query, from population counts alone.
+     */
+    long count(AttributeQuery query) {
+        long[] count = new long[1];
+        scan(query, (firstSlot, bits) -> count[0] += Long.bitCount(bits));
+        return count[0];
+    }
+
+    /**
+     * Visit every non-zero word of the query's result bitmap.
+     */
+    private void scan(AttributeQuery query, WordVisitor visitor) {
+        List<SlotBitmap[]> clauses = new ArrayList<>();
+        if (!query.statuses().isEmpty()) {
+            clauses.add(query.statuses().stream().map(byStatus::get).toArray(SlotBitmap[]::new));
+        }
+        if (!query.priorities().isEmpty()) {
+            clauses.add(query.priorities().stream().map(byPriority::get).toArray(SlotBitmap[]::new));
+        }
+        if (!query.categoryIds().isEmpty()) {
+            clauses.add(query.categoryIds().stream()
+                .map(categoryId -> categoryBitmap(categoryId, false))
+                .filter(Objects::nonNull)
+                .toArray(SlotBitmap[]::new));
+        }
+        if (clauses.isEmpty()) {
+            scanAll(visitor);
+            return;
+        }
+        int blockCount = Integer.MAX_VALUE;
+        for (SlotBitmap[] clause : clauses) {
+            blockCount = Math.min(blockCount, Arrays.stream(clause).mapToInt(SlotBitmap::blockCount).max().orElse(0));
+        }
+
+        AtomicLongArray[][] blocks = new AtomicLongArray[clauses.size()][];
+        nextBlock:
+        for (int b = 0; b < blockCount; b++) {
+            for (int c = 0; c < clauses.size(); c++) {
+                int index = b;
+                blocks[c] = Arrays.stream(clauses.get(c))
+                    .map(bitmap -> bitmap.block(index))
+                    .filter(Objects::nonNull)
+                    .toArray(AtomicLongArray[]::new);
+                if (blocks[c].length == 0) {
+                    continue nextBlock;
+                }
+            }
+            for (int w = 0; w < SlotBitmap.WORDS_PER_BLOCK; w++) {
+                long bits = -1L;
+                for (int c = 0; c < blocks.length && bits != 0; c++) {
+                    long any = 0;
+                    for (AtomicLongArray block : blocks[c]) {
+                        any |= block.get(w);
+                    }
+                    bits &= any;
+                }
+                if (bits != 0) {
+                    visitor.visit(b * SlotBitmap.BLOCK_SIZE + w * Long.SIZE, bits);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit every occupied slot, for a query that constrains nothing.
+     */
+    private void scanAll(WordVisitor visitor) {
+        AtomicReferenceArray<?>[] table = tasks;
+        for (int b = 0; b < table.length; b++) {
+            for (int w = 0; w < SlotBitmap.WORDS_PER_BLOCK; w++) {
+                long bits = 0;
+                for (int i = 0; i < Long.SIZE; i++) {
+                    if (table[b].get(w * Long.SIZE + i) != null) {
+                        bits |= 1L << i;
+                    }
+                }
+                if (bits != 0) {
+                    visitor.visit(b * SLOTS_PER_BLOCK + w * Long.SIZE, bits);
+                }
+            }
+        }
+    }
+
+    private void clearBits(Task old, Task current, int slot) {
+        if (current == null || old.getStatus() != current.getStatus()) {
+            byStatus.get(old.getStatus()).clear(slot);
+        }
+        if (current == null || old.getPriority() != current.getPriority()) {
+            byPriority.get(old.getPriority()).clear(slot);
+        }
+        if (current == null || !Objects.equals(old.getCategoryId(), current.getCategoryId())) {
+            SlotBitmap bitmap = categoryBitmap(old.getCategoryId(), false);
+            if (bitmap != null) {
+                bitmap.clear(slot);
+            }
+        }
+    }
+
+    private SlotBitmap categoryBitmap(String categoryId, boolean create) {
+        if (categoryId == null) {
+            return uncategorized;
+        }
+        return create ? byCategory.computeIfAbsent(categoryId, id -> new SlotBitmap()) : byCategory.get(categoryId);
+    }
+
+    private int allocate(String id) {
+        Integer free = freeSlots.poll();
+        int slot = free != null ? free : nextSlot.getAndIncrement();
+        slots.put(id, slot);
+        return slot;
+    }
+
+    /**
+     * Slot of a task, or -1 if it is not indexed.
+     */
+    int slotOf(String id) {
+        Integer slot = slots.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Task held in a slot, or null if the slot is free.
+     */
+    Task taskAt(int slot) {
+        AtomicReferenceArray<?>[] table = tasks;
+        int block = slot >>> SLOT_SHIFT;
+        return block < table.length ? (Task) table[block].get(slot & (SLOTS_PER_BLOCK - 1)) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AtomicReferenceArray<Task> slotTable(int slot) {
+        int block = slot >>> SLOT_SHIFT;
+        AtomicReferenceArray<?>[] table = tasks;
+        if (block < table.length) {
+            return (AtomicReferenceArray<Task>) table[block];
+        }
+        synchronized (this) {
+            table = tasks;
+            if (block >= table.length) {
+                AtomicReferenceArray<?>[] grown = Arrays.copyOf(table, block + 1);
+                for (int i = table.length; i < grown.length; i++) {
+                    grown[i] = new AtomicReferenceArray<Task>(SLOTS_PER_BLOCK);
+                }
+                tasks = grown;
+                table = grown;
+            }
+            return (AtomicReferenceArray<Task>) table[block];
+        }
+    }
+
+    @FunctionalInterface
+    private interface WordVisitor {
+        void visit(int firstSlot, long bits);
+    }
+}
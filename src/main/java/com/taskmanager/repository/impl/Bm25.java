@@ -0,0 +1,120 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.TextMatch;
+import com.taskmanager.util.SortUtil;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BM25 scoring over two fields, title and description (the BM25F variant:
+ * field-weighted term frequencies are summed before saturation).
+ */
+final class Bm25 {
+    /** Term frequency saturation. */
+    static final double K1 = 1.2;
+    /** Strength of field length normalization. */
+    static final double B = 0.75;
+
+    private Bm25() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Inverse document frequency of a term found in {@code df} of {@code docs} tasks.
+     */
+    static double idf(long docs, long df) {
+        return Math.log(1.0 + (docs - df + 0.5) / (df + 0.5));
+    }
+
+    /**
+     * Score contribution of one term to one task.
+     *
+     * @param idf the term's inverse document frequency
+     * @param ranking the field weights
+     * @param titleFrequency occurrences of the term in the title
+     * @param titleLength words in the title
+     * @param averageTitle average words per title
+     * @param descriptionFrequency occurrences of the term in the description
+     * @param descriptionLength words in the description
+     * @param averageDescription average words per description
+     */
+    static double score(double idf, Ranking ranking,
+                        int titleFrequency, int titleLength, double averageTitle,
+                        int descriptionFrequency, int descriptionLength, double averageDescription) {
+        double frequency = ranking.titleWeight() * titleFrequency / normalization(titleLength, averageTitle)
+            + ranking.descriptionWeight() * descriptionFrequency / normalization(descriptionLength, averageDescription);
+        return idf * frequency * (K1 + 1) / (frequency + K1);
+    }
+
+    /**
+     * Score tasks that contain any of the words, taking the term statistics from
+     * the tasks themselves, for storage that keeps no statistics of its own.
+     * Document frequencies are exact when the candidates include every task
+     * containing a word; average field lengths are those of the candidates.
+     *
+     * @param candidates tasks that may contain the words
+     * @param docs number of tasks in the store
+     * @return text scores of the tasks containing a word
+     */
+    static Map<Task, Double> scoreCandidates(Collection<Task> candidates, List<String> terms, long docs,
+                                             Ranking ranking) {
+        Map<Task, List<String>> titles = new HashMap<>();
+        Map<Task, List<String>> descriptions = new HashMap<>();
+        long titleWords = 0;
+        long descriptionWords = 0;
+        for (Task task : candidates) {
+            List<String> title = TextMatch.tokenize(task.getTitle());
+            List<String> description = TextMatch.tokenize(task.getDescription());
+            titles.put(task, title);
+            descriptions.put(task, description);
+            titleWords += title.size();
+            descriptionWords += description.size();
+        }
+        double averageTitle = candidates.isEmpty() ? 0 : (double) titleWords / candidates.size();
+        double averageDescription = candidates.isEmpty() ? 0 : (double) descriptionWords / candidates.size();
+
+        Map<Task, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(terms)) {
+            Map<Task, int[]> frequencies = new HashMap<>();
+            for (Task task : candidates) {
+                int inTitle = Collections.frequency(titles.get(task), term);
+                int inDescription = Collections.frequency(descriptions.get(task), term);
+                if (inTitle + inDescription > 0) {
+                    frequencies.put(task, new int[] {inTitle, inDescription});
+                }
+            }
+            double idf = idf(Math.max(docs, frequencies.size()), frequencies.size());
+            frequencies.forEach((task, frequency) -> scores.merge(task,
+                score(idf, ranking, frequency[0], titles.get(task).size(), averageTitle,
+                    frequency[1], descriptions.get(task).size(), averageDescription),
+                Double::sum));
+        }
+        return scores;
+    }
+
+    /**
+     * Apply the ranking's boosts and keep the {@code limit} best tasks with a bounded heap.
+     *
+     * @param scores text scores by task
+     * @return the best tasks, highest score first
+     */
+    static List<Task> best(Map<Task, Double> scores, Ranking ranking, int limit) {
+        Map<Task, Double> boosted = new HashMap<>();
+        scores.forEach((task, score) -> boosted.put(task, score * ranking.boost(task)));
+        Comparator<Task> order = Comparator.comparingDouble((Task task) -> boosted.get(task)).reversed()
+            .thenComparing(Task::getId);
+        return SortUtil.smallest(boosted.keySet(), order, task -> true, limit);
+    }
+
+    private static double normalization(int length, double average) {
+        return 1 - B + B * length / (average > 0 ? average : 1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Category;
+
+import java.util.List;
+
+/**
+ * Categories every new store starts with, shared by all CategoryRepository implementations.
+ */
+final class DefaultCategories {
+
+    private DefaultCategories() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    static List<Category> create() {
+        return List.of(
+            Category.create("Work", "Work-related tasks", "#3498db"),
+            Category.create("Personal", "Personal tasks", "#2ecc71"),
+            Category.create("Shopping", "Shopping list items", "#e74c3c"),
+            Category.create("Health", "Health and fitness", "#9b59b6"),
+            Category.create("Learning", "Study and learning", "#f39c12")
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.repository.StorageConfig.SyncPolicy;
+import com.taskmanager.util.FileUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the configured sync policy to the files a store writes.
+ * Writers ask {@link #forceOnWrite()} whether to fsync inline and report every
+ * file they wrote through {@link #written(Path)}; with the interval policy those
+ * files are synced together by one background thread.
+ */
+class FileSyncer implements AutoCloseable {
+    private final SyncPolicy policy;
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private volatile DataPersistenceException lastFailure;
+
+    FileSyncer(SyncPolicy policy, long intervalMillis) {
+        this.policy = policy;
+        if (policy == SyncPolicy.INTERVAL) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "file-syncer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::syncInBackground, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Syncer that leaves flushing to the OS.
+     */
+    static FileSyncer none() {
+        return new FileSyncer(SyncPolicy.NONE, 0);
+    }
+
+    /**
+     * Whether a write must be synced before it returns.
+     */
+    boolean forceOnWrite() {
+        return policy == SyncPolicy.ALWAYS;
+    }
+
+    /**
+     * Record a file that was written without syncing.
+     */
+    void written(Path file) {
+        if (policy == SyncPolicy.INTERVAL) {
+            pending.add(file);
+        }
+    }
+
+    private void syncInBackground() {
+        try {
+            sync();
+        } catch (DataPersistenceException e) {
+            // Kept in lastFailure and reported by the next explicit sync()
+        }
+    }
+
+    /**
+     * Sync every file written since the last sync, with its directory.
+     *
+     * @throws DataPersistenceException if this or an earlier background sync failed
+     */
+    void sync() {
+        for (Path file : pending) {
+            pending.remove(file);
+            try {
+                FileUtil.force(file);
+                FileUtil.forceDirectory(file.toAbsolutePath().getParent());
+            } catch (IOException e) {
+                pending.add(file);
+                lastFailure = new DataPersistenceException("Failed to sync file: " + file, e);
+            }
+        }
+        DataPersistenceException failure = lastFailure;
+        if (failure != null) {
+            lastFailure = null;
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sync();
+    }
+}
@@ -0,0 +1,154 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Category;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.repository.CategoryRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * CategoryRepository backed by an embedded SQL database through JDBC.
+ * Mirrors JdbcTaskRepository; default categories are inserted into an empty table.
+ */
+public final class JdbcCategoryRepository implements CategoryRepository {
+    private static final String COLUMNS = "id, name, description, color";
+
+    private final DataSource dataSource;
+
+    /**
+     * Constructor taking the data source to use; the schema is created if missing.
+     */
+    public JdbcCategoryRepository(DataSource dataSource) {
+        this.dataSource = Objects.requireNonNull(dataSource, "Data source cannot be null");
+        createSchema();
+        if (count() == 0) {
+            DefaultCategories.create().forEach(this::save);
+        }
+    }
+
+    private void createSchema() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS categories (
+                    id          VARCHAR(64) PRIMARY KEY,
+                    name        VARCHAR NOT NULL,
+                    description VARCHAR,
+                    color       VARCHAR(32)
+                )""");
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to create category schema", e);
+        }
+    }
+
+    @Override
+    public Category save(Category category) {
+        Objects.requireNonNull(category, "Category cannot be null");
+        String sql = "MERGE INTO categories (" + COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, category.id());
+            statement.setString(2, category.name());
+            statement.setString(3, category.description());
+            statement.setString(4, category.color());
+            statement.executeUpdate();
+            return category;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to save category: " + category.id(), e);
+        }
+    }
+
+    @Override
+    public Optional<Category> findById(String id) {
+        return query("SELECT " + COLUMNS + " FROM categories WHERE id = ?", id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Category> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return query("SELECT " + COLUMNS + " FROM categories WHERE LOWER(name) = LOWER(?)", name)
+            .stream().findFirst();
+    }
+
+    @Override
+    public List<Category> findAll() {
+        return query("SELECT " + COLUMNS + " FROM categories", null);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return update("DELETE FROM categories WHERE id = ?", id) > 0;
+    }
+
+    @Override
+    public void deleteAll() {
+        update("DELETE FROM categories", null);
+    }
+
+    @Override
+    public long count() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM categories")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to count categories", e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        // Every statement is committed when it completes
+    }
+
+    @Override
+    public void close() {
+        // Connections are returned after each call; the data source is owned by its creator
+    }
+
+    private int update(String sql, String parameter) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (parameter != null) {
+                statement.setString(1, parameter);
+            }
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to update categories", e);
+        }
+    }
+
+    private List<Category> query(String sql, String parameter) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (parameter != null) {
+                statement.setString(1, parameter);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Category> categories = new ArrayList<>();
+                while (resultSet.next()) {
+                    categories.add(new Category(
+                        resultSet.getString("id"),
+                        resultSet.getString("name"),
+                        resultSet.getString("description"),
+                        resultSet.getString("color")));
+                }
+                return categories;
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to query categories", e);
+        }
+    }
+}
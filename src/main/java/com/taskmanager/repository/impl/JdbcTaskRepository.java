@@ -0,0 +1,770 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.QueryPlan;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.TaskChangeListener;
+import com.taskmanager.repository.TaskCounts;
+import com.taskmanager.repository.TaskOrder;
+import com.taskmanager.repository.TaskQuery;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TextMatch;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * TaskRepository backed by an embedded SQL database through JDBC.
+ * Every query method is translated into an indexed WHERE clause, so
+ * filtering does not load the whole table into memory.
+ *
+ * <p>Priority and status are stored as the same numeric codes the JSON codecs use
+ * (priority level, status lifecycle position).
+ */
+public class JdbcTaskRepository implements TaskRepository {
+    private static final String COLUMNS =
+        "id, title, description, priority, status, category_id, due_date, created_at, updated_at, version";
+    private static final String MERGE_SQL = "MERGE INTO tasks (" + COLUMNS + ") KEY (id) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE((SELECT version + 1 FROM tasks WHERE id = ?), 0))";
+    private static final String UPDATE_SQL = "UPDATE tasks SET title = ?, description = ?, priority = ?, "
+        + "status = ?, category_id = ?, due_date = ?, created_at = ?, updated_at = ?, version = version + 1 "
+        + "WHERE id = ? AND version = ?";
+    private static final String[] VERSION_COLUMN = {"version"};
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final DataSource dataSource;
+    private final AtomicLong version = new AtomicLong();
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor taking the data source to use; the schema is created if missing.
+     */
+    public JdbcTaskRepository(DataSource dataSource) {
+        this.dataSource = Objects.requireNonNull(dataSource, "Data source cannot be null");
+        createSchema();
+    }
+
+    private void createSchema() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS tasks (
+                    id          VARCHAR(64) PRIMARY KEY,
+                    title       VARCHAR NOT NULL,
+                    description VARCHAR,
+                    priority    TINYINT NOT NULL,
+                    status      TINYINT NOT NULL,
+                    category_id VARCHAR(64),
+                    due_date    TIMESTAMP(9),
+                    created_at  TIMESTAMP(9),
+                    updated_at  TIMESTAMP(9),
+                    version     BIGINT NOT NULL DEFAULT 0
+                )""");
+            statement.execute("ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_tasks_status ON tasks(status)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_tasks_priority ON tasks(priority)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_tasks_category ON tasks(category_id)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_tasks_due_date ON tasks(due_date)");
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to create task schema", e);
+        }
+    }
+
+    /**
+     * @return the task with the version the database stored for it
+     */
+    @Override
+    public Task save(Task task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MERGE_SQL, VERSION_COLUMN)) {
+            bindTask(statement, task);
+            statement.executeUpdate();
+            Task stored = stored(statement, List.of(task)).get(0);
+            changed();
+            return stored;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to save task: " + task.getId(), e);
+        }
+    }
+
+    /**
+     * Commits before returning, so the future is already complete.
+     */
+    @Override
+    public CompletableFuture<Task> saveAsync(Task task) {
+        return CompletableFuture.completedFuture(save(task));
+    }
+
+    /**
+     * Save all tasks with one batched statement inside a single transaction.
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+        List<Task> batch = List.copyOf(tasks);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            List<Task> stored = new ArrayList<>(batch.size());
+            inTransaction(connection, () -> {
+                try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL, VERSION_COLUMN)) {
+                    for (Task task : batch) {
+                        bindTask(statement, task);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    stored.addAll(stored(statement, batch));
+                }
+            });
+            changed();
+            return stored;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to save " + batch.size() + " tasks", e);
+        }
+    }
+
+    /**
+     * Update all tasks with one batched, version-checked statement inside a single transaction.
+     */
+    @Override
+    public List<Task> saveAllIfUnchanged(Collection<Task> tasks) {
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+        List<Task> batch = List.copyOf(tasks);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            List<Task> stored = new ArrayList<>(batch.size());
+            inTransaction(connection, () -> {
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+                    for (Task task : batch) {
+                        bindFields(statement, 1, task);
+                        statement.setString(9, task.getId());
+                        statement.setLong(10, task.getVersion());
+                        statement.addBatch();
+                    }
+                    int[] counts = statement.executeBatch();
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (counts[i] == 1) {
+                            stored.add(new Task.Builder(batch.get(i)).version(batch.get(i).getVersion() + 1).build());
+                        }
+                    }
+                }
+            });
+            if (!stored.isEmpty()) {
+                changed();
+            }
+            return stored;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to save " + batch.size() + " tasks", e);
+        }
+    }
+
+    /**
+     * The tasks with the versions {@link #MERGE_SQL} stored for them, in statement order.
+     */
+    private static List<Task> stored(PreparedStatement statement, List<Task> tasks) throws SQLException {
+        List<Task> stored = new ArrayList<>(tasks.size());
+        try (ResultSet versions = statement.getGeneratedKeys()) {
+            for (Task task : tasks) {
+                if (!versions.next()) {
+                    throw new SQLException("No stored version returned for task " + task.getId());
+                }
+                long version = versions.getLong(1);
+                stored.add(task.getVersion() == version ? task : new Task.Builder(task).version(version).build());
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Bind a task to {@link #MERGE_SQL}; the stored version is one above the row it
+     * replaces, so a concurrent {@link #update} of the same task sees the change.
+     */
+    private static void bindTask(PreparedStatement statement, Task task) throws SQLException {
+        statement.setString(1, task.getId());
+        bindFields(statement, 2, task);
+        statement.setString(10, task.getId());
+    }
+
+    private static void bindFields(PreparedStatement statement, int first, Task task) throws SQLException {
+        statement.setString(first, task.getTitle());
+        statement.setString(first + 1, task.getDescription());
+        statement.setInt(first + 2, task.getPriority().getLevel());
+        statement.setInt(first + 3, task.getStatus().ordinal() + 1);
+        statement.setString(first + 4, task.getCategoryId());
+        setTimestamp(statement, first + 5, task.getDueDate());
+        setTimestamp(statement, first + 6, task.getCreatedAt());
+        setTimestamp(statement, first + 7, task.getUpdatedAt());
+    }
+
+    /**
+     * Reads the row, applies the change, and writes it back only if the row still
+     * has the version that was read; otherwise the row is read again and the
+     * change retried. No lock is held while the change is computed.
+     */
+    @Override
+    public Optional<Task> update(String id, UnaryOperator<Task> change) {
+        Objects.requireNonNull(change, "Change cannot be null");
+        while (true) {
+            Optional<Task> found = findById(id);
+            if (found.isEmpty()) {
+                return found;
+            }
+            Task current = found.get();
+            Task updated = change.apply(current);
+            if (updated == current) {
+                return found;
+            }
+            requireSameTask(current, updated);
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+                bindFields(statement, 1, updated);
+                statement.setString(9, id);
+                statement.setLong(10, current.getVersion());
+                if (statement.executeUpdate() == 1) {
+                    changed();
+                    return Optional.of(new Task.Builder(updated).version(current.getVersion() + 1).build());
+                }
+            } catch (SQLException e) {
+                throw new DataPersistenceException("Failed to update task: " + id, e);
+            }
+        }
+    }
+
+    private static void requireSameTask(Task current, Task updated) {
+        if (updated == null) {
+            throw new IllegalArgumentException("Update must return a task: " + current.getId());
+        }
+        if (!updated.getId().equals(current.getId())) {
+            throw new IllegalArgumentException("Update must not change the task ID: " + current.getId());
+        }
+    }
+
+    @Override
+    public Optional<Task> findById(String id) {
+        List<Task> tasks = query("SELECT " + COLUMNS + " FROM tasks WHERE id = ?", List.of(id));
+        return tasks.stream().findFirst();
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return query("SELECT " + COLUMNS + " FROM tasks", List.of());
+    }
+
+    @Override
+    public Stream<Task> stream() {
+        return findAll().stream();
+    }
+
+    @Override
+    public List<Task> findByCategoryId(String categoryId) {
+        if (categoryId == null) {
+            return query("SELECT " + COLUMNS + " FROM tasks WHERE category_id IS NULL", List.of());
+        }
+        return query("SELECT " + COLUMNS + " FROM tasks WHERE category_id = ?", List.of(categoryId));
+    }
+
+    @Override
+    public List<Task> findByStatus(Status status) {
+        return query("SELECT " + COLUMNS + " FROM tasks WHERE status = ?", List.of(status.ordinal() + 1));
+    }
+
+    @Override
+    public List<Task> findByPriority(Priority priority) {
+        return query("SELECT " + COLUMNS + " FROM tasks WHERE priority = ?", List.of(priority.getLevel()));
+    }
+
+    @Override
+    public List<Task> findByDueDateBetween(LocalDateTime start, LocalDateTime end) {
+        return findMatching(TaskQuery.dueBetween(start, end));
+    }
+
+    /**
+     * Sorted by the database in the same order as {@link TaskOrder#getKeysetComparator()}.
+     * A cursor becomes a predicate on the sort key and ID, so a page reads only
+     * the rows after it instead of every row before it.
+     */
+    @Override
+    public List<Task> findSorted(TaskOrder order, Task after, int offset, int limit) {
+        List<Object> parameters = new ArrayList<>();
+        String where = after == null ? "" : " WHERE " + after(order, after, parameters);
+        parameters.add(limit);
+        parameters.add(offset);
+        return query("SELECT " + COLUMNS + " FROM tasks" + where + " ORDER BY " + orderBy(order)
+            + " LIMIT ? OFFSET ?", parameters);
+    }
+
+    private static String orderBy(TaskOrder order) {
+        return switch (order) {
+            case PRIORITY_DESC -> "priority DESC, id";
+            case PRIORITY_ASC -> "priority, id";
+            case DUE_DATE_ASC -> "due_date NULLS LAST, id";
+            case DUE_DATE_DESC -> "due_date DESC NULLS LAST, id";
+            case CREATED_ASC -> "created_at, id";
+            case CREATED_DESC -> "created_at DESC, id";
+            case TITLE_ASC -> "title, id";
+            case TITLE_DESC -> "title DESC, id";
+        };
+    }
+
+    /**
+     * Predicate selecting the rows that follow the cursor in {@link #orderBy(TaskOrder)} order.
+     */
+    private static String after(TaskOrder order, Task cursor, List<Object> parameters) {
+        return switch (order) {
+            case PRIORITY_DESC -> after("priority", true, false, cursor.getPriority().getLevel(), cursor, parameters);
+            case PRIORITY_ASC -> after("priority", false, false, cursor.getPriority().getLevel(), cursor, parameters);
+            case DUE_DATE_ASC -> after("due_date", false, true, cursor.getDueDate(), cursor, parameters);
+            case DUE_DATE_DESC -> after("due_date", true, true, cursor.getDueDate(), cursor, parameters);
+            case CREATED_ASC -> after("created_at", false, false, cursor.getCreatedAt(), cursor, parameters);
+            case CREATED_DESC -> after("created_at", true, false, cursor.getCreatedAt(), cursor, parameters);
+            case TITLE_ASC -> after("title", false, false, cursor.getTitle(), cursor, parameters);
+            case TITLE_DESC -> after("title", true, false, cursor.getTitle(), cursor, parameters);
+        };
+    }
+
+    /**
+     * Keyset predicate on one sort column, ties broken by ascending ID; null values sort last.
+     * Ascending keys compare as a row value, which the database can seek on directly.
+     */
+    private static String after(String column, boolean descending, boolean nullable, Object value,
+                                Task cursor, List<Object> parameters) {
+        if (value == null) {
+            parameters.add(cursor.getId());
+            return column + " IS NULL AND id > ?";
+        }
+        String nulls = nullable ? " OR " + column + " IS NULL" : "";
+        if (!descending) {
+            parameters.add(value);
+            parameters.add(cursor.getId());
+            return "((" + column + ", id) > (?, ?)" + nulls + ")";
+        }
+        parameters.add(value);
+        parameters.add(value);
+        parameters.add(cursor.getId());
+        return "(" + column + " < ? OR (" + column + " = ? AND id > ?)" + nulls + ")";
+    }
+
+    @Override
+    public List<Task> findMatching(TaskQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        return query(select(query, parameters), parameters);
+    }
+
+    @Override
+    public List<Task> findByAttributes(AttributeQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        return query("SELECT " + COLUMNS + " FROM tasks WHERE " + where(query, parameters), parameters);
+    }
+
+    @Override
+    public long countByAttributes(AttributeQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM tasks WHERE " + where(query, parameters);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to count tasks", e);
+        }
+    }
+
+    /**
+     * Build the WHERE condition of an attribute query as IN lists, collecting its parameters.
+     */
+    private static String where(AttributeQuery query, List<Object> parameters) {
+        StringJoiner where = new StringJoiner(" AND ", "", "").setEmptyValue("1 = 1");
+        if (!query.statuses().isEmpty()) {
+            StringJoiner in = new StringJoiner(", ", "status IN (", ")");
+            for (Status status : query.statuses()) {
+                in.add("?");
+                parameters.add(status.ordinal() + 1);
+            }
+            where.add(in.toString());
+        }
+        if (!query.priorities().isEmpty()) {
+            StringJoiner in = new StringJoiner(", ", "priority IN (", ")");
+            for (Priority priority : query.priorities()) {
+                in.add("?");
+                parameters.add(priority.getLevel());
+            }
+            where.add(in.toString());
+        }
+        if (!query.categoryIds().isEmpty()) {
+            StringJoiner in = new StringJoiner(", ", "category_id IN (", ")").setEmptyValue("");
+            for (String categoryId : query.categoryIds()) {
+                if (categoryId != null) {
+                    in.add("?");
+                    parameters.add(categoryId);
+                }
+            }
+            String categories = in.toString();
+            if (query.categoryIds().contains(null)) {
+                categories = categories.isEmpty() ? "category_id IS NULL" : "(" + categories + " OR category_id IS NULL)";
+            }
+            where.add(categories);
+        }
+        return where.toString();
+    }
+
+    /**
+     * Reports H2's plan for the query, which names the index it chose,
+     * as one driver step; H2 does not expose its row estimates.
+     */
+    @Override
+    public QueryPlan explain(TaskQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = select(query, parameters);
+        String plan;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                plan = resultSet.next() ? resultSet.getString(1) : "";
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to explain task query", e);
+        }
+        long rows = query(sql, parameters).size();
+        return new QueryPlan(List.of(new QueryPlan.Step("sql", QueryPlan.Role.DRIVER, -1, rows)), plan);
+    }
+
+    /**
+     * Build the SELECT for a query, collecting its parameters.
+     */
+    private static String select(TaskQuery query, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM tasks WHERE 1 = 1");
+        if (query.status() != null) {
+            sql.append(" AND status = ?");
+            parameters.add(query.status().ordinal() + 1);
+        }
+        if (query.priority() != null) {
+            sql.append(" AND priority = ?");
+            parameters.add(query.priority().getLevel());
+        }
+        if (query.categoryId() != null) {
+            sql.append(" AND category_id = ?");
+            parameters.add(query.categoryId());
+        }
+        if (query.keyword() != null) {
+            sql.append(" AND (LOWER(title) LIKE ? ESCAPE '\\' OR LOWER(description) LIKE ? ESCAPE '\\')");
+            String pattern = "%" + escapeLike(query.keyword().toLowerCase()) + "%";
+            parameters.add(pattern);
+            parameters.add(pattern);
+        }
+        if (query.dueFrom() != null) {
+            sql.append(" AND due_date >= ?");
+            parameters.add(query.dueFrom());
+        }
+        if (query.dueTo() != null) {
+            sql.append(" AND due_date <= ?");
+            parameters.add(query.dueTo());
+        }
+        if (query.overdueAt() != null) {
+            sql.append(" AND due_date < ? AND status <> ?");
+            parameters.add(query.overdueAt());
+            parameters.add(Status.DONE.ordinal() + 1);
+        }
+        if (query.dueSoonAt() != null) {
+            sql.append(" AND due_date >= ? AND due_date < ? AND status <> ?");
+            parameters.add(query.dueSoonAt());
+            parameters.add(query.dueSoonAt().plus(Task.DUE_SOON_WINDOW));
+            parameters.add(Status.DONE.ordinal() + 1);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Word modes narrow the rows with one LIKE per word, then apply the exact
+     * word semantics of {@link TextMatch} to the rows returned.
+     */
+    @Override
+    public List<Task> search(String text, TextMatch match) {
+        if (match == TextMatch.SUBSTRING) {
+            return findMatching(TaskQuery.withKeyword(text));
+        }
+        List<String> terms = TextMatch.tokenize(text).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String condition = "(LOWER(title) LIKE ? ESCAPE '\\' OR LOWER(description) LIKE ? ESCAPE '\\')";
+        StringJoiner where = new StringJoiner(match == TextMatch.ANY_TERM ? " OR " : " AND ");
+        List<Object> parameters = new ArrayList<>();
+        for (String term : terms) {
+            where.add(condition);
+            String pattern = "%" + escapeLike(term) + "%";
+            parameters.add(pattern);
+            parameters.add(pattern);
+        }
+        return query("SELECT " + COLUMNS + " FROM tasks WHERE " + where, parameters).stream()
+            .filter(match.asPredicate(text))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Candidates are the rows matching any word; their term statistics are
+     * computed from those rows, as the database keeps none.
+     */
+    @Override
+    public List<Task> searchRanked(String text, Ranking ranking, int limit) {
+        List<Task> candidates = search(text, TextMatch.ANY_TERM);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        return Bm25.best(Bm25.scoreCandidates(candidates, TextMatch.tokenize(text), count(), ranking),
+            ranking, limit);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        if (execute("DELETE FROM tasks WHERE id = ?", id) > 0) {
+            changed();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteByIdAsync(String id) {
+        return CompletableFuture.completedFuture(deleteById(id));
+    }
+
+    /**
+     * Delete all tasks with one batched statement inside a single transaction.
+     */
+    @Override
+    public int deleteAllById(Collection<String> ids) {
+        Objects.requireNonNull(ids, "IDs cannot be null");
+        List<String> batch = ids.stream().distinct().toList();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int[] deleted = new int[1];
+        try (Connection connection = dataSource.getConnection()) {
+            inTransaction(connection, () -> {
+                try (PreparedStatement statement = connection.prepareStatement("DELETE FROM tasks WHERE id = ?")) {
+                    for (String id : batch) {
+                        statement.setString(1, id);
+                        statement.addBatch();
+                    }
+                    for (int count : statement.executeBatch()) {
+                        deleted[0] += Math.max(count, 0);
+                    }
+                }
+            });
+            if (deleted[0] > 0) {
+                changed();
+            }
+            return deleted[0];
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to delete " + batch.size() + " tasks", e);
+        }
+    }
+
+    private static void inTransaction(Connection connection, SqlAction action) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            action.run();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    @Override
+    public void deleteAll() {
+        execute("DELETE FROM tasks", null);
+        changed();
+    }
+
+    @Override
+    public long count() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM tasks")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to count tasks", e);
+        }
+    }
+
+    /**
+     * Counts by status and priority come from grouped queries on the indexed
+     * columns, and the overdue count from a range count on the due date.
+     */
+    @Override
+    public TaskCounts countTasks(LocalDateTime now) {
+        Map<Status, Long> statuses = new EnumMap<>(Status.class);
+        Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+        long total = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT status, COUNT(*) FROM tasks GROUP BY status")) {
+                while (resultSet.next()) {
+                    statuses.put(STATUSES[resultSet.getInt(1) - 1], resultSet.getLong(2));
+                    total += resultSet.getLong(2);
+                }
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT priority, COUNT(*) FROM tasks GROUP BY priority")) {
+                while (resultSet.next()) {
+                    priorities.put(PRIORITIES[resultSet.getInt(1) - 1], resultSet.getLong(2));
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM tasks WHERE due_date < ? AND status <> ?")) {
+                statement.setObject(1, now);
+                statement.setInt(2, Status.DONE.ordinal() + 1);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return new TaskCounts(total, statuses, priorities, resultSet.getLong(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to count tasks", e);
+        }
+    }
+
+    /**
+     * Counts the changes made through this repository; writes by other
+     * processes to the same database are not seen.
+     */
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Listeners are told that something changed after every write, without the
+     * tasks involved, as the statements do not return the previous rows.
+     */
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    private void changed() {
+        version.incrementAndGet();
+        for (TaskChangeListener listener : listeners) {
+            listener.changedAll();
+        }
+    }
+
+    @Override
+    public void flush() {
+        // Every statement is committed when it completes
+    }
+
+    @Override
+    public void close() {
+        // Connections are returned after each call; the data source is owned by its creator
+    }
+
+    private int execute(String sql, String parameter) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (parameter != null) {
+                statement.setString(1, parameter);
+            }
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to update tasks", e);
+        }
+    }
+
+    private List<Task> query(String sql, List<?> parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Task> tasks = new ArrayList<>();
+                while (resultSet.next()) {
+                    tasks.add(mapRow(resultSet));
+                }
+                return tasks;
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to query tasks", e);
+        }
+    }
+
+    private static Task mapRow(ResultSet resultSet) throws SQLException {
+        return new Task.Builder()
+            .id(resultSet.getString("id"))
+            .title(resultSet.getString("title"))
+            .description(resultSet.getString("description"))
+            .priority(PRIORITIES[resultSet.getInt("priority") - 1])
+            .status(STATUSES[resultSet.getInt("status") - 1])
+            .categoryId(resultSet.getString("category_id"))
+            .dueDate(getTimestamp(resultSet, "due_date"))
+            .createdAt(getTimestamp(resultSet, "created_at"))
+            .updatedAt(getTimestamp(resultSet, "updated_at"))
+            .version(resultSet.getLong("version"))
+            .build();
+    }
+
+    private static void setTimestamp(PreparedStatement statement, int index, LocalDateTime value)
+            throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+
+    private static LocalDateTime getTimestamp(ResultSet resultSet, String column) throws SQLException {
+        return resultSet.getObject(column, LocalDateTime.class);
+    }
+}
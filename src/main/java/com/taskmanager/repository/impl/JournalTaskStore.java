@@ -0,0 +1,403 @@
+package com.taskmanager.repository.impl;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.util.JsonUtil;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Log-structured store: each mutation appends one compact JSON line to a journal.
+ * Startup loads the snapshot and replays the journal on top of it; a background
+ * compactor folds the journal into a fresh snapshot once it grows past a threshold.
+ * Write cost therefore depends on the size of the change, not the size of the dataset.
+ *
+ * <p>Compaction rotates the active journal to {@code <journal>.1} before writing the
+ * snapshot, so a crash at any point leaves snapshot + rotated journal + active journal
+ * that replay to the same state. Replaying a record twice is harmless because every
+ * record is an idempotent put, delete or clear. A bulk mutation is written as one
+ * batch record holding all of its operations, so it is replayed entirely or not at all.
+ * A record is built from the cache under the append lock: a put writes the task's
+ * cached version and a delete is dropped if the task is cached again, so concurrent
+ * writers of one task cannot leave an older version last in the journal.
+ *
+ * <p>With group commit enabled, appends stay in the writer's buffer and a
+ * write-behind flusher pushes them out once per interval or batch.
+ */
+class JournalTaskStore implements TaskStore {
+    private static final String OP_PUT = "put";
+    private static final String OP_DELETE = "del";
+    private static final String OP_CLEAR = "clear";
+    private static final String OP_BATCH = "batch";
+
+    private final Path snapshotFile;
+    private final TaskFormat format;
+    private final Path journalFile;
+    private final Path rotatedJournalFile;
+    private final Supplier<Collection<Task>> tasks;
+    private final Function<String, Task> current;
+    private final int compactionThreshold;
+    private final ExecutorService compactor;
+    private final FileSyncer syncer;
+    private final WriteBehindFlusher groupCommit;
+
+    private final Object lock = new Object();
+    private FileChannel channel;
+    private Writer writer;
+    private long recordsSinceCompaction;
+    private boolean compactionRunning;
+    private volatile RuntimeException compactionFailure;
+
+    JournalTaskStore(Path snapshotFile, TaskFormat format, Supplier<Collection<Task>> tasks,
+                     Function<String, Task> current, int compactionThreshold) {
+        this(snapshotFile, format, tasks, current, compactionThreshold, FileSyncer.none(), false, 0, 0);
+    }
+
+    JournalTaskStore(Path snapshotFile, TaskFormat format, Supplier<Collection<Task>> tasks,
+                     Function<String, Task> current, int compactionThreshold, FileSyncer syncer,
+                     boolean groupCommit, long flushIntervalMillis, int flushBatchSize) {
+        this.snapshotFile = snapshotFile;
+        this.format = format;
+        this.journalFile = snapshotFile.resolveSibling(baseName(snapshotFile) + ".journal");
+        this.rotatedJournalFile = journalFile.resolveSibling(journalFile.getFileName() + ".1");
+        this.tasks = tasks;
+        this.current = current;
+        this.compactionThreshold = compactionThreshold;
+        this.syncer = syncer;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.groupCommit = groupCommit
+            ? new WriteBehindFlusher("task-journal-flusher", this::flushWriter, flushIntervalMillis, flushBatchSize)
+            : null;
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    @Override
+    public void load(Map<String, Task> target) {
+        format.read(snapshotFile, target);
+        recordsSinceCompaction = replay(rotatedJournalFile, target) + replay(journalFile, target);
+    }
+
+    /**
+     * Apply every complete record of a journal file to the map.
+     * A torn final line from an interrupted append is ignored.
+     *
+     * @return number of records applied
+     */
+    private long replay(Path file, Map<String, Task> target) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonObject record;
+                try {
+                    record = JsonParser.parseString(line).getAsJsonObject();
+                } catch (JsonParseException | IllegalStateException e) {
+                    break;
+                }
+                apply(record, target, file);
+                applied++;
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to replay journal: " + file, e);
+        }
+        return applied;
+    }
+
+    private static void apply(JsonObject record, Map<String, Task> target, Path file) {
+        switch (record.get("op").getAsString()) {
+            case OP_PUT -> {
+                Task task = JsonUtil.fromJson(record.get("task"), Task.class);
+                target.put(task.getId(), task);
+            }
+            case OP_DELETE -> target.remove(record.get("id").getAsString());
+            case OP_CLEAR -> target.clear();
+            case OP_BATCH -> {
+                for (JsonElement operation : record.getAsJsonArray("ops")) {
+                    apply(operation.getAsJsonObject(), target, file);
+                }
+            }
+            default -> throw new DataPersistenceException("Unknown journal operation in " + file);
+        }
+    }
+
+    @Override
+    public void saved(Task task) {
+        String id = task.getId();
+        append(() -> putRecord(id));
+    }
+
+    @Override
+    public void savedAll(Collection<Task> tasks) {
+        List<String> ids = tasks.stream().map(Task::getId).toList();
+        append(() -> batchRecord(ids, this::putRecord));
+    }
+
+    @Override
+    public void deleted(String id) {
+        append(() -> deleteRecord(id));
+    }
+
+    @Override
+    public void deletedAll(Collection<String> ids) {
+        List<String> batch = List.copyOf(ids);
+        append(() -> batchRecord(batch, this::deleteRecord));
+    }
+
+    /**
+     * Put of the task's cached version, or null if it is no longer cached.
+     */
+    private JsonObject putRecord(String id) {
+        Task task = current.apply(id);
+        if (task == null) {
+            return null;
+        }
+        JsonObject record = new JsonObject();
+        record.addProperty("op", OP_PUT);
+        record.add("task", JsonUtil.toJsonTree(task));
+        return record;
+    }
+
+    /**
+     * Delete of the task, or null if it has been cached again since.
+     */
+    private JsonObject deleteRecord(String id) {
+        if (current.apply(id) != null) {
+            return null;
+        }
+        JsonObject record = new JsonObject();
+        record.addProperty("op", OP_DELETE);
+        record.addProperty("id", id);
+        return record;
+    }
+
+    private static JsonObject batchRecord(List<String> ids, Function<String, JsonObject> operation) {
+        JsonArray operations = new JsonArray();
+        for (String id : ids) {
+            JsonObject record = operation.apply(id);
+            if (record != null) {
+                operations.add(record);
+            }
+        }
+        if (operations.isEmpty()) {
+            return null;
+        }
+        JsonObject record = new JsonObject();
+        record.addProperty("op", OP_BATCH);
+        record.add("ops", operations);
+        return record;
+    }
+
+    @Override
+    public void cleared() {
+        append(() -> {
+            JsonObject record = new JsonObject();
+            record.addProperty("op", OP_CLEAR);
+            return record;
+        });
+    }
+
+    /**
+     * Append the record built under the lock, if any, so records reach the journal
+     * in the order their contents were read from the cache.
+     */
+    private void append(Supplier<JsonObject> operation) {
+        synchronized (lock) {
+            JsonObject record = operation.get();
+            if (record == null) {
+                return;
+            }
+            String line = JsonUtil.toCompactJson(record) + "\n";
+            try {
+                if (writer == null) {
+                    writer = openJournal();
+                }
+                writer.write(line);
+                if (groupCommit == null) {
+                    writer.flush();
+                    synced();
+                }
+            } catch (IOException e) {
+                throw new DataPersistenceException("Failed to append to journal: " + journalFile, e);
+            }
+            recordsSinceCompaction++;
+            if (recordsSinceCompaction >= compactionThreshold && !compactionRunning) {
+                compactionRunning = true;
+                compactor.execute(this::compactInBackground);
+            }
+        }
+        if (groupCommit != null) {
+            groupCommit.markDirty();
+        }
+    }
+
+    private void flushWriter() {
+        synchronized (lock) {
+            if (writer != null) {
+                try {
+                    writer.flush();
+                    synced();
+                } catch (IOException e) {
+                    throw new DataPersistenceException("Failed to flush journal: " + journalFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush buffered records, then report a background compaction that failed since
+     * the last flush. The journal still holds every record a failed compaction would
+     * have folded in, so the failure loses no data.
+     */
+    @Override
+    public void flush() {
+        if (groupCommit != null) {
+            groupCommit.flush();
+        } else {
+            flushWriter();
+        }
+        RuntimeException failure = compactionFailure;
+        if (failure != null) {
+            compactionFailure = null;
+            throw new DataPersistenceException("Background compaction failed", failure);
+        }
+    }
+
+    /**
+     * Apply the sync policy to records just flushed to the journal. Caller holds the lock.
+     */
+    private void synced() throws IOException {
+        if (syncer.forceOnWrite()) {
+            channel.force(false);
+        } else {
+            syncer.written(journalFile);
+        }
+    }
+
+    private Writer openJournal() throws IOException {
+        if (journalFile.getParent() != null) {
+            Files.createDirectories(journalFile.getParent());
+        }
+        channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compact on the compactor thread, keeping a failure for the next {@link #flush()}.
+     */
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            compactionFailure = e;
+        }
+    }
+
+    /**
+     * Fold the journal into a new snapshot.
+     * Only the rotation holds the lock; the snapshot itself is written while
+     * writers keep appending to the fresh journal.
+     */
+    void compact() {
+        try {
+            synchronized (lock) {
+                if (Files.exists(rotatedJournalFile)) {
+                    // Left over from an interrupted compaction; fold it in before rotating again
+                    writeSnapshot();
+                }
+                if (writer != null) {
+                    writer.close();
+                    writer = null;
+                    channel = null;
+                }
+                if (Files.exists(journalFile)) {
+                    Files.move(journalFile, rotatedJournalFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+                recordsSinceCompaction = 0;
+            }
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to compact journal: " + journalFile, e);
+        } finally {
+            synchronized (lock) {
+                compactionRunning = false;
+            }
+        }
+    }
+
+    /**
+     * Write the current cache as the snapshot and drop the rotated journal.
+     * The cache already reflects every rotated record, so the snapshot supersedes it.
+     * The snapshot is always synced before the journal goes, whatever the policy:
+     * compaction is off the write path, and the journal may hold the only copy.
+     */
+    private void writeSnapshot() throws IOException {
+        List<Task> current = new ArrayList<>(tasks.get());
+        format.write(current, snapshotFile, true);
+        Files.deleteIfExists(rotatedJournalFile);
+    }
+
+    @Override
+    public void close() {
+        if (groupCommit != null) {
+            groupCommit.close();
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    throw new DataPersistenceException("Failed to close journal: " + journalFile, e);
+                } finally {
+                    writer = null;
+                    channel = null;
+                }
+            }
+        }
+    }
+}
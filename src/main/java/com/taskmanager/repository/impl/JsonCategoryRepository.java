@@ -1,28 +1,54 @@
 package com.taskmanager.repository.impl;
 
-import com.google.gson.reflect.TypeToken;
 import com.taskmanager.domain.Category;
 import com.taskmanager.repository.CategoryRepository;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.repository.impl.ProcessCoordinator.Changes;
 import com.taskmanager.util.JsonUtil;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * JSON-based implementation of CategoryRepository.
  * Mirrors TaskRepository pattern for consistency.
  */
 public class JsonCategoryRepository implements CategoryRepository {
-    private static final Path DATA_FILE = Paths.get("data", "categories.json");
+    private static final String DATA_FILE_NAME = "categories.json";
     private static JsonCategoryRepository instance;
     
+    private final Path dataFile;
     private final Map<String, Category> categoryCache;
+    private final FileSyncer syncer;
+    private final WriteBehindFlusher flusher;
+    private final ProcessCoordinator<Category> coordinator;
 
     private JsonCategoryRepository() {
+        this(StorageConfig.fromSystemProperties());
+    }
+
+    /**
+     * Constructor for a repository with explicit storage configuration.
+     */
+    JsonCategoryRepository(StorageConfig config) {
+        this.dataFile = config.resolve(DATA_FILE_NAME);
         this.categoryCache = new ConcurrentHashMap<>();
-        loadFromFile();
+        this.syncer = new FileSyncer(config.getSyncPolicy(), config.getSyncIntervalMillis());
+        this.flusher = config.isWriteBehind()
+            ? new WriteBehindFlusher("category-flusher", this::writeFile,
+                config.getFlushIntervalMillis(), config.getFlushBatchSize())
+            : null;
+        this.coordinator = config.isSharedAccess()
+            ? new ProcessCoordinator<>(config.resolve("categories.lock"), config.resolve("categories.changes"),
+                Category.class, Category::id)
+            : null;
+        if (coordinator != null) {
+            coordinator.load(this::loadFromFile);
+        } else {
+            loadFromFile();
+        }
         initializeDefaultCategories();
     }
 
@@ -32,6 +58,7 @@ public class JsonCategoryRepository implements CategoryRepository {
     public static synchronized JsonCategoryRepository getInstance() {
         if (instance == null) {
             instance = new JsonCategoryRepository();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "category-repository-shutdown"));
         }
         return instance;
     }
@@ -40,63 +67,94 @@ public class JsonCategoryRepository implements CategoryRepository {
      * Initialize default categories if none exist.
      */
     private void initializeDefaultCategories() {
-        if (categoryCache.isEmpty()) {
-            List<Category> defaults = List.of(
-                Category.create("Work", "Work-related tasks", "#3498db"),
-                Category.create("Personal", "Personal tasks", "#2ecc71"),
-                Category.create("Shopping", "Shopping list items", "#e74c3c"),
-                Category.create("Health", "Health and fitness", "#9b59b6"),
-                Category.create("Learning", "Study and learning", "#f39c12")
-            );
-            
+        write(() -> {
+            if (!categoryCache.isEmpty()) {
+                return null;
+            }
+            List<Category> defaults = DefaultCategories.create();
             defaults.forEach(category -> categoryCache.put(category.id(), category));
             saveToFile();
+            return Changes.ofSaved(defaults);
+        });
+    }
+
+    /**
+     * Merge changes other processes made to a shared data directory.
+     */
+    private void refresh() {
+        if (coordinator != null) {
+            coordinator.refresh(this::merge);
         }
     }
 
     /**
-     * Load categories from JSON file.
+     * Run a mutation, under the cross-process write lock when the data directory is shared.
+     *
+     * @return what the mutation changed, or null if nothing
      */
-    private void loadFromFile() {
-        try {
-            String json = java.nio.file.Files.readString(DATA_FILE);
-            List<Category> categories = new com.google.gson.Gson().fromJson(
-                json,
-                new TypeToken<List<Category>>(){}.getType()
-            );
-            
-            if (categories != null) {
-                categories.forEach(cat -> categoryCache.put(cat.id(), cat));
-            }
-        } catch (Exception e) {
-            // File doesn't exist, start with empty cache
+    private Changes<Category> write(Supplier<Changes<Category>> mutation) {
+        return coordinator != null ? coordinator.write(this::merge, mutation) : mutation.get();
+    }
+
+    private void merge(Changes<Category> changes) {
+        if (changes.reload()) {
             categoryCache.clear();
+            loadFromFile();
+            return;
         }
+        if (changes.cleared()) {
+            categoryCache.clear();
+        }
+        changes.saved().forEach(category -> categoryCache.put(category.id(), category));
+        changes.deleted().forEach(categoryCache::remove);
+    }
+
+    /**
+     * Stream categories from JSON file straight into the cache.
+     * A missing file means a new data directory; an unreadable one fails startup
+     * rather than being silently replaced by defaults.
+     */
+    private void loadFromFile() {
+        JsonUtil.readArrayFromFile(dataFile, Category.class, cat -> categoryCache.put(cat.id(), cat));
     }
 
     /**
-     * Save all categories to JSON file.
+     * Save all categories to JSON file, or schedule it when writing behind.
      */
     private void saveToFile() {
+        if (flusher != null) {
+            flusher.markDirty();
+        } else {
+            writeFile();
+        }
+    }
+
+    private synchronized void writeFile() {
         List<Category> categories = new ArrayList<>(categoryCache.values());
-        JsonUtil.writeToFile(categories, DATA_FILE);
+        JsonUtil.writeToFile(categories, dataFile, syncer.forceOnWrite());
+        syncer.written(dataFile);
     }
 
     @Override
     public Category save(Category category) {
         Objects.requireNonNull(category, "Category cannot be null");
-        categoryCache.put(category.id(), category);
-        saveToFile();
+        write(() -> {
+            categoryCache.put(category.id(), category);
+            saveToFile();
+            return Changes.ofSaved(List.of(category));
+        });
         return category;
     }
 
     @Override
     public Optional<Category> findById(String id) {
+        refresh();
         return Optional.ofNullable(categoryCache.get(id));
     }
 
     @Override
     public Optional<Category> findByName(String name) {
+        refresh();
         return categoryCache.values().stream()
             .filter(cat -> cat.name().equalsIgnoreCase(name))
             .findFirst();
@@ -104,28 +162,52 @@ public class JsonCategoryRepository implements CategoryRepository {
 
     @Override
     public List<Category> findAll() {
+        refresh();
         return new ArrayList<>(categoryCache.values());
     }
 
     @Override
     public boolean deleteById(String id) {
-        Category removed = categoryCache.remove(id);
-        if (removed != null) {
+        return write(() -> {
+            if (categoryCache.remove(id) == null) {
+                return null;
+            }
             saveToFile();
-            return true;
-        }
-        return false;
+            return Changes.ofDeleted(List.of(id));
+        }) != null;
     }
 
     @Override
     public void deleteAll() {
-        categoryCache.clear();
-        saveToFile();
+        write(() -> {
+            categoryCache.clear();
+            saveToFile();
+            return Changes.ofClear();
+        });
     }
 
     @Override
     public long count() {
+        refresh();
         return categoryCache.size();
     }
+
+    @Override
+    public void flush() {
+        if (flusher != null) {
+            flusher.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.close();
+        }
+        if (coordinator != null) {
+            coordinator.close();
+        }
+        syncer.close();
+    }
 }
 
@@ -0,0 +1,31 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.util.JsonUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Human-readable JSON array snapshot, streamed one task at a time on read.
+ */
+class JsonTaskFormat implements TaskFormat {
+
+    @Override
+    public String fileName() {
+        return "tasks.json";
+    }
+
+    @Override
+    public void read(Path file, Map<String, Task> target) {
+        JsonUtil.readArrayFromFile(file, Task.class, task -> target.put(task.getId(), task));
+    }
+
+    @Override
+    public void encode(List<Task> tasks, OutputStream out) throws IOException {
+        JsonUtil.writeTo(tasks, out);
+    }
+}
@@ -1,15 +1,27 @@
 package com.taskmanager.repository.impl;
 
-import com.google.gson.reflect.TypeToken;
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
 import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.QueryPlan;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.repository.TaskChangeListener;
+import com.taskmanager.repository.TaskCounts;
+import com.taskmanager.repository.TaskOrder;
+import com.taskmanager.repository.TaskQuery;
 import com.taskmanager.repository.TaskRepository;
-import com.taskmanager.util.JsonUtil;
+import com.taskmanager.repository.TextMatch;
+import com.taskmanager.util.SortUtil;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * JSON-based implementation of TaskRepository.
@@ -17,14 +29,26 @@ import java.util.stream.Collectors;
  * Uses Singleton pattern for repository instance.
  */
 public class JsonTaskRepository implements TaskRepository {
-    private static final Path DATA_FILE = Paths.get("data", "tasks.json");
     private static JsonTaskRepository instance;
-    
-    private final Map<String, Task> taskCache;
+
+    private final TaskCache taskCache;
+    private final QueryPlanner planner;
+    private final FileSyncer syncer;
+    private final TaskStore store;
 
     private JsonTaskRepository() {
-        this.taskCache = new ConcurrentHashMap<>();
-        loadFromFile();
+        this(StorageConfig.fromSystemProperties());
+    }
+
+    /**
+     * Constructor for a repository with explicit storage configuration.
+     */
+    JsonTaskRepository(StorageConfig config) {
+        this.taskCache = new TaskCache(config.getSortedViews(), config.isWordIndex(), config.isTrigramIndex());
+        this.planner = new QueryPlanner(taskCache);
+        this.syncer = new FileSyncer(config.getSyncPolicy(), config.getSyncIntervalMillis());
+        this.store = createStore(config);
+        store.load(taskCache);
     }
 
     /**
@@ -34,83 +58,325 @@ public class JsonTaskRepository implements TaskRepository {
     public static synchronized JsonTaskRepository getInstance() {
         if (instance == null) {
             instance = new JsonTaskRepository();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "task-repository-shutdown"));
         }
         return instance;
     }
 
     /**
-     * Load tasks from JSON file into cache.
+     * Pick the store for the configured persistence mode, coordinated with other
+     * processes when the data directory is shared, or fed by a single writer
+     * thread when a write queue is configured.
      */
-    private void loadFromFile() {
-        try {
-            String json = java.nio.file.Files.readString(DATA_FILE);
-            List<Task> tasks = new com.google.gson.Gson().fromJson(
-                json, 
-                new TypeToken<List<Task>>(){}.getType()
-            );
-            
-            if (tasks != null) {
-                tasks.forEach(task -> taskCache.put(task.getId(), task));
-            }
-        } catch (Exception e) {
-            // File doesn't exist or is empty, start with empty cache
-            taskCache.clear();
+    private TaskStore createStore(StorageConfig config) {
+        TaskStore store = createFileStore(config);
+        if (config.isSharedAccess()) {
+            return new SharedTaskStore(store, config.resolve("tasks.lock"), config.resolve("tasks.changes"));
+        }
+        if (config.getWriteQueueCapacity() > 0) {
+            return new QueuedTaskStore(store, taskCache::get, config.getWriteQueueCapacity(),
+                config.getBackpressure());
         }
+        return store;
     }
 
-    /**
-     * Save all tasks to JSON file.
-     * Uses virtual threads for async I/O (Java 25 feature).
-     */
-    private void saveToFile() {
-        List<Task> tasks = new ArrayList<>(taskCache.values());
-        JsonUtil.writeToFile(tasks, DATA_FILE);
+    private TaskStore createFileStore(StorageConfig config) {
+        TaskFormat format = TaskFormat.of(config.getSnapshotFormat());
+        Path dataFile = config.resolve(format.fileName());
+        return switch (config.getPersistenceMode()) {
+            case SNAPSHOT -> new SnapshotTaskStore(dataFile, format, taskCache::values, syncer,
+                config.isWriteBehind(), config.getFlushIntervalMillis(), config.getFlushBatchSize());
+            case JOURNAL -> new JournalTaskStore(dataFile, format, taskCache::values, taskCache::get,
+                config.getCompactionThreshold(), syncer, config.isWriteBehind(),
+                config.getFlushIntervalMillis(), config.getFlushBatchSize());
+            case SHARDED -> new ShardedTaskStore(config.resolve("tasks-shards"), dataFile, format,
+                taskCache::get, config.getShardCount(), syncer, config.isWriteBehind(),
+                config.getFlushIntervalMillis(), config.getFlushBatchSize());
+        };
     }
 
     @Override
     public Task save(Task task) {
         Objects.requireNonNull(task, "Task cannot be null");
-        taskCache.put(task.getId(), task);
-        saveToFile();
-        return task;
+        Task stored = taskCache.save(task);
+        store.saved(stored);
+        return stored;
+    }
+
+    @Override
+    public CompletableFuture<Task> saveAsync(Task task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        Task stored = taskCache.save(task);
+        return store.savedAsync(stored).thenApply(written -> stored);
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+        Map<String, Task> batch = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            Objects.requireNonNull(task, "Task cannot be null");
+            batch.put(task.getId(), task);
+        }
+        List<Task> stored = new ArrayList<>(batch.size());
+        for (Task task : batch.values()) {
+            stored.add(taskCache.save(task));
+        }
+        if (!stored.isEmpty()) {
+            store.savedAll(stored);
+        }
+        return stored;
+    }
+
+    @Override
+    public List<Task> saveAllIfUnchanged(Collection<Task> tasks) {
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+        store.refresh();
+        List<Task> stored = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Objects.requireNonNull(task, "Task cannot be null");
+            Task written = taskCache.compareVersionAndSet(task);
+            if (written != null) {
+                stored.add(written);
+            }
+        }
+        if (!stored.isEmpty()) {
+            store.savedAll(stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Applies the change to the cached task and stores the result with a
+     * compare-and-set on the cache, retrying if the task changed in between.
+     * Only the write of the task's own map entry is atomic; updates to different
+     * tasks never wait for each other.
+     */
+    @Override
+    public Optional<Task> update(String id, UnaryOperator<Task> change) {
+        Objects.requireNonNull(change, "Change cannot be null");
+        store.refresh();
+        while (true) {
+            Task current = taskCache.get(id);
+            if (current == null) {
+                return Optional.empty();
+            }
+            Task updated = change.apply(current);
+            if (updated == current) {
+                return Optional.of(current);
+            }
+            requireSameTask(current, updated);
+            Task stored = taskCache.compareAndSet(current, updated);
+            if (stored != null) {
+                store.saved(stored);
+                return Optional.of(stored);
+            }
+        }
     }
 
     @Override
     public Optional<Task> findById(String id) {
+        store.refresh();
         return Optional.ofNullable(taskCache.get(id));
     }
 
     @Override
     public List<Task> findAll() {
+        store.refresh();
         return new ArrayList<>(taskCache.values());
     }
 
+    /**
+     * Streams the cache itself; the stream is weakly consistent with concurrent writes.
+     */
+    @Override
+    public Stream<Task> stream() {
+        store.refresh();
+        return taskCache.values().stream();
+    }
+
     @Override
     public List<Task> findByCategoryId(String categoryId) {
-        return taskCache.values().stream()
-            .filter(task -> Objects.equals(task.getCategoryId(), categoryId))
-            .collect(Collectors.toList());
+        store.refresh();
+        return new ArrayList<>(taskCache.inCategory(categoryId));
+    }
+
+    @Override
+    public List<Task> findByStatus(Status status) {
+        store.refresh();
+        return new ArrayList<>(taskCache.withStatus(status));
+    }
+
+    @Override
+    public List<Task> findByPriority(Priority priority) {
+        store.refresh();
+        return new ArrayList<>(taskCache.withPriority(priority));
+    }
+
+    @Override
+    public List<Task> findByDueDateBetween(LocalDateTime start, LocalDateTime end) {
+        return findMatching(TaskQuery.dueBetween(start, end));
+    }
+
+    /**
+     * Walks the cache's sorted view of the order when one is kept; otherwise
+     * selects the page with a bounded heap over all tasks.
+     */
+    @Override
+    public List<Task> findSorted(TaskOrder order, Task after, int offset, int limit) {
+        store.refresh();
+        Collection<Task> sorted = taskCache.sorted(order, after);
+        if (sorted != null) {
+            return sorted.stream().skip(offset).limit(limit).collect(Collectors.toList());
+        }
+        Comparator<Task> comparator = order.getKeysetComparator();
+        List<Task> head = SortUtil.smallest(taskCache.values(), comparator,
+            task -> after == null || comparator.compare(task, after) > 0, offset + limit);
+        return offset >= head.size() ? new ArrayList<>() : new ArrayList<>(head.subList(offset, head.size()));
+    }
+
+    /**
+     * Evaluated by the query planner along the most selective index.
+     */
+    @Override
+    public List<Task> findMatching(TaskQuery query) {
+        store.refresh();
+        return planner.execute(query);
+    }
+
+    /**
+     * Evaluated on the cache's attribute bitmaps.
+     */
+    @Override
+    public List<Task> findByAttributes(AttributeQuery query) {
+        store.refresh();
+        return taskCache.matchingAttributes(query);
+    }
+
+    /**
+     * Counted from the cache's attribute bitmaps without looking at any task.
+     */
+    @Override
+    public long countByAttributes(AttributeQuery query) {
+        store.refresh();
+        return taskCache.countMatchingAttributes(query);
+    }
+
+    @Override
+    public QueryPlan explain(TaskQuery query) {
+        store.refresh();
+        return planner.explain(query);
+    }
+
+    @Override
+    public List<Task> search(String text, TextMatch match) {
+        store.refresh();
+        if (match == TextMatch.SUBSTRING) {
+            return taskCache.substringCandidates(text).stream()
+                .filter(match.asPredicate(text))
+                .collect(Collectors.toList());
+        }
+        return taskCache.matchingText(text, match);
+    }
+
+    /**
+     * Ranked from the word index, which maintains the term statistics on every write.
+     */
+    @Override
+    public List<Task> searchRanked(String text, Ranking ranking, int limit) {
+        store.refresh();
+        return taskCache.rankedText(text, ranking, limit);
+    }
+
+    /**
+     * The cache's change count, after applying changes other processes made to shared storage.
+     */
+    @Override
+    public long version() {
+        store.refresh();
+        return taskCache.version();
+    }
+
+    /**
+     * Listeners see every change to the cache, including those loaded from shared storage.
+     */
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        taskCache.addListener(Objects.requireNonNull(listener, "Listener cannot be null"));
     }
 
     @Override
     public boolean deleteById(String id) {
+        store.refresh();
         Task removed = taskCache.remove(id);
         if (removed != null) {
-            saveToFile();
+            store.deleted(id);
             return true;
         }
         return false;
     }
 
+    @Override
+    public CompletableFuture<Boolean> deleteByIdAsync(String id) {
+        store.refresh();
+        if (taskCache.remove(id) == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return store.deletedAsync(id).thenApply(written -> true);
+    }
+
+    @Override
+    public int deleteAllById(Collection<String> ids) {
+        Objects.requireNonNull(ids, "IDs cannot be null");
+        store.refresh();
+        List<String> removed = ids.stream()
+            .distinct()
+            .filter(id -> taskCache.remove(id) != null)
+            .collect(Collectors.toList());
+        if (!removed.isEmpty()) {
+            store.deletedAll(removed);
+        }
+        return removed.size();
+    }
+
     @Override
     public void deleteAll() {
         taskCache.clear();
-        saveToFile();
+        store.cleared();
     }
 
     @Override
     public long count() {
+        store.refresh();
         return taskCache.size();
     }
-}
 
+    @Override
+    public TaskCounts countTasks(LocalDateTime now) {
+        store.refresh();
+        return taskCache.counts(now);
+    }
+
+    @Override
+    public void flush() {
+        store.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            store.close();
+        } finally {
+            syncer.close();
+        }
+    }
+
+    private static void requireSameTask(Task current, Task updated) {
+        if (updated == null) {
+            throw new IllegalArgumentException("Update must return a task: " + current.getId());
+        }
+        if (!updated.getId().equals(current.getId())) {
+            throw new IllegalArgumentException("Update must not change the task ID: " + current.getId());
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.taskmanager.repository.impl;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.util.JsonUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates several processes that share one data set in the same data directory.
+ *
+ * <p>A lock file holds the data set's generation counter and is locked with
+ * {@link FileChannel#lock} around every access: exclusively by writers, shared by readers.
+ * A writer first merges whatever other processes changed, then persists its own change
+ * and appends the changed records to a change log under the next generation.
+ * A process that finds a newer generation replays only the log records it has not seen,
+ * so changes from other processes are merged into its cache instead of being overwritten.
+ *
+ * <p>The log is restarted once it grows past a size limit; a process that has fallen
+ * behind the start of the log reloads the data set from its files instead.
+ * Within one JVM, access is also serialized per lock file, because file locks are held
+ * on behalf of the whole process and cannot overlap between channels.
+ *
+ * @param <T> record type of the data set
+ */
+class ProcessCoordinator<T> implements AutoCloseable {
+    private static final long DEFAULT_MAX_LOG_BYTES = 4L * 1024 * 1024;
+    private static final String HEADER_FORMAT = "{\"base\":%019d}\n";
+    private static final int HEADER_LENGTH = String.format(HEADER_FORMAT, 0L).length();
+    private static final Map<Path, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path lockFile;
+    private final Path logFile;
+    private final Class<T> type;
+    private final Function<T, String> idOf;
+    private final long maxLogBytes;
+    private final ReentrantLock jvmLock;
+    private final FileChannel channel;
+
+    private long generation;
+    private long logBase = -1;
+    private long logOffset;
+
+    ProcessCoordinator(Path lockFile, Path logFile, Class<T> type, Function<T, String> idOf) {
+        this(lockFile, logFile, type, idOf, DEFAULT_MAX_LOG_BYTES);
+    }
+
+    ProcessCoordinator(Path lockFile, Path logFile, Class<T> type, Function<T, String> idOf, long maxLogBytes) {
+        this.lockFile = lockFile;
+        this.logFile = logFile;
+        this.type = type;
+        this.idOf = idOf;
+        this.maxLogBytes = maxLogBytes;
+        this.jvmLock = JVM_LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize(), path -> new ReentrantLock());
+        try {
+            if (lockFile.getParent() != null) {
+                Files.createDirectories(lockFile.getParent());
+            }
+            this.channel = FileChannel.open(lockFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to open lock file: " + lockFile, e);
+        }
+    }
+
+    /**
+     * Load the data set under a shared lock and remember the generation it reflects.
+     */
+    void load(Runnable loader) {
+        locked(true, () -> {
+            loader.run();
+            generation = readGeneration();
+            return null;
+        });
+    }
+
+    /**
+     * Merge changes other processes made since the last access.
+     * Costs one lock and an 8-byte read when nothing has changed.
+     */
+    void refresh(Consumer<Changes<T>> merge) {
+        locked(true, () -> {
+            long current = readGeneration();
+            if (current != generation) {
+                catchUp(current, merge);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Merge changes from other processes, then run a local mutation under the exclusive lock.
+     * The mutation persists its change and returns it; a non-null result is logged as the
+     * next generation.
+     *
+     * @return the mutation's result
+     */
+    Changes<T> write(Consumer<Changes<T>> merge, Supplier<Changes<T>> mutation) {
+        return locked(false, () -> {
+            long current = readGeneration();
+            catchUp(current, merge);
+            Changes<T> changes = mutation.get();
+            if (changes != null) {
+                appendLog(changes, current + 1);
+                writeGeneration(current + 1);
+                generation = current + 1;
+            }
+            return changes;
+        });
+    }
+
+    /**
+     * Apply log records in (generation, current] and advance the log position.
+     * Records beyond {@code current} come from a writer that failed before publishing
+     * its generation; they are neither applied nor consumed.
+     */
+    private void catchUp(long current, Consumer<Changes<T>> merge) throws IOException {
+        Changes<T> changes = scanLog(current);
+        if (current != generation) {
+            merge.accept(changes);
+            generation = current;
+        }
+    }
+
+    /**
+     * Read new log records and collect those the local cache has not seen.
+     *
+     * @return the combined changes, or a reload request if the log does not cover
+     *         every generation since the local one
+     */
+    private Changes<T> scanLog(long current) throws IOException {
+        if (!Files.exists(logFile)) {
+            logBase = -1;
+            logOffset = 0;
+            return Changes.ofReload();
+        }
+        try (FileChannel log = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long base = readHeader(log);
+            if (base < 0) {
+                logBase = -1;
+                logOffset = 0;
+                return Changes.ofReload();
+            }
+            if (base != logBase) {
+                logBase = base;
+                logOffset = HEADER_LENGTH;
+            }
+            if (generation < base) {
+                return Changes.ofReload();
+            }
+            long remaining = log.size() - logOffset;
+            if (remaining <= 0) {
+                return new Changes<>(false, false, List.of(), List.of());
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) remaining);
+            while (buffer.hasRemaining() && log.read(buffer, logOffset + buffer.position()) > 0) {
+                // Keep reading until the whole tail is in the buffer
+            }
+            byte[] bytes = buffer.array();
+
+            Map<String, T> saved = new LinkedHashMap<>();
+            Set<String> deleted = new LinkedHashSet<>();
+            boolean cleared = false;
+            int start = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                JsonObject record;
+                try {
+                    // Trimmed: logs written with a 30-byte header have a NUL before the first record
+                    record = JsonParser.parseString(
+                        new String(bytes, start, i - start, StandardCharsets.UTF_8).trim()).getAsJsonObject();
+                } catch (JsonParseException | IllegalStateException e) {
+                    break;
+                }
+                long recordGeneration = record.get("gen").getAsLong();
+                if (recordGeneration > current) {
+                    break;
+                }
+                if (recordGeneration > generation) {
+                    if (record.has("cleared") && record.get("cleared").getAsBoolean()) {
+                        saved.clear();
+                        deleted.clear();
+                        cleared = true;
+                    }
+                    for (JsonElement element : record.getAsJsonArray("saved")) {
+                        T value = JsonUtil.fromJson(element, type);
+                        deleted.remove(idOf.apply(value));
+                        saved.put(idOf.apply(value), value);
+                    }
+                    for (JsonElement element : record.getAsJsonArray("deleted")) {
+                        String id = element.getAsString();
+                        saved.remove(id);
+                        deleted.add(id);
+                    }
+                }
+                start = i + 1;
+            }
+            logOffset += start;
+            return new Changes<>(false, cleared, new ArrayList<>(saved.values()), new ArrayList<>(deleted));
+        }
+    }
+
+    private static long readHeader(FileChannel log) throws IOException {
+        if (log.size() < HEADER_LENGTH) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (header.hasRemaining() && log.read(header, header.position()) > 0) {
+            // Header is fixed width
+        }
+        String text = new String(header.array(), StandardCharsets.UTF_8);
+        try {
+            return JsonParser.parseString(text.trim()).getAsJsonObject().get("base").getAsLong();
+        } catch (JsonParseException | IllegalStateException e) {
+            return -1;
+        }
+    }
+
+    private void appendLog(Changes<T> changes, long newGeneration) throws IOException {
+        JsonObject record = new JsonObject();
+        record.addProperty("gen", newGeneration);
+        if (changes.cleared()) {
+            record.addProperty("cleared", true);
+        }
+        JsonArray saved = new JsonArray();
+        changes.saved().forEach(value -> saved.add(JsonUtil.toJsonTree(value)));
+        record.add("saved", saved);
+        JsonArray deleted = new JsonArray();
+        changes.deleted().forEach(deleted::add);
+        record.add("deleted", deleted);
+        byte[] line = (JsonUtil.toCompactJson(record) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        try (FileChannel log = FileChannel.open(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (logBase < 0 || logOffset < HEADER_LENGTH || logOffset > maxLogBytes) {
+                // Restart the log at the current generation; processes further behind reload
+                log.truncate(0);
+                writeFully(log, String.format(HEADER_FORMAT, newGeneration - 1).getBytes(StandardCharsets.UTF_8), 0);
+                logBase = newGeneration - 1;
+                logOffset = HEADER_LENGTH;
+            } else {
+                // Drop a torn or unpublished record left by a failed writer
+                log.truncate(logOffset);
+            }
+            writeFully(log, line, logOffset);
+            logOffset += line.length;
+            log.force(false);
+        }
+    }
+
+    private static void writeFully(FileChannel file, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            file.write(buffer, position + buffer.position());
+        }
+    }
+
+    private long readGeneration() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // Generation is the first 8 bytes of the lock file
+        }
+        return buffer.position() < Long.BYTES ? 0 : buffer.getLong(0);
+    }
+
+    private void writeGeneration(long value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, value);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        channel.force(false);
+    }
+
+    private <R> R locked(boolean shared, LockedAction<R> action) {
+        jvmLock.lock();
+        try {
+            FileLock lock = channel.lock(0, Long.MAX_VALUE, shared);
+            try {
+                return action.run();
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to coordinate access through " + lockFile, e);
+        } finally {
+            jvmLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to close lock file: " + lockFile, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LockedAction<R> {
+        R run() throws IOException;
+    }
+
+    /**
+     * Records changed by one write, or merged from other processes.
+     *
+     * @param reload  the log no longer covers the gap; reload the data set from its files
+     * @param cleared every record was deleted before {@code saved} and {@code deleted} apply
+     * @param saved   records created or updated
+     * @param deleted IDs of deleted records
+     */
+    record Changes<T>(boolean reload, boolean cleared, List<T> saved, List<String> deleted) {
+        static <T> Changes<T> ofReload() {
+            return new Changes<>(true, false, List.of(), List.of());
+        }
+
+        static <T> Changes<T> ofSaved(List<T> saved) {
+            return new Changes<>(false, false, saved, List.of());
+        }
+
+        static <T> Changes<T> ofDeleted(List<String> deleted) {
+            return new Changes<>(false, false, List.of(), deleted);
+        }
+
+        static <T> Changes<T> ofClear() {
+            return new Changes<>(false, true, List.of(), List.of());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.QueryPlan;
+import com.taskmanager.repository.TaskQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cost-based evaluation of task queries over the indexes of a {@link TaskCache}.
+ *
+ * <p>Every criterion with an index becomes an access path with a row estimate taken
+ * from the cache's statistics: bucket sizes for status, priority and category, the
+ * shortest trigram posting set for a keyword, and per-day counts for due dates.
+ * The path with the fewest estimated rows drives the query. The ID sets of other
+ * equality and keyword paths are intersected with its rows, most selective first,
+ * and whatever no index enforced exactly is checked last as a residual predicate.
+ */
+class QueryPlanner {
+    /**
+     * A keyword's candidate ID set costs about its size to build, so it is only
+     * intersected when that is within this factor of the driver's rows.
+     */
+    private static final long KEYWORD_INTERSECT_FACTOR = 4;
+
+    private final TaskCache cache;
+
+    QueryPlanner(TaskCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Run a query along its cheapest plan.
+     */
+    List<Task> execute(TaskQuery query) {
+        Plan plan = plan(query);
+        return run(plan, new long[plan.intersections().size() + 2]);
+    }
+
+    /**
+     * Run a query and report the plan with estimated and actual rows per step.
+     */
+    QueryPlan explain(TaskQuery query) {
+        Plan plan = plan(query);
+        long[] counts = new long[plan.intersections().size() + 2];
+        run(plan, counts);
+
+        List<QueryPlan.Step> steps = new ArrayList<>();
+        steps.add(new QueryPlan.Step(plan.driver().name(), QueryPlan.Role.DRIVER, plan.driver().estimate(), counts[0]));
+        for (int i = 0; i < plan.intersections().size(); i++) {
+            AccessPath path = plan.intersections().get(i);
+            steps.add(new QueryPlan.Step(path.name(), QueryPlan.Role.INTERSECT, path.estimate(), counts[i + 1]));
+        }
+        if (plan.residual() != null) {
+            steps.add(new QueryPlan.Step(describe(plan.residual()), QueryPlan.Role.RESIDUAL, -1,
+                counts[counts.length - 1]));
+        }
+        return new QueryPlan(steps, "");
+    }
+
+    private List<Task> run(Plan plan, long[] counts) {
+        List<Predicate<Task>> members = new ArrayList<>();
+        plan.intersections().forEach(path -> members.add(path.member().get()));
+        Predicate<Task> residual = plan.residual() == null ? task -> true : plan.residual().asPredicate();
+
+        List<Task> result = new ArrayList<>();
+        candidates:
+        for (Task task : plan.driver().rows().get()) {
+            counts[0]++;
+            for (int i = 0; i < members.size(); i++) {
+                if (!members.get(i).test(task)) {
+                    continue candidates;
+                }
+                counts[i + 1]++;
+            }
+            if (residual.test(task)) {
+                counts[counts.length - 1]++;
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private Plan plan(TaskQuery query) {
+        List<AccessPath> paths = accessPaths(query);
+        paths.sort(Comparator.comparingLong(AccessPath::estimate));
+        AccessPath driver = paths.isEmpty()
+            ? new AccessPath("full scan", cache.size(), cache::values, null, null, false)
+            : paths.get(0);
+
+        Set<Criterion> enforced = EnumSet.noneOf(Criterion.class);
+        if (driver.exact()) {
+            enforced.add(driver.criterion());
+        }
+        List<AccessPath> intersections = new ArrayList<>();
+        for (AccessPath path : paths.subList(Math.min(1, paths.size()), paths.size())) {
+            if (path.member() == null) {
+                continue;
+            }
+            if (path.criterion() == Criterion.KEYWORD
+                    && path.estimate() > driver.estimate() * KEYWORD_INTERSECT_FACTOR) {
+                continue;
+            }
+            intersections.add(path);
+            if (path.exact()) {
+                enforced.add(path.criterion());
+            }
+        }
+        return new Plan(driver, intersections, residual(query, enforced));
+    }
+
+    private List<AccessPath> accessPaths(TaskQuery query) {
+        List<AccessPath> paths = new ArrayList<>();
+        if (query.status() != null) {
+            Status status = query.status();
+            paths.add(new AccessPath("status=" + status, cache.idsWithStatus(status).size(),
+                () -> cache.withStatus(status), memberOf(() -> cache.idsWithStatus(status)), Criterion.STATUS, true));
+        }
+        if (query.priority() != null) {
+            Priority priority = query.priority();
+            paths.add(new AccessPath("priority=" + priority, cache.idsWithPriority(priority).size(),
+                () -> cache.withPriority(priority), memberOf(() -> cache.idsWithPriority(priority)),
+                Criterion.PRIORITY, true));
+        }
+        if (query.categoryId() != null) {
+            String categoryId = query.categoryId();
+            paths.add(new AccessPath("category=" + categoryId, cache.idsInCategory(categoryId).size(),
+                () -> cache.inCategory(categoryId), memberOf(() -> cache.idsInCategory(categoryId)),
+                Criterion.CATEGORY, true));
+        }
+        if (query.keyword() != null) {
+            String keyword = query.keyword();
+            long estimate = cache.estimateSubstring(keyword);
+            if (estimate >= 0) {
+                paths.add(new AccessPath("keyword trigrams '" + keyword + "'", estimate,
+                    () -> cache.substringCandidates(keyword), memberOf(() -> cache.substringCandidateIds(keyword)),
+                    Criterion.KEYWORD, false));
+            }
+        }
+        if (query.dueFrom() != null || query.dueTo() != null) {
+            LocalDateTime from = query.dueFrom();
+            LocalDateTime to = query.dueTo();
+            paths.add(new AccessPath("due " + (from == null ? "*" : from) + ".." + (to == null ? "*" : to),
+                cache.estimateDueBetween(from, to), () -> cache.dueBetween(from, to), null, Criterion.DUE_RANGE, true));
+        }
+        if (query.overdueAt() != null) {
+            LocalDateTime now = query.overdueAt();
+            paths.add(new AccessPath("overdue at " + now, cache.estimateOverdueAt(now),
+                () -> cache.overdueAt(now), null, Criterion.OVERDUE, true));
+        }
+        if (query.dueSoonAt() != null) {
+            LocalDateTime now = query.dueSoonAt();
+            paths.add(new AccessPath("due soon at " + now, cache.estimateDueSoonAt(now),
+                () -> cache.dueSoonAt(now), null, Criterion.DUE_SOON, true));
+        }
+        return paths;
+    }
+
+    private static Supplier<Predicate<Task>> memberOf(Supplier<Set<String>> ids) {
+        return () -> {
+            Set<String> set = ids.get();
+            return task -> set.contains(task.getId());
+        };
+    }
+
+    /**
+     * The criteria of a query that no step of the plan enforces exactly, or null if none remain.
+     */
+    private static TaskQuery residual(TaskQuery query, Set<Criterion> enforced) {
+        TaskQuery residual = new TaskQuery(
+            enforced.contains(Criterion.STATUS) ? null : query.status(),
+            enforced.contains(Criterion.PRIORITY) ? null : query.priority(),
+            enforced.contains(Criterion.CATEGORY) ? null : query.categoryId(),
+            query.keyword(),
+            enforced.contains(Criterion.DUE_RANGE) ? null : query.dueFrom(),
+            enforced.contains(Criterion.DUE_RANGE) ? null : query.dueTo(),
+            enforced.contains(Criterion.OVERDUE) ? null : query.overdueAt(),
+            enforced.contains(Criterion.DUE_SOON) ? null : query.dueSoonAt());
+        return residual.equals(TaskQuery.all()) ? null : residual;
+    }
+
+    private static String describe(TaskQuery residual) {
+        StringJoiner criteria = new StringJoiner(", ", "filter ", "");
+        if (residual.status() != null) {
+            criteria.add("status");
+        }
+        if (residual.priority() != null) {
+            criteria.add("priority");
+        }
+        if (residual.categoryId() != null) {
+            criteria.add("category");
+        }
+        if (residual.keyword() != null) {
+            criteria.add("keyword");
+        }
+        if (residual.dueFrom() != null || residual.dueTo() != null) {
+            criteria.add("due range");
+        }
+        if (residual.overdueAt() != null) {
+            criteria.add("overdue");
+        }
+        if (residual.dueSoonAt() != null) {
+            criteria.add("due soon");
+        }
+        return criteria.toString();
+    }
+
+    private enum Criterion {
+        STATUS, PRIORITY, CATEGORY, KEYWORD, DUE_RANGE, OVERDUE, DUE_SOON
+    }
+
+    /**
+     * An index that can answer one criterion.
+     *
+     * @param name      label shown by explain
+     * @param estimate  expected rows
+     * @param rows      the rows, when this path drives the query
+     * @param member    ID-set membership test, when this path can be intersected; null if not
+     * @param criterion the criterion answered
+     * @param exact     whether the rows match the criterion exactly, or are only candidates
+     */
+    private record AccessPath(String name, long estimate, Supplier<Collection<Task>> rows,
+                              Supplier<Predicate<Task>> member, Criterion criterion, boolean exact) {
+    }
+
+    private record Plan(AccessPath driver, List<AccessPath> intersections, TaskQuery residual) {
+    }
+}
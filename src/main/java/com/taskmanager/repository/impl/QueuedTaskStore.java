@@ -0,0 +1,313 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.repository.StorageConfig.Backpressure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Store decorator that hands every mutation to one persistence writer thread
+ * through a bounded ring buffer, so callers never write files themselves and
+ * the underlying store only ever sees one writer.
+ *
+ * <p>The writer takes whatever has queued up as one batch and collapses it to
+ * the last change of each task, so the underlying store sees at most one clear,
+ * one save of all changed tasks and one delete per batch. It then flushes once
+ * and completes the future of every mutation in the batch. A caller may ignore
+ * that future (fire-and-forget) or wait on it until its change is written. A save
+ * is written with the task's latest cached version, and a delete is dropped if the
+ * task is cached again by then, so mutations of one task racing to the queue
+ * cannot leave stale data on disk.
+ *
+ * <p>When the queue is full, the {@link Backpressure} setting decides: block until
+ * there is room, write synchronously on the calling thread after draining the
+ * queue, or fail. A failed background write fails the futures of its batch and is
+ * reported again by the next {@link #flush()}.
+ */
+class QueuedTaskStore implements TaskStore {
+    private final TaskStore delegate;
+    private final Function<String, Task> current;
+    private final Backpressure backpressure;
+    private final ArrayBlockingQueue<Mutation> queue;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile RuntimeException lastFailure;
+
+    /**
+     * @param delegate     store the mutations are applied to
+     * @param current      looks up the cached version of a task by ID
+     * @param capacity     maximum number of queued mutations
+     * @param backpressure what a caller does when the queue is full
+     */
+    QueuedTaskStore(TaskStore delegate, Function<String, Task> current, int capacity, Backpressure backpressure) {
+        this.delegate = delegate;
+        this.current = current;
+        this.backpressure = backpressure;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::run, "task-store-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void load(Map<String, Task> target) {
+        delegate.load(target);
+    }
+
+    @Override
+    public void saved(Task task) {
+        savedAsync(task);
+    }
+
+    @Override
+    public CompletableFuture<Void> savedAsync(Task task) {
+        return submit(Operation.SAVE, List.of(task.getId()));
+    }
+
+    @Override
+    public void savedAll(Collection<Task> tasks) {
+        submit(Operation.SAVE, tasks.stream().map(Task::getId).toList());
+    }
+
+    @Override
+    public void deleted(String id) {
+        deletedAsync(id);
+    }
+
+    @Override
+    public CompletableFuture<Void> deletedAsync(String id) {
+        return submit(Operation.DELETE, List.of(id));
+    }
+
+    @Override
+    public void deletedAll(Collection<String> ids) {
+        submit(Operation.DELETE, List.copyOf(ids));
+    }
+
+    @Override
+    public void cleared() {
+        submit(Operation.CLEAR, List.of());
+    }
+
+    @Override
+    public void refresh() {
+        delegate.refresh();
+    }
+
+    /**
+     * Wait until everything queued so far has been written.
+     *
+     * @throws DataPersistenceException if this or an earlier background write failed
+     */
+    @Override
+    public void flush() {
+        if (closed) {
+            drain(List.of());
+        } else {
+            try {
+                enqueue(new Mutation(null, List.of(), new CompletableFuture<>()), true).join();
+            } catch (CompletionException e) {
+                // Reported through lastFailure below
+            }
+        }
+        RuntimeException failure = lastFailure;
+        if (failure != null) {
+            lastFailure = null;
+            throw new DataPersistenceException("Background write failed", failure);
+        }
+    }
+
+    /**
+     * Stop the writer after everything queued has been written, then close the underlying store.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            try {
+                // Wake the writer so it sees the store is closed; interrupting it could close file channels mid-write
+                queue.put(new Mutation(null, List.of(), new CompletableFuture<>()));
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                drain(List.of());
+            } finally {
+                delegate.close();
+            }
+        }
+    }
+
+    private CompletableFuture<Void> submit(Operation operation, List<String> ids) {
+        return enqueue(new Mutation(operation, ids, new CompletableFuture<>()), false);
+    }
+
+    /**
+     * Queue a mutation, applying the backpressure policy if the queue is full.
+     * Flush barriers always wait for room.
+     */
+    private CompletableFuture<Void> enqueue(Mutation mutation, boolean block) {
+        if (closed) {
+            throw new DataPersistenceException("Store is closed");
+        }
+        if (queue.offer(mutation)) {
+            return queued(mutation);
+        }
+        switch (block ? Backpressure.BLOCK : backpressure) {
+            case BLOCK -> {
+                try {
+                    queue.put(mutation);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DataPersistenceException("Interrupted while waiting for the write queue", e);
+                }
+                return queued(mutation);
+            }
+            case SYNC -> {
+                drain(List.of(mutation));
+                RuntimeException failure = lastFailure;
+                if (mutation.done().isCompletedExceptionally() && failure != null) {
+                    lastFailure = null;
+                    throw new DataPersistenceException("Write failed", failure);
+                }
+            }
+            case FAIL -> throw new DataPersistenceException(
+                "Write queue is full (" + queue.size() + " pending mutations)");
+        }
+        return mutation.done();
+    }
+
+    /**
+     * Withdraw a mutation queued while the store was closing, after the final
+     * drain may have run. One the writer or the drain already took is completed there.
+     */
+    private CompletableFuture<Void> queued(Mutation mutation) {
+        if (closed && queue.remove(mutation)) {
+            DataPersistenceException failure = new DataPersistenceException("Store is closed");
+            mutation.done().completeExceptionally(failure);
+            throw failure;
+        }
+        return mutation.done();
+    }
+
+    private void run() {
+        while (!closed) {
+            Mutation first;
+            try {
+                first = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<Mutation> batch = new ArrayList<>();
+            batch.add(first);
+            writeLock.lock();
+            try {
+                queue.drainTo(batch);
+                write(batch);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write everything still queued, then the given mutations, on the calling thread.
+     * Only the final drain of {@link #close()} runs once the store is closed.
+     */
+    private void drain(List<Mutation> extra) {
+        writeLock.lock();
+        try {
+            if (closed && !extra.isEmpty()) {
+                DataPersistenceException failure = new DataPersistenceException("Store is closed");
+                extra.forEach(mutation -> mutation.done().completeExceptionally(failure));
+                throw failure;
+            }
+            List<Mutation> batch = new ArrayList<>();
+            queue.drainTo(batch);
+            batch.addAll(extra);
+            write(batch);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Collapse a batch to the last change of each task, write it to the underlying
+     * store and flush it once. Called with the write lock held.
+     */
+    private void write(List<Mutation> batch) {
+        boolean cleared = false;
+        Map<String, Operation> latest = new LinkedHashMap<>();
+        for (Mutation mutation : batch) {
+            if (mutation.operation() == Operation.CLEAR) {
+                cleared = true;
+                latest.clear();
+            } else if (mutation.operation() != null) {
+                for (String id : mutation.ids()) {
+                    latest.remove(id);
+                    latest.put(id, mutation.operation());
+                }
+            }
+        }
+        List<Task> saved = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        latest.forEach((id, operation) -> {
+            Task task = current.apply(id);
+            if (operation == Operation.SAVE && task != null) {
+                saved.add(task);
+            } else if (operation == Operation.DELETE && task == null) {
+                deleted.add(id);
+            }
+        });
+        RuntimeException failure = null;
+        try {
+            if (cleared) {
+                delegate.cleared();
+            }
+            if (!saved.isEmpty()) {
+                delegate.savedAll(saved);
+            }
+            if (!deleted.isEmpty()) {
+                delegate.deletedAll(deleted);
+            }
+            delegate.flush();
+        } catch (RuntimeException e) {
+            failure = e;
+            lastFailure = e;
+        }
+        for (Mutation mutation : batch) {
+            if (failure != null) {
+                mutation.done().completeExceptionally(failure);
+            } else {
+                mutation.done().complete(null);
+            }
+        }
+    }
+
+    private enum Operation {
+        SAVE, DELETE, CLEAR
+    }
+
+    /**
+     * A queued change to the given task IDs, or a flush barrier if it has no operation.
+     */
+    private record Mutation(Operation operation, List<String> ids, CompletableFuture<Void> done) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.repository.CategoryRepository;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.repository.TaskRepository;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Chooses repository implementations for the configured storage backend.
+ * Demonstrates Factory pattern; services depend only on the repository interfaces.
+ *
+ * <p>With the SQL backend both repositories share one connection pool,
+ * which is disposed on JVM shutdown.
+ */
+public final class RepositoryFactory {
+    private static StorageConfig config;
+    private static JdbcConnectionPool connectionPool;
+    private static TaskRepository taskRepository;
+    private static CategoryRepository categoryRepository;
+
+    private RepositoryFactory() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Get the shared task repository for the configured backend.
+     */
+    public static synchronized TaskRepository getTaskRepository() {
+        if (taskRepository == null) {
+            taskRepository = switch (config().getBackend()) {
+                case FILE -> JsonTaskRepository.getInstance();
+                case SQL -> new JdbcTaskRepository(connectionPool());
+            };
+        }
+        return taskRepository;
+    }
+
+    /**
+     * Get the shared category repository for the configured backend.
+     */
+    public static synchronized CategoryRepository getCategoryRepository() {
+        if (categoryRepository == null) {
+            categoryRepository = switch (config().getBackend()) {
+                case FILE -> JsonCategoryRepository.getInstance();
+                case SQL -> new JdbcCategoryRepository(connectionPool());
+            };
+        }
+        return categoryRepository;
+    }
+
+    /**
+     * Create an unshared task repository for an explicit configuration,
+     * for tools and benchmarks that compare storage settings side by side.
+     * The caller owns the repository and must close it; a SQL repository's
+     * connection pool lives until the JVM exits.
+     */
+    public static TaskRepository createTaskRepository(StorageConfig storageConfig) {
+        return switch (storageConfig.getBackend()) {
+            case FILE -> new JsonTaskRepository(storageConfig);
+            case SQL -> new JdbcTaskRepository(JdbcConnectionPool.create(storageConfig.getJdbcUrl(), "sa", ""));
+        };
+    }
+
+    private static StorageConfig config() {
+        if (config == null) {
+            config = StorageConfig.fromSystemProperties();
+        }
+        return config;
+    }
+
+    private static JdbcConnectionPool connectionPool() {
+        if (connectionPool == null) {
+            JdbcConnectionPool pool = JdbcConnectionPool.create(config().getJdbcUrl(), "sa", "");
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::dispose, "connection-pool-shutdown"));
+            connectionPool = pool;
+        }
+        return connectionPool;
+    }
+}
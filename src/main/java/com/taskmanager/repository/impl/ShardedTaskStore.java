@@ -0,0 +1,307 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.util.FileUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Store that spreads tasks over N shard files chosen by task-ID hash.
+ * A mutation rewrites only the shard that owns the task, and shards are
+ * loaded in parallel on startup. Each shard keeps the IDs of the tasks it owns, and
+ * their latest versions are looked up in the cache when the shard is written, so a
+ * write costs time proportional to the shard, the store keeps no copy of the tasks,
+ * and the last write of a shard always holds its latest tasks. IDs of deleted tasks
+ * are dropped when their shard is next written.
+ *
+ * <p>A manifest records the shard count and format the files were written with.
+ * When the configuration changes, existing shards are read with the old layout and
+ * rewritten with the new one. Shard file names include the shard count, so the new
+ * layout never overwrites the old one and the manifest switch is the commit point.
+ * Without a manifest, an existing single-file snapshot is split into shards, so
+ * switching from snapshot mode needs no manual migration; the snapshot is then
+ * renamed so switching back does not load stale data.
+ */
+class ShardedTaskStore implements TaskStore {
+    private static final String MANIFEST_FILE = "manifest.properties";
+    private static final String MIGRATED_SUFFIX = ".migrated";
+
+    private final Path shardDirectory;
+    private final Path legacySnapshotFile;
+    private final TaskFormat format;
+    private final Function<String, Task> tasks;
+    private final Shard[] shards;
+    private final FileSyncer syncer;
+    private final WriteBehindFlusher flusher;
+
+    ShardedTaskStore(Path shardDirectory, Path legacySnapshotFile, TaskFormat format,
+                     Function<String, Task> tasks, int shardCount) {
+        this(shardDirectory, legacySnapshotFile, format, tasks, shardCount, FileSyncer.none(), false, 0, 0);
+    }
+
+    ShardedTaskStore(Path shardDirectory, Path legacySnapshotFile, TaskFormat format,
+                     Function<String, Task> tasks, int shardCount,
+                     FileSyncer syncer, boolean writeBehind, long flushIntervalMillis, int flushBatchSize) {
+        this.shardDirectory = shardDirectory;
+        this.legacySnapshotFile = legacySnapshotFile;
+        this.format = format;
+        this.tasks = tasks;
+        this.syncer = syncer;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(shardFile(shardDirectory, format, shardCount, i));
+        }
+        this.flusher = writeBehind
+            ? new WriteBehindFlusher("task-shard-flusher", this::writeDirtyShards, flushIntervalMillis, flushBatchSize)
+            : null;
+    }
+
+    private static Path shardFile(Path directory, TaskFormat format, int shardCount, int index) {
+        String extension = format.fileName().substring(format.fileName().lastIndexOf('.'));
+        return directory.resolve(String.format("shard-%d-%03d%s", shardCount, index, extension));
+    }
+
+    private Shard shardFor(String id) {
+        return shards[Math.floorMod(id.hashCode(), shards.length)];
+    }
+
+    @Override
+    public void load(Map<String, Task> target) {
+        Properties manifest = readManifest();
+        if (manifest == null) {
+            Map<String, Task> legacy = new ConcurrentHashMap<>();
+            format.read(legacySnapshotFile, legacy);
+            reshard(legacy, target);
+            retireLegacySnapshot();
+            return;
+        }
+
+        int storedCount = Integer.parseInt(manifest.getProperty("shardCount"));
+        String storedFormat = manifest.getProperty("format");
+        boolean sameFormat = storedFormat.equals(format.fileName());
+        TaskFormat storedTaskFormat = sameFormat ? format : TaskFormat.forFile(Path.of(storedFormat));
+        if (storedCount == shards.length && sameFormat) {
+            Map<String, Task> loaded = new ConcurrentHashMap<>();
+            IntStream.range(0, shards.length).parallel().forEach(i -> format.read(shards[i].file, loaded));
+            loaded.keySet().forEach(id -> shardFor(id).ids.add(id));
+            target.putAll(loaded);
+            return;
+        }
+
+        Map<String, Task> existing = new ConcurrentHashMap<>();
+        IntStream.range(0, storedCount).parallel().forEach(i ->
+            storedTaskFormat.read(shardFile(shardDirectory, storedTaskFormat, storedCount, i), existing));
+        reshard(existing, target);
+        for (int i = 0; i < storedCount; i++) {
+            deleteQuietly(shardFile(shardDirectory, storedTaskFormat, storedCount, i));
+        }
+    }
+
+    /**
+     * Distribute tasks over the configured shards and write every shard plus the manifest.
+     */
+    private void reshard(Map<String, Task> tasks, Map<String, Task> target) {
+        tasks.keySet().forEach(id -> shardFor(id).ids.add(id));
+        IntStream.range(0, shards.length).parallel().forEach(i -> writeShard(shards[i], tasks::get, true));
+        writeManifest();
+        target.putAll(tasks);
+    }
+
+    /**
+     * Rename a migrated single-file snapshot out of the way. Runs after the
+     * manifest is written, so the shards are durable by then.
+     */
+    private void retireLegacySnapshot() {
+        if (!Files.exists(legacySnapshotFile)) {
+            return;
+        }
+        Path migrated = legacySnapshotFile.resolveSibling(legacySnapshotFile.getFileName() + MIGRATED_SUFFIX);
+        try {
+            Files.move(legacySnapshotFile, migrated, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to rename migrated snapshot: " + legacySnapshotFile, e);
+        }
+    }
+
+    private Properties readManifest() {
+        Path file = shardDirectory.resolve(MANIFEST_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return properties;
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to read shard manifest: " + file, e);
+        }
+    }
+
+    /**
+     * Switch to the new layout. Always synced: it is the commit point of a reshard.
+     */
+    private void writeManifest() {
+        Properties properties = new Properties();
+        properties.setProperty("shardCount", String.valueOf(shards.length));
+        properties.setProperty("format", format.fileName());
+        FileUtil.writeAtomically(shardDirectory.resolve(MANIFEST_FILE), true,
+            out -> properties.store(out, "Task shard layout"));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // A stale shard from the old layout is harmless; it is no longer referenced
+        }
+    }
+
+    @Override
+    public void saved(Task task) {
+        changed(owner(task.getId()));
+    }
+
+    @Override
+    public void savedAll(Collection<Task> tasks) {
+        Set<Shard> affected = new LinkedHashSet<>();
+        for (Task task : tasks) {
+            affected.add(owner(task.getId()));
+        }
+        affected.forEach(this::changed);
+    }
+
+    /**
+     * Record tasks another process saved as members of their shards, so the next
+     * write of a shard keeps them.
+     */
+    @Override
+    public void merged(boolean cleared, Collection<Task> saved, Collection<String> deleted) {
+        saved.forEach(task -> owner(task.getId()));
+    }
+
+    /**
+     * The shard of a task, after recording the task as one of its members.
+     */
+    private Shard owner(String id) {
+        Shard shard = shardFor(id);
+        shard.ids.add(id);
+        return shard;
+    }
+
+    @Override
+    public void deleted(String id) {
+        changed(shardFor(id));
+    }
+
+    @Override
+    public void deletedAll(Collection<String> ids) {
+        Set<Shard> affected = new LinkedHashSet<>();
+        for (String id : ids) {
+            affected.add(shardFor(id));
+        }
+        affected.forEach(this::changed);
+    }
+
+    @Override
+    public void cleared() {
+        for (Shard shard : shards) {
+            changed(shard);
+        }
+    }
+
+    private void changed(Shard shard) {
+        if (flusher != null) {
+            shard.dirty.set(true);
+            flusher.markDirty();
+        } else {
+            writeShard(shard);
+        }
+    }
+
+    private void writeShard(Shard shard) {
+        writeShard(shard, tasks, syncer.forceOnWrite());
+        syncer.written(shard.file);
+    }
+
+    /**
+     * Rewrite a shard with the current versions of its members. Serialized per
+     * shard and reading the tasks under the lock, so concurrent writers of a shard
+     * cannot finish out of order. A member no longer found is dropped, unless it was
+     * saved again meanwhile: a save records the member after storing the task, so
+     * checking again after the removal never loses one.
+     */
+    private void writeShard(Shard shard, Function<String, Task> source, boolean force) {
+        synchronized (shard) {
+            List<Task> owned = new ArrayList<>(shard.ids.size());
+            for (String id : shard.ids) {
+                Task task = source.apply(id);
+                if (task != null) {
+                    owned.add(task);
+                } else {
+                    shard.ids.remove(id);
+                    if (source.apply(id) != null) {
+                        shard.ids.add(id);
+                    }
+                }
+            }
+            format.write(owned, shard.file, force);
+        }
+    }
+
+    private void writeDirtyShards() {
+        for (Shard shard : shards) {
+            if (shard.dirty.getAndSet(false)) {
+                try {
+                    writeShard(shard);
+                } catch (RuntimeException e) {
+                    shard.dirty.set(true);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (flusher != null) {
+            flusher.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.close();
+        }
+    }
+
+    /**
+     * One shard file with the IDs of its tasks and its dirty flag.
+     * Writes are serialized per shard, so different shards are written concurrently.
+     */
+    private static final class Shard {
+        final Path file;
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean dirty = new AtomicBoolean();
+
+        Shard(Path file) {
+            this.file = file;
+        }
+    }
+}
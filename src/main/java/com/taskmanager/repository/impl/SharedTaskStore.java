@@ -0,0 +1,158 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.impl.ProcessCoordinator.Changes;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store decorator for a data directory shared by several processes.
+ * Demonstrates Decorator pattern: every mutation runs under the cross-process write lock,
+ * after the cache has been brought up to date, so the wrapped store writes merged data
+ * instead of overwriting what other processes saved.
+ *
+ * <p>A save is last-writer-wins across processes: if another process saved the task
+ * after this one read it, the caller's task is still written, one version above the
+ * other process's. Within the process, a save overtaken by a later local save of the
+ * same task writes that later version, so versions reach disk in order.
+ */
+class SharedTaskStore implements TaskStore {
+    private final TaskStore delegate;
+    private final ProcessCoordinator<Task> coordinator;
+    /** Tasks merged from other processes and not written by this one since, by ID. */
+    private final Map<String, Task> merged = new ConcurrentHashMap<>();
+    private Map<String, Task> cache;
+
+    SharedTaskStore(TaskStore delegate, Path lockFile, Path changeLog) {
+        this(delegate, new ProcessCoordinator<>(lockFile, changeLog, Task.class, Task::getId));
+    }
+
+    SharedTaskStore(TaskStore delegate, ProcessCoordinator<Task> coordinator) {
+        this.delegate = delegate;
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    public void load(Map<String, Task> target) {
+        this.cache = target;
+        coordinator.load(() -> delegate.load(target));
+    }
+
+    @Override
+    public void refresh() {
+        coordinator.refresh(this::merge);
+    }
+
+    /**
+     * Apply changes from other processes to the cache and the wrapped store.
+     */
+    private void merge(Changes<Task> changes) {
+        if (changes.reload()) {
+            merged.clear();
+            cache.clear();
+            delegate.load(cache);
+            merged.putAll(cache);
+            return;
+        }
+        if (changes.cleared()) {
+            merged.clear();
+            cache.clear();
+        }
+        changes.saved().forEach(task -> {
+            merged.put(task.getId(), task);
+            cache.put(task.getId(), task);
+        });
+        changes.deleted().forEach(id -> {
+            merged.remove(id);
+            cache.remove(id);
+        });
+        delegate.merged(changes.cleared(), changes.saved(), changes.deleted());
+    }
+
+    @Override
+    public void saved(Task task) {
+        coordinator.write(this::merge, () -> {
+            Task written = toWrite(task);
+            cache.put(written.getId(), written);
+            delegate.saved(written);
+            return Changes.ofSaved(List.of(written));
+        });
+    }
+
+    @Override
+    public void savedAll(Collection<Task> tasks) {
+        List<Task> requested = new ArrayList<>(tasks);
+        coordinator.write(this::merge, () -> {
+            List<Task> batch = requested.stream().map(this::toWrite).toList();
+            batch.forEach(task -> cache.put(task.getId(), task));
+            delegate.savedAll(batch);
+            return Changes.ofSaved(batch);
+        });
+    }
+
+    /**
+     * The task to write. A cached task merged from another process since the caller
+     * stored this one is overwritten with a version above both; a later local save
+     * of the task is written in its place.
+     */
+    private Task toWrite(Task task) {
+        Task cached = cache.get(task.getId());
+        Task remote = merged.remove(task.getId());
+        if (cached != null && cached != task && cached == remote) {
+            return new Task.Builder(task).version(Math.max(cached.getVersion(), task.getVersion()) + 1).build();
+        }
+        return cached != null && cached.getVersion() > task.getVersion() ? cached : task;
+    }
+
+    @Override
+    public void deleted(String id) {
+        coordinator.write(this::merge, () -> {
+            merged.remove(id);
+            cache.remove(id);
+            delegate.deleted(id);
+            return Changes.ofDeleted(List.of(id));
+        });
+    }
+
+    @Override
+    public void deletedAll(Collection<String> ids) {
+        List<String> batch = new ArrayList<>(ids);
+        coordinator.write(this::merge, () -> {
+            batch.forEach(id -> {
+                merged.remove(id);
+                cache.remove(id);
+            });
+            delegate.deletedAll(batch);
+            return Changes.ofDeleted(batch);
+        });
+    }
+
+    @Override
+    public void cleared() {
+        coordinator.write(this::merge, () -> {
+            merged.clear();
+            cache.clear();
+            delegate.cleared();
+            return Changes.ofClear();
+        });
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            delegate.close();
+        } finally {
+            coordinator.close();
+        }
+    }
+}
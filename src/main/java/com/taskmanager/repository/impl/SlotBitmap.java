@@ -0,0 +1,95 @@
+package com.taskmanager.repository.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent bitmap over dense task slots, stored in blocks of {@value #BLOCK_SIZE} bits.
+ *
+ * <p>Blocks without any bit ever set are not allocated, so a bitmap for a rare value
+ * takes space only around the slots it covers. Bits are set and cleared with
+ * compare-and-set on single 64-bit words; readers see each word atomically but a
+ * multi-word scan is only weakly consistent with concurrent updates.
+ */
+class SlotBitmap {
+    static final int BLOCK_SIZE = 4096;
+    static final int WORDS_PER_BLOCK = BLOCK_SIZE / Long.SIZE;
+    private static final int BLOCK_SHIFT = 12;
+
+    private volatile AtomicLongArray[] blocks = new AtomicLongArray[0];
+
+    void set(int slot) {
+        AtomicLongArray block = blockFor(slot >>> BLOCK_SHIFT);
+        int word = (slot >>> 6) & (WORDS_PER_BLOCK - 1);
+        long mask = 1L << slot;
+        long bits;
+        do {
+            bits = block.get(word);
+        } while ((bits & mask) == 0 && !block.compareAndSet(word, bits, bits | mask));
+    }
+
+    void clear(int slot) {
+        AtomicLongArray block = block(slot >>> BLOCK_SHIFT);
+        if (block == null) {
+            return;
+        }
+        int word = (slot >>> 6) & (WORDS_PER_BLOCK - 1);
+        long mask = 1L << slot;
+        long bits;
+        do {
+            bits = block.get(word);
+        } while ((bits & mask) != 0 && !block.compareAndSet(word, bits, bits & ~mask));
+    }
+
+    boolean get(int slot) {
+        AtomicLongArray block = block(slot >>> BLOCK_SHIFT);
+        return block != null && (block.get((slot >>> 6) & (WORDS_PER_BLOCK - 1)) & (1L << slot)) != 0;
+    }
+
+    /**
+     * Number of blocks that may hold set bits.
+     */
+    int blockCount() {
+        return blocks.length;
+    }
+
+    /**
+     * A block of the bitmap, or null if no bit in it was ever set.
+     */
+    AtomicLongArray block(int index) {
+        AtomicLongArray[] current = blocks;
+        return index < current.length ? current[index] : null;
+    }
+
+    /**
+     * Number of set bits, counted a word at a time.
+     */
+    long cardinality() {
+        long count = 0;
+        for (AtomicLongArray block : blocks) {
+            if (block != null) {
+                for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+                    count += Long.bitCount(block.get(i));
+                }
+            }
+        }
+        return count;
+    }
+
+    private AtomicLongArray blockFor(int index) {
+        AtomicLongArray block = block(index);
+        if (block != null) {
+            return block;
+        }
+        synchronized (this) {
+            AtomicLongArray[] current = blocks;
+            if (index < current.length && current[index] != null) {
+                return current[index];
+            }
+            AtomicLongArray[] grown = Arrays.copyOf(current, Math.max(current.length, index + 1));
+            grown[index] = new AtomicLongArray(WORDS_PER_BLOCK);
+            blocks = grown;
+            return grown[index];
+        }
+    }
+}
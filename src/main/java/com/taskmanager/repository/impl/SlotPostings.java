@@ -0,0 +1,112 @@
+package com.taskmanager.repository.impl;
+
+import java.util.Arrays;
+
+/**
+ * Posting list of one word or trigram: the sorted dense slots (see {@link BitmapIndex})
+ * of the tasks containing it, each with an optional payload such as word positions.
+ *
+ * <p>Slots are kept in a plain int array, four bytes per task, and the payload array
+ * is only allocated once a payload is added. New tasks take the highest slots, so most
+ * inserts append. Every method locks the list; readers that walk it take a copy.
+ */
+class SlotPostings {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] slots = EMPTY;
+    private int[][] payloads;
+    private int size;
+
+    /**
+     * Add a slot, or replace its payload if it is already present.
+     */
+    synchronized void add(int slot, int[] payload) {
+        int index = Arrays.binarySearch(slots, 0, size, slot);
+        if (index < 0) {
+            index = -index - 1;
+            if (size == slots.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                slots = Arrays.copyOf(slots, capacity);
+                if (payloads != null) {
+                    payloads = Arrays.copyOf(payloads, capacity);
+                }
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            if (payloads != null) {
+                System.arraycopy(payloads, index, payloads, index + 1, size - index);
+                payloads[index] = null;
+            }
+            slots[index] = slot;
+            size++;
+        }
+        if (payload != null) {
+            if (payloads == null) {
+                payloads = new int[slots.length][];
+            }
+            payloads[index] = payload;
+        }
+    }
+
+    /**
+     * Remove a slot, shrinking the arrays once they are mostly empty.
+     */
+    synchronized void remove(int slot) {
+        int index = Arrays.binarySearch(slots, 0, size, slot);
+        if (index < 0) {
+            return;
+        }
+        size--;
+        System.arraycopy(slots, index + 1, slots, index, size - index);
+        if (payloads != null) {
+            System.arraycopy(payloads, index + 1, payloads, index, size - index);
+            payloads[size] = null;
+        }
+        if (size < slots.length / 4) {
+            slots = size == 0 ? EMPTY : Arrays.copyOf(slots, size * 2);
+            payloads = payloads == null || size == 0 ? null : Arrays.copyOf(payloads, size * 2);
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized boolean contains(int slot) {
+        return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+    }
+
+    /**
+     * Payload of a slot, or null if the slot is absent or has none.
+     */
+    synchronized int[] payload(int slot) {
+        int index = Arrays.binarySearch(slots, 0, size, slot);
+        return index < 0 || payloads == null ? null : payloads[index];
+    }
+
+    /**
+     * Copy of the slots, in ascending order.
+     */
+    synchronized int[] slots() {
+        return Arrays.copyOf(slots, size);
+    }
+
+    /**
+     * Visit every slot and its payload, from a copy taken under the lock.
+     */
+    void forEach(Visitor visitor) {
+        int[] copiedSlots;
+        int[][] copiedPayloads;
+        synchronized (this) {
+            copiedSlots = Arrays.copyOf(slots, size);
+            copiedPayloads = payloads == null ? null : Arrays.copyOf(payloads, size);
+        }
+        for (int i = 0; i < copiedSlots.length; i++) {
+            visitor.visit(copiedSlots[i], copiedPayloads == null ? null : copiedPayloads[i]);
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(int slot, int[] payload);
+    }
+}
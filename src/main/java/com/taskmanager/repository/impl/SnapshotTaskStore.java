@@ -0,0 +1,97 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Store that rewrites the whole snapshot file on every mutation.
+ * Simple and, in JSON format, human-readable; write cost grows with the size of the dataset.
+ * With a write-behind flusher, a burst of mutations collapses into one rewrite.
+ */
+class SnapshotTaskStore implements TaskStore {
+    private final Path dataFile;
+    private final TaskFormat format;
+    private final Supplier<Collection<Task>> tasks;
+    private final FileSyncer syncer;
+    private final WriteBehindFlusher flusher;
+
+    SnapshotTaskStore(Path dataFile, TaskFormat format, Supplier<Collection<Task>> tasks) {
+        this(dataFile, format, tasks, FileSyncer.none(), false, 0, 0);
+    }
+
+    SnapshotTaskStore(Path dataFile, TaskFormat format, Supplier<Collection<Task>> tasks, FileSyncer syncer,
+                      boolean writeBehind, long flushIntervalMillis, int flushBatchSize) {
+        this.dataFile = dataFile;
+        this.format = format;
+        this.tasks = tasks;
+        this.syncer = syncer;
+        this.flusher = writeBehind
+            ? new WriteBehindFlusher("task-snapshot-flusher", this::writeAll, flushIntervalMillis, flushBatchSize)
+            : null;
+    }
+
+    @Override
+    public void load(Map<String, Task> target) {
+        format.read(dataFile, target);
+    }
+
+    @Override
+    public void saved(Task task) {
+        changed();
+    }
+
+    @Override
+    public void savedAll(Collection<Task> tasks) {
+        changed();
+    }
+
+    @Override
+    public void deleted(String id) {
+        changed();
+    }
+
+    @Override
+    public void deletedAll(Collection<String> ids) {
+        changed();
+    }
+
+    @Override
+    public void cleared() {
+        changed();
+    }
+
+    private void changed() {
+        if (flusher != null) {
+            flusher.markDirty();
+        } else {
+            writeAll();
+        }
+    }
+
+    /**
+     * Rewrite the snapshot. Serialized, so concurrent writers cannot finish out of order.
+     */
+    private synchronized void writeAll() {
+        format.write(new ArrayList<>(tasks.get()), dataFile, syncer.forceOnWrite());
+        syncer.written(dataFile);
+    }
+
+    @Override
+    public void flush() {
+        if (flusher != null) {
+            flusher.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.close();
+        }
+    }
+}
@@ -0,0 +1,679 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.TaskChangeListener;
+import com.taskmanager.repository.TaskCounts;
+import com.taskmanager.repository.TaskOrder;
+import com.taskmanager.repository.TextMatch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory task cache with secondary indexes on status, priority, category and
+ * due date, and optionally word and trigram indexes over titles and descriptions.
+ *
+ * <p>Every task is also kept in one bucket per indexed field. Buckets are updated
+ * together with the primary map on every put and remove, including when a saved
+ * task moves to a different status, so lookups cost time proportional to the
+ * result rather than to the number of cached tasks. Stores and the shared-access
+ * decorator mutate the cache through the ordinary {@link Map} methods and keep
+ * the indexes consistent without knowing about them.
+ *
+ * <p>Due dates are kept in sorted maps keyed by (due date, ID): one for every task
+ * with a due date and one for tasks that are not DONE, so date ranges are sub-map
+ * views and overdue tasks are a head map of the open tasks. Per-day counts of both
+ * maps serve as cardinality statistics, so the size of a date range can be estimated
+ * without walking it.
+ *
+ * <p>Status, priority and category are also kept as bitmaps over dense task slots
+ * (see {@link BitmapIndex}), which answer set-valued filters and their counts.
+ * The optional word and trigram indexes post the same slots; without them, word
+ * and substring searches scan every task.
+ *
+ * <p>Live counters per status and per priority are adjusted on every change, and
+ * the number of overdue tasks is kept for a watermark instant: when asked for a
+ * later instant, only the open tasks that fell due in between are walked in the
+ * due-date map, so polling the counts costs time proportional to what changed.
+ *
+ * <p>Optionally the cache keeps sorted views for selected {@link TaskOrder}s: sorted
+ * maps keyed by the order's sort key and the task ID, so a listing in that order is
+ * an in-order walk that can stop after one page, and a page cursor is a tail map.
+ *
+ * <p>Every put and remove that changes a task advances a version counter and then
+ * notifies the registered {@link TaskChangeListener}s with the old and new versions,
+ * whichever store or process the change came from.
+ *
+ * <p>Every saved task carries a version one above the one it replaced, and
+ * {@link #compareAndSet} replaces a task only if it is unchanged, for optimistic
+ * read-modify-write updates that hold no lock while the change is computed.
+ *
+ * <p>Updates to one task ID are serialized by the primary map; buckets are
+ * concurrent maps, so lookups never block writers.
+ */
+class TaskCache extends AbstractMap<String, Task> {
+    private final ConcurrentHashMap<String, Task> tasks = new ConcurrentHashMap<>();
+    private final Map<Status, Map<String, Task>> byStatus = new EnumMap<>(Status.class);
+    private final Map<Priority, Map<String, Task>> byPriority = new EnumMap<>(Priority.class);
+    private final ConcurrentHashMap<String, Map<String, Task>> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, Task> uncategorized = new ConcurrentHashMap<>();
+    private final NavigableMap<DueKey, Task> byDueDate = new ConcurrentSkipListMap<>();
+    private final NavigableMap<DueKey, Task> openByDueDate = new ConcurrentSkipListMap<>();
+    private final NavigableMap<LocalDate, Long> dueDays = new ConcurrentSkipListMap<>();
+    private final NavigableMap<LocalDate, Long> openDueDays = new ConcurrentSkipListMap<>();
+    private final TextIndex text;
+    private final TrigramIndex trigrams;
+    private final BitmapIndex bitmaps = new BitmapIndex();
+    private final Map<TaskOrder, NavigableMap<Task, Task>> sortedViews = new EnumMap<>(TaskOrder.class);
+    private final Map<Status, AtomicLong> statusCounts = new EnumMap<>(Status.class);
+    private final Map<Priority, AtomicLong> priorityCounts = new EnumMap<>(Priority.class);
+    private final Object overdueLock = new Object();
+    private LocalDateTime overdueMark = LocalDateTime.MIN;
+    private long overdueCount;
+    private final AtomicLong version = new AtomicLong();
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    TaskCache() {
+        this(Set.of(), false, false);
+    }
+
+    /**
+     * @param sortedViews  orders to keep a sorted view of
+     * @param wordIndex    whether to keep a word index for term searches and ranking
+     * @param trigramIndex whether to keep a trigram index for substring searches
+     */
+    TaskCache(Set<TaskOrder> sortedViews, boolean wordIndex, boolean trigramIndex) {
+        this.text = wordIndex ? new TextIndex() : null;
+        this.trigrams = trigramIndex ? new TrigramIndex() : null;
+        for (TaskOrder order : sortedViews) {
+            this.sortedViews.put(order, new ConcurrentSkipListMap<>(order.getKeysetComparator()));
+        }
+        for (Status status : Status.values()) {
+            byStatus.put(status, new ConcurrentHashMap<>());
+            statusCounts.put(status, new AtomicLong());
+        }
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, new ConcurrentHashMap<>());
+            priorityCounts.put(priority, new AtomicLong());
+        }
+    }
+
+    /**
+     * Number of changes made to the cache so far.
+     */
+    long version() {
+        return version.get();
+    }
+
+    void addListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Tasks with the given status.
+     */
+    Collection<Task> withStatus(Status status) {
+        return Collections.unmodifiableCollection(byStatus.get(status).values());
+    }
+
+    /**
+     * Tasks with the given priority.
+     */
+    Collection<Task> withPriority(Priority priority) {
+        return Collections.unmodifiableCollection(byPriority.get(priority).values());
+    }
+
+    /**
+     * Tasks in the given category, or without one when {@code categoryId} is null.
+     */
+    Collection<Task> inCategory(String categoryId) {
+        if (categoryId == null) {
+            return Collections.unmodifiableCollection(uncategorized.values());
+        }
+        Map<String, Task> bucket = byCategory.get(categoryId);
+        return bucket == null ? Collections.emptyList() : Collections.unmodifiableCollection(bucket.values());
+    }
+
+    /**
+     * IDs of tasks with the given status.
+     */
+    Set<String> idsWithStatus(Status status) {
+        return Collections.unmodifiableSet(byStatus.get(status).keySet());
+    }
+
+    /**
+     * IDs of tasks with the given priority.
+     */
+    Set<String> idsWithPriority(Priority priority) {
+        return Collections.unmodifiableSet(byPriority.get(priority).keySet());
+    }
+
+    /**
+     * IDs of tasks in the given category.
+     */
+    Set<String> idsInCategory(String categoryId) {
+        Map<String, Task> bucket = categoryId == null ? uncategorized : byCategory.get(categoryId);
+        return bucket == null ? Set.of() : Collections.unmodifiableSet(bucket.keySet());
+    }
+
+    /**
+     * Tasks due within a range in due-date order; a null bound leaves that side open.
+     *
+     * @param from earliest due date, inclusive
+     * @param to latest due date, inclusive
+     */
+    Collection<Task> dueBetween(LocalDateTime from, LocalDateTime to) {
+        NavigableMap<DueKey, Task> range = byDueDate;
+        if (from != null) {
+            range = range.tailMap(DueKey.first(from), true);
+        }
+        if (to != null) {
+            range = range.headMap(DueKey.first(to.plusNanos(1)), false);
+        }
+        return Collections.unmodifiableCollection(range.values());
+    }
+
+    /**
+     * Tasks that are not DONE and were due before the given instant.
+     */
+    Collection<Task> overdueAt(LocalDateTime now) {
+        return Collections.unmodifiableCollection(openByDueDate.headMap(DueKey.first(now), false).values());
+    }
+
+    /**
+     * Tasks that are not DONE and fall due within {@link Task#DUE_SOON_WINDOW} from the given instant.
+     */
+    Collection<Task> dueSoonAt(LocalDateTime now) {
+        return Collections.unmodifiableCollection(openByDueDate.subMap(
+            DueKey.first(now), true, DueKey.first(now.plus(Task.DUE_SOON_WINDOW)), false).values());
+    }
+
+    /**
+     * Tasks whose status, priority and category are among the allowed values.
+     */
+    List<Task> matchingAttributes(AttributeQuery query) {
+        return bitmaps.find(query);
+    }
+
+    /**
+     * Number of tasks whose status, priority and category are among the allowed values.
+     */
+    long countMatchingAttributes(AttributeQuery query) {
+        return bitmaps.count(query);
+    }
+
+    /**
+     * Tasks in the given order after a cursor, or null if no view of that order is kept.
+     *
+     * @param after the cursor, or null to start from the first task
+     */
+    Collection<Task> sorted(TaskOrder order, Task after) {
+        NavigableMap<Task, Task> view = sortedViews.get(order);
+        if (view == null) {
+            return null;
+        }
+        return Collections.unmodifiableCollection((after == null ? view : view.tailMap(after, false)).values());
+    }
+
+    /**
+     * Counts by status and priority, read from live counters, and the number of
+     * tasks overdue at the given instant.
+     */
+    TaskCounts counts(LocalDateTime now) {
+        Map<Status, Long> statuses = new EnumMap<>(Status.class);
+        statusCounts.forEach((status, count) -> statuses.put(status, count.get()));
+        Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+        priorityCounts.forEach((priority, count) -> priorities.put(priority, count.get()));
+        return new TaskCounts(tasks.size(), statuses, priorities, countOverdueAt(now));
+    }
+
+    /**
+     * Number of tasks overdue at the given instant, moving the watermark there by
+     * walking the open tasks due between the old and new watermarks.
+     */
+    long countOverdueAt(LocalDateTime now) {
+        synchronized (overdueLock) {
+            if (now.isAfter(overdueMark)) {
+                overdueCount += openByDueDate.subMap(DueKey.first(overdueMark), true, DueKey.first(now), false).size();
+            } else if (now.isBefore(overdueMark)) {
+                overdueCount -= openByDueDate.subMap(DueKey.first(now), true, DueKey.first(overdueMark), false).size();
+            }
+            overdueMark = now;
+            return overdueCount;
+        }
+    }
+
+    /**
+     * Estimated number of tasks due within a range, counted by whole days.
+     */
+    long estimateDueBetween(LocalDateTime from, LocalDateTime to) {
+        NavigableMap<LocalDate, Long> range = dueDays;
+        if (from != null) {
+            range = range.tailMap(from.toLocalDate(), true);
+        }
+        if (to != null) {
+            range = range.headMap(to.toLocalDate(), true);
+        }
+        return sum(range);
+    }
+
+    /**
+     * Estimated number of tasks overdue at the given instant, counted by whole days.
+     */
+    long estimateOverdueAt(LocalDateTime now) {
+        return sum(openDueDays.headMap(now.toLocalDate(), true));
+    }
+
+    /**
+     * Estimated number of tasks due soon at the given instant, counted by whole days.
+     */
+    long estimateDueSoonAt(LocalDateTime now) {
+        return sum(openDueDays.subMap(now.toLocalDate(), true, now.plus(Task.DUE_SOON_WINDOW).toLocalDate(), true));
+    }
+
+    private static long sum(Map<LocalDate, Long> counts) {
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Tasks whose title or description match the text in one of the word modes.
+     */
+    List<Task> matchingText(String query, TextMatch match) {
+        if (text == null) {
+            return tasks.values().stream().filter(match.asPredicate(query)).collect(Collectors.toList());
+        }
+        return tasksAt(text.search(query, match));
+    }
+
+    /**
+     * The tasks most relevant to the words, best first, scored from the word
+     * index's postings and term statistics, or from the matching tasks themselves
+     * without a word index.
+     */
+    List<Task> rankedText(String query, Ranking ranking, int limit) {
+        List<String> terms = TextMatch.tokenize(query);
+        if (text == null) {
+            return Bm25.best(Bm25.scoreCandidates(matchingText(query, TextMatch.ANY_TERM), terms, size(), ranking),
+                ranking, limit);
+        }
+        Map<Task, Double> scores = new HashMap<>();
+        text.bm25(terms, ranking).forEach((slot, score) -> {
+            Task task = bitmaps.taskAt(slot);
+            if (task != null) {
+                scores.put(task, score);
+            }
+        });
+        return Bm25.best(scores, ranking, limit);
+    }
+
+    /**
+     * IDs of tasks that may contain the text as a substring, or null if the text
+     * is too short to be narrowed.
+     */
+    Set<String> substringCandidateIds(String query) {
+        int[] slots = trigrams == null ? null : trigrams.candidates(query.toLowerCase());
+        if (slots == null) {
+            return null;
+        }
+        Set<String> ids = new HashSet<>();
+        for (Task task : tasksAt(slots)) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Upper bound on the tasks containing the text as a substring, or -1 if the
+     * text is too short to be narrowed.
+     */
+    long estimateSubstring(String query) {
+        return trigrams == null ? -1 : trigrams.estimate(query.toLowerCase());
+    }
+
+    /**
+     * Tasks that may contain the text as a case-insensitive substring; callers
+     * verify each candidate. Text shorter than three characters, or any text
+     * without a trigram index, yields every task.
+     */
+    Collection<Task> substringCandidates(String query) {
+        int[] slots = trigrams == null ? null : trigrams.candidates(query.toLowerCase());
+        return slots == null ? values() : tasksAt(slots);
+    }
+
+    /**
+     * Tasks in the given slots. Like the other indexes, this is only weakly
+     * consistent with concurrent writes: a slot freed and reused while it was being
+     * read yields the task now in it.
+     */
+    private List<Task> tasksAt(int[] slots) {
+        List<Task> result = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            Task task = bitmaps.taskAt(slot);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Task get(Object id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public boolean containsKey(Object id) {
+        return tasks.containsKey(id);
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public Task put(String id, Task task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        return write(id, null, task, false)[0];
+    }
+
+    /**
+     * Store a task and return the instance stored, which carries the version
+     * after the one it replaced.
+     */
+    Task save(Task task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        return write(task.getId(), null, task, true)[1];
+    }
+
+    /**
+     * Replace a task only if the cached task is still the instance a change was
+     * computed from. Comparing instances rather than version numbers also rejects
+     * a task that was replaced and then reloaded with an older version.
+     *
+     * @return the stored instance, or null if the task changed or was removed
+     */
+    Task compareAndSet(Task expected, Task task) {
+        Objects.requireNonNull(expected, "Expected task cannot be null");
+        Task[] written = write(expected.getId(), old -> old == expected, task, true);
+        return written == null ? null : written[1];
+    }
+
+    /**
+     * Replace a task only if the cached task still has the version the given one
+     * carries, that is, nothing was saved since the task was read.
+     *
+     * @return the stored instance, or null if the task changed or was removed
+     */
+    Task compareVersionAndSet(Task task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        Task[] written = write(task.getId(), old -> old != null && old.getVersion() == task.getVersion(), task, true);
+        return written == null ? null : written[1];
+    }
+
+    /**
+     * Write a task in one atomic step of the primary map, moving it between index
+     * buckets, then notify listeners. Plain map puts, used by stores loading tasks,
+     * keep the instance given; saves stamp it with the next version.
+     *
+     * @param expected tests the cached task, or null to write unconditionally
+     * @return the previous and stored tasks, or null if the cached task failed the test
+     */
+    private Task[] write(String id, Predicate<Task> expected, Task task, boolean stamp) {
+        Task[] written = new Task[2];
+        boolean[] conflict = new boolean[1];
+        tasks.compute(id, (key, old) -> {
+            if (expected != null && !expected.test(old)) {
+                conflict[0] = true;
+                return old;
+            }
+            Task stored = stamp ? stamped(old, task) : task;
+            written[0] = old;
+            written[1] = stored;
+            reindex(old, stored);
+            return stored;
+        });
+        if (conflict[0]) {
+            return null;
+        }
+        changed(written[0], written[1]);
+        return written;
+    }
+
+    /**
+     * The task with a version above the one it replaces. Tasks already ahead, such
+     * as ones stored again by a decorator, are kept as they are.
+     */
+    private static Task stamped(Task old, Task task) {
+        if (old == null || old == task || task.getVersion() > old.getVersion()) {
+            return task;
+        }
+        return new Task.Builder(task).version(old.getVersion() + 1).build();
+    }
+
+    @Override
+    public Task remove(Object id) {
+        Task[] previous = new Task[1];
+        tasks.computeIfPresent((String) id, (key, old) -> {
+            previous[0] = old;
+            reindex(old, null);
+            return null;
+        });
+        if (previous[0] != null) {
+            changed(previous[0], null);
+        }
+        return previous[0];
+    }
+
+    @Override
+    public void clear() {
+        tasks.keySet().forEach(this::remove);
+    }
+
+    @Override
+    public Collection<Task> values() {
+        return Collections.unmodifiableCollection(tasks.values());
+    }
+
+    @Override
+    public Set<Entry<String, Task>> entrySet() {
+        return Collections.unmodifiableMap(tasks).entrySet();
+    }
+
+    private void changed(Task old, Task current) {
+        version.incrementAndGet();
+        for (TaskChangeListener listener : listeners) {
+            listener.changed(old, current);
+        }
+    }
+
+    /**
+     * Move a task from the buckets of its old version to those of its new one.
+     * Either side may be null for an insert or a removal. The new version is added
+     * before the old bucket is left, so a concurrent lookup never misses a task
+     * that stays in the same bucket.
+     */
+    private void reindex(Task old, Task current) {
+        if (current != null) {
+            statusCounts.get(current.getStatus()).incrementAndGet();
+            priorityCounts.get(current.getPriority()).incrementAndGet();
+            byStatus.get(current.getStatus()).put(current.getId(), current);
+            byPriority.get(current.getPriority()).put(current.getId(), current);
+            addToCategory(current);
+        }
+        if (old != null) {
+            statusCounts.get(old.getStatus()).decrementAndGet();
+            priorityCounts.get(old.getPriority()).decrementAndGet();
+            if (current == null || old.getStatus() != current.getStatus()) {
+                byStatus.get(old.getStatus()).remove(old.getId());
+            }
+            if (current == null || old.getPriority() != current.getPriority()) {
+                byPriority.get(old.getPriority()).remove(old.getId());
+            }
+            if (current == null || !Objects.equals(old.getCategoryId(), current.getCategoryId())) {
+                removeFromCategory(old);
+            }
+        }
+        reindexDueDate(old, current);
+        sortedViews.forEach((order, view) -> reindexSorted(view, order.getKeysetComparator(), old, current));
+        if (current == null) {
+            // Drop the slot's postings before the slot is freed for another task
+            reindexSlotted(old, null, bitmaps.slotOf(old.getId()));
+            bitmaps.update(old, null);
+        } else {
+            bitmaps.update(old, current);
+            reindexSlotted(old, current, bitmaps.slotOf(current.getId()));
+        }
+    }
+
+    /**
+     * Update the indexes that post task slots rather than IDs.
+     */
+    private void reindexSlotted(Task old, Task current, int slot) {
+        if (slot < 0) {
+            return;
+        }
+        if (text != null) {
+            text.update(old, current, slot);
+        }
+        if (trigrams != null) {
+            trigrams.update(old, current, slot);
+        }
+    }
+
+    private void reindexDueDate(Task old, Task current) {
+        DueKey before = old == null ? null : DueKey.of(old);
+        DueKey after = current == null ? null : DueKey.of(current);
+        if (after != null) {
+            byDueDate.put(after, current);
+        }
+        if (before != null && !before.equals(after)) {
+            byDueDate.remove(before);
+        }
+        synchronized (overdueLock) {
+            if (after != null) {
+                if (current.getStatus() != Status.DONE) {
+                    openByDueDate.put(after, current);
+                } else {
+                    openByDueDate.remove(after);
+                }
+            }
+            if (before != null && !before.equals(after)) {
+                openByDueDate.remove(before);
+            }
+            overdueCount += overdueAtMark(current) - overdueAtMark(old);
+        }
+        countDueDay(current, 1);
+        countDueDay(old, -1);
+    }
+
+    /**
+     * A task whose sort key is unchanged keeps its entry and only gets its new version
+     * as the value; otherwise the new position is added before the old one is removed.
+     */
+    private static void reindexSorted(NavigableMap<Task, Task> view, Comparator<Task> order, Task old, Task current) {
+        if (current != null) {
+            view.put(current, current);
+        }
+        if (old != null && (current == null || order.compare(old, current) != 0)) {
+            view.remove(old);
+        }
+    }
+
+    /**
+     * 1 if the task is counted as overdue at the current watermark, otherwise 0.
+     */
+    private int overdueAtMark(Task task) {
+        return task != null && task.isOverdue(overdueMark) ? 1 : 0;
+    }
+
+    private void countDueDay(Task task, long delta) {
+        if (task == null || task.getDueDate() == null) {
+            return;
+        }
+        LocalDate day = task.getDueDate().toLocalDate();
+        dueDays.merge(day, delta, TaskCache::sumOrRemove);
+        if (task.getStatus() != Status.DONE) {
+            openDueDays.merge(day, delta, TaskCache::sumOrRemove);
+        }
+    }
+
+    private static Long sumOrRemove(Long count, Long delta) {
+        long sum = count + delta;
+        return sum == 0 ? null : sum;
+    }
+
+    private void addToCategory(Task task) {
+        if (task.getCategoryId() == null) {
+            uncategorized.put(task.getId(), task);
+            return;
+        }
+        byCategory.compute(task.getCategoryId(), (categoryId, bucket) -> {
+            Map<String, Task> target = bucket == null ? new ConcurrentHashMap<>() : bucket;
+            target.put(task.getId(), task);
+            return target;
+        });
+    }
+
+    private void removeFromCategory(Task task) {
+        if (task.getCategoryId() == null) {
+            uncategorized.remove(task.getId());
+            return;
+        }
+        byCategory.computeIfPresent(task.getCategoryId(), (categoryId, bucket) -> {
+            bucket.remove(task.getId());
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    /**
+     * Sort key of the due-date maps: due date first, task ID to keep equal dates apart.
+     */
+    private record DueKey(LocalDateTime dueDate, String id) implements Comparable<DueKey> {
+        private static final Comparator<DueKey> ORDER =
+            Comparator.comparing(DueKey::dueDate).thenComparing(DueKey::id);
+
+        static DueKey of(Task task) {
+            return task.getDueDate() == null ? null : new DueKey(task.getDueDate(), task.getId());
+        }
+
+        /**
+         * Key sorting before every task due at the given instant.
+         */
+        static DueKey first(LocalDateTime dueDate) {
+            return new DueKey(dueDate, "");
+        }
+
+        @Override
+        public int compareTo(DueKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.util.FileUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk encoding of a full task snapshot.
+ * Stores decide when a snapshot is written; the format decides what it looks like.
+ */
+interface TaskFormat {
+    /**
+     * Default snapshot file name for this format.
+     */
+    String fileName();
+
+    /**
+     * Read every task in the file into the given map.
+     * A missing file leaves the map unchanged.
+     */
+    void read(Path file, Map<String, Task> target);
+
+    /**
+     * Encode the tasks as a complete snapshot onto a stream.
+     */
+    void encode(List<Task> tasks, OutputStream out) throws IOException;
+
+    /**
+     * Write the tasks as a complete snapshot, replacing the file atomically.
+     * The content is OS-buffered.
+     */
+    default void write(List<Task> tasks, Path file) {
+        write(tasks, file, false);
+    }
+
+    /**
+     * Write the tasks as a complete snapshot through a temp file and an atomic rename.
+     *
+     * @param force whether to fsync the file before returning
+     */
+    default void write(List<Task> tasks, Path file, boolean force) {
+        FileUtil.writeAtomically(file, force, out -> encode(tasks, out));
+    }
+
+    /**
+     * Factory method for the configured snapshot format.
+     */
+    static TaskFormat of(StorageConfig.SnapshotFormat format) {
+        return switch (format) {
+            case JSON -> new JsonTaskFormat();
+            case BINARY -> new BinaryTaskFormat();
+        };
+    }
+
+    /**
+     * Pick a format from a file extension ({@code .json} or {@code .bin}).
+     */
+    static TaskFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".json")) {
+            return new JsonTaskFormat();
+        }
+        if (name.endsWith(".bin")) {
+            return new BinaryTaskFormat();
+        }
+        throw new IllegalArgumentException("Unknown snapshot format for file: " + file);
+    }
+}
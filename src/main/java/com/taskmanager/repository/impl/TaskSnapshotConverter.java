@@ -0,0 +1,53 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command-line tool for migrating task snapshots between JSON and binary format.
+ * The format of each file is taken from its extension ({@code .json} or {@code .bin}).
+ *
+ * <pre>
+ * java -cp task-manager.jar com.taskmanager.repository.impl.TaskSnapshotConverter data/tasks.json data/tasks.bin
+ * </pre>
+ */
+public final class TaskSnapshotConverter {
+
+    private TaskSnapshotConverter() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Convert a snapshot file into another format.
+     *
+     * @param source existing snapshot file
+     * @param target file to write; replaced if it exists
+     * @return number of tasks converted
+     */
+    public static int convert(Path source, Path target) {
+        if (!Files.exists(source)) {
+            throw new IllegalArgumentException("Source file does not exist: " + source);
+        }
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        TaskFormat.forFile(source).read(source, tasks);
+        TaskFormat.forFile(target).write(new ArrayList<>(tasks.values()), target);
+        return tasks.size();
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: TaskSnapshotConverter <source.json|source.bin> <target.json|target.bin>");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+        int count = convert(source, target);
+        System.out.println("Converted " + count + " tasks from " + source + " to " + target);
+    }
+}
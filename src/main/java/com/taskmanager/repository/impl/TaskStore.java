@@ -0,0 +1,90 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Durable backing store behind the in-memory task cache.
+ * Demonstrates Strategy pattern: JsonTaskRepository owns the cache and
+ * delegates how each mutation reaches disk to one of these implementations.
+ */
+interface TaskStore extends AutoCloseable {
+    /**
+     * Load persisted tasks into the given map.
+     */
+    void load(Map<String, Task> target);
+
+    /**
+     * Record that a task was created or updated.
+     */
+    void saved(Task task);
+
+    /**
+     * Record that several tasks were created or updated, as one write.
+     */
+    void savedAll(Collection<Task> tasks);
+
+    /**
+     * Record that a task was created or updated, returning a future that completes
+     * once the change has been written. Stores that write on the calling thread
+     * write and flush before returning.
+     */
+    default CompletableFuture<Void> savedAsync(Task task) {
+        saved(task);
+        flush();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Record that a task was deleted.
+     */
+    void deleted(String id);
+
+    /**
+     * Record that a task was deleted, returning a future that completes once the
+     * change has been written.
+     */
+    default CompletableFuture<Void> deletedAsync(String id) {
+        deleted(id);
+        flush();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Record that several tasks were deleted, as one write.
+     */
+    void deletedAll(Collection<String> ids);
+
+    /**
+     * Record that all tasks were deleted.
+     */
+    void cleared();
+
+    /**
+     * Bring the cache up to date with changes persisted by other processes.
+     * Only stores shared between processes have anything to do.
+     */
+    default void refresh() {
+    }
+
+    /**
+     * Take over changes another process has already persisted, without writing them again.
+     * Stores that derive what they write from the cache have nothing to do.
+     */
+    default void merged(boolean cleared, Collection<Task> saved, Collection<String> deleted) {
+    }
+
+    /**
+     * Persist anything that has been recorded but not yet written.
+     */
+    void flush();
+
+    /**
+     * Release resources. Pending writes are completed first.
+     */
+    @Override
+    void close();
+}
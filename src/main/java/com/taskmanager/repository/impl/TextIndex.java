@@ -0,0 +1,260 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.TextMatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Inverted index over task titles and descriptions.
+ *
+ * <p>Each word maps to a posting list (see {@link SlotPostings}) of the slots of the
+ * tasks containing it, as assigned by {@link BitmapIndex}, with the word's positions
+ * in each task. Titles and descriptions share one position sequence with a gap
+ * between them, so phrase matches never cross from title into description. The
+ * index is updated per task as tasks are saved and deleted; an update that leaves
+ * the text unchanged (a status change, say) does not touch it.
+ *
+ * <p>The index also keeps the word counts of every task's title and description,
+ * in arrays indexed by slot, and their totals, which with the posting list sizes are
+ * the term statistics for BM25 ranking; ranking a query then only visits the
+ * postings of its words.
+ */
+class TextIndex {
+    private static final int SLOT_SHIFT = 12;
+    private static final int SLOTS_PER_BLOCK = 1 << SLOT_SHIFT;
+
+    private final ConcurrentHashMap<String, SlotPostings> postings = new ConcurrentHashMap<>();
+    private volatile AtomicIntegerArray[] lengths = new AtomicIntegerArray[0];
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder titleWords = new LongAdder();
+    private final LongAdder descriptionWords = new LongAdder();
+
+    /**
+     * Replace a task's old version with its new one; either may be null.
+     * Callers serialize updates per task ID and keep the task in the given slot
+     * until the update returns.
+     */
+    void update(Task old, Task current, int slot) {
+        if (old != null && current != null
+                && old.getTitle().equals(current.getTitle())
+                && old.getDescription().equals(current.getDescription())) {
+            return;
+        }
+        Map<String, int[]> added = Map.of();
+        if (current != null) {
+            List<String> title = TextMatch.tokenize(current.getTitle());
+            List<String> description = TextMatch.tokenize(current.getDescription());
+            added = positions(title, description);
+            AtomicIntegerArray block = lengthBlock(slot);
+            int offset = 2 * (slot & (SLOTS_PER_BLOCK - 1));
+            titleWords.add(title.size() - block.getAndSet(offset, title.size()));
+            descriptionWords.add(description.size() - block.getAndSet(offset + 1, description.size()));
+            if (old == null) {
+                documents.increment();
+            }
+            added.forEach((term, positions) -> postings.compute(term, (key, list) -> {
+                SlotPostings target = list == null ? new SlotPostings() : list;
+                target.add(slot, positions);
+                return target;
+            }));
+        } else {
+            AtomicIntegerArray block = lengthBlock(slot);
+            int offset = 2 * (slot & (SLOTS_PER_BLOCK - 1));
+            titleWords.add(-block.getAndSet(offset, 0));
+            descriptionWords.add(-block.getAndSet(offset + 1, 0));
+            documents.decrement();
+        }
+        if (old != null) {
+            Set<String> terms = new HashSet<>(TextMatch.tokenize(old.getTitle()));
+            terms.addAll(TextMatch.tokenize(old.getDescription()));
+            terms.removeAll(added.keySet());
+            for (String term : terms) {
+                postings.computeIfPresent(term, (key, list) -> {
+                    list.remove(slot);
+                    return list.size() == 0 ? null : list;
+                });
+            }
+        }
+    }
+
+    /**
+     * Slots of tasks matching the text in one of the term modes, in ascending order.
+     */
+    int[] search(String text, TextMatch match) {
+        List<String> terms = TextMatch.tokenize(text);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+        return switch (match) {
+            case ALL_TERMS -> intersect(terms);
+            case ANY_TERM -> union(terms);
+            case PHRASE -> phrase(terms);
+            case SUBSTRING -> throw new IllegalArgumentException("Substring matching is not served by the word index");
+        };
+    }
+
+    /**
+     * BM25 text scores of the tasks containing any of the words.
+     *
+     * @return scores by task slot
+     */
+    Map<Integer, Double> bm25(List<String> terms, Ranking ranking) {
+        Map<Integer, Double> scores = new HashMap<>();
+        long docs = documents.sum();
+        if (docs <= 0) {
+            return scores;
+        }
+        double averageTitle = titleWords.doubleValue() / docs;
+        double averageDescription = descriptionWords.doubleValue() / docs;
+        for (String term : new LinkedHashSet<>(terms)) {
+            SlotPostings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            double idf = Bm25.idf(docs, list.size());
+            list.forEach((slot, positions) -> {
+                int titleLength = length(slot, 0);
+                int inTitle = 0;
+                while (inTitle < positions.length && positions[inTitle] < titleLength) {
+                    inTitle++;
+                }
+                double score = Bm25.score(idf, ranking, inTitle, titleLength, averageTitle,
+                    positions.length - inTitle, length(slot, 1), averageDescription);
+                scores.merge(slot, score, Double::sum);
+            });
+        }
+        return scores;
+    }
+
+    /**
+     * Walk the shortest posting list and keep the slots found in all others.
+     */
+    private int[] intersect(List<String> terms) {
+        List<SlotPostings> lists = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(terms)) {
+            SlotPostings list = postings.get(term);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(SlotPostings::size));
+        int[] slots = lists.get(0).slots();
+        int count = 0;
+        for (int slot : slots) {
+            if (lists.stream().skip(1).allMatch(list -> list.contains(slot))) {
+                slots[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    private int[] union(List<String> terms) {
+        BitSet result = new BitSet();
+        for (String term : terms) {
+            SlotPostings list = postings.get(term);
+            if (list != null) {
+                for (int slot : list.slots()) {
+                    result.set(slot);
+                }
+            }
+        }
+        return result.stream().toArray();
+    }
+
+    /**
+     * Tasks containing all words, filtered to those where the words appear at
+     * consecutive positions starting from some occurrence of the first word.
+     */
+    private int[] phrase(List<String> terms) {
+        int[] candidates = intersect(terms);
+        int count = 0;
+        for (int slot : candidates) {
+            int[][] positions = new int[terms.size()][];
+            boolean complete = true;
+            for (int i = 0; i < terms.size() && complete; i++) {
+                SlotPostings list = postings.get(terms.get(i));
+                positions[i] = list == null ? null : list.payload(slot);
+                complete = positions[i] != null;
+            }
+            if (complete && hasConsecutiveRun(positions)) {
+                candidates[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Words in the title (field 0) or description (field 1) of the task in a slot.
+     */
+    private int length(int slot, int field) {
+        AtomicIntegerArray[] blocks = lengths;
+        int block = slot >>> SLOT_SHIFT;
+        return block < blocks.length ? blocks[block].get(2 * (slot & (SLOTS_PER_BLOCK - 1)) + field) : 0;
+    }
+
+    private AtomicIntegerArray lengthBlock(int slot) {
+        int block = slot >>> SLOT_SHIFT;
+        AtomicIntegerArray[] blocks = lengths;
+        if (block < blocks.length) {
+            return blocks[block];
+        }
+        synchronized (this) {
+            blocks = lengths;
+            if (block >= blocks.length) {
+                AtomicIntegerArray[] grown = Arrays.copyOf(blocks, block + 1);
+                for (int i = blocks.length; i < grown.length; i++) {
+                    grown[i] = new AtomicIntegerArray(2 * SLOTS_PER_BLOCK);
+                }
+                lengths = grown;
+                blocks = grown;
+            }
+            return blocks[block];
+        }
+    }
+
+    private static boolean hasConsecutiveRun(int[][] positions) {
+        for (int start : positions[0]) {
+            boolean run = true;
+            for (int i = 1; i < positions.length && run; i++) {
+                run = Arrays.binarySearch(positions[i], start + i) >= 0;
+            }
+            if (run) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorted word positions of a task, title first, description after a one-position gap.
+     */
+    private static Map<String, int[]> positions(List<String> title, List<String> description) {
+        Map<String, List<Integer>> collected = new LinkedHashMap<>();
+        for (int i = 0; i < title.size(); i++) {
+            collected.computeIfAbsent(title.get(i), term -> new ArrayList<>()).add(i);
+        }
+        int offset = title.size() + 1;
+        for (int i = 0; i < description.size(); i++) {
+            collected.computeIfAbsent(description.get(i), term -> new ArrayList<>()).add(offset + i);
+        }
+        Map<String, int[]> result = new LinkedHashMap<>();
+        collected.forEach((term, list) -> result.put(term, list.stream().mapToInt(Integer::intValue).toArray()));
+        return result;
+    }
+}
@@ -0,0 +1,217 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Trigram index over lowercased task titles and descriptions, for substring search.
+ *
+ * <p>Every run of three characters, packed into a long, maps to the posting list of
+ * the slots (see {@link BitmapIndex}) of the tasks containing it. A task can only
+ * contain a query if it contains all of the query's trigrams, so intersecting their
+ * posting lists yields a small candidate set that the caller verifies with
+ * {@code contains}. Queries shorter than three characters have no trigrams and
+ * cannot be narrowed. A saved task only touches the trigrams its edit added or removed.
+ *
+ * <p>Trigrams are kept in an open-addressing table of primitive longs, and a posting
+ * takes four bytes, so memory grows with the number of distinct trigrams plus the
+ * number of (trigram, task) pairs. A posting list that becomes empty keeps its entry
+ * for the next task that needs it.
+ */
+class TrigramIndex {
+    private static final long[] NONE = new long[0];
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    /**
+     * Replace a task's old version with its new one; either may be null.
+     * Callers serialize updates per task ID and keep the task in the given slot
+     * until the update returns.
+     */
+    void update(Task old, Task current, int slot) {
+        if (old != null && current != null
+                && old.getTitle().equals(current.getTitle())
+                && old.getDescription().equals(current.getDescription())) {
+            return;
+        }
+        long[] before = old == null ? NONE : trigrams(old);
+        long[] after = current == null ? NONE : trigrams(current);
+        int i = 0;
+        int j = 0;
+        while (i < before.length || j < after.length) {
+            if (j == after.length || (i < before.length && before[i] < after[j])) {
+                SlotPostings postings = find(table, before[i++]);
+                if (postings != null) {
+                    postings.remove(slot);
+                }
+            } else if (i == before.length || after[j] < before[i]) {
+                postingsFor(after[j++]).add(slot, null);
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Slots of tasks containing every trigram of the query: a superset of the tasks
+     * containing the query itself.
+     *
+     * @param lowerQuery the lowercased query
+     * @return candidate slots in ascending order, or null if the query is too short to be narrowed
+     */
+    int[] candidates(String lowerQuery) {
+        long[] queryTrigrams = distinct(lowerQuery, "");
+        if (queryTrigrams.length == 0) {
+            return null;
+        }
+        Table current = table;
+        List<SlotPostings> lists = new ArrayList<>();
+        for (long trigram : queryTrigrams) {
+            SlotPostings postings = find(current, trigram);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(SlotPostings::size));
+        int[] smallest = lists.get(0).slots();
+        int count = 0;
+        for (int slot : smallest) {
+            if (lists.stream().skip(1).allMatch(postings -> postings.contains(slot))) {
+                smallest[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(smallest, count);
+    }
+
+    /**
+     * Upper bound on the tasks containing the query: the shortest posting list
+     * among its trigrams.
+     *
+     * @param lowerQuery the lowercased query
+     * @return the bound, or -1 if the query is too short to be narrowed
+     */
+    long estimate(String lowerQuery) {
+        long[] queryTrigrams = distinct(lowerQuery, "");
+        if (queryTrigrams.length == 0) {
+            return -1;
+        }
+        Table current = table;
+        long smallest = Long.MAX_VALUE;
+        for (long trigram : queryTrigrams) {
+            SlotPostings postings = find(current, trigram);
+            smallest = Math.min(smallest, postings == null ? 0 : postings.size());
+        }
+        return smallest;
+    }
+
+    /**
+     * The posting list of a trigram, adding an entry for it if there is none.
+     * Entries are only added under the index lock; a full table is copied into
+     * one twice its size, and readers still holding the old table see the same lists.
+     */
+    private SlotPostings postingsFor(long trigram) {
+        SlotPostings postings = find(table, trigram);
+        if (postings != null) {
+            return postings;
+        }
+        synchronized (this) {
+            Table current = table;
+            postings = find(current, trigram);
+            if (postings != null) {
+                return postings;
+            }
+            if ((current.size + 1) * 2 > current.keys.length) {
+                Table grown = new Table(current.keys.length * 2);
+                for (int i = 0; i < current.keys.length; i++) {
+                    SlotPostings existing = current.postings.get(i);
+                    if (existing != null) {
+                        grown.insert(current.keys[i], existing);
+                    }
+                }
+                table = grown;
+                current = grown;
+            }
+            postings = new SlotPostings();
+            current.insert(trigram, postings);
+            return postings;
+        }
+    }
+
+    private static SlotPostings find(Table table, long trigram) {
+        int mask = table.keys.length - 1;
+        for (int i = hash(trigram) & mask; ; i = (i + 1) & mask) {
+            SlotPostings postings = table.postings.get(i);
+            if (postings == null || table.keys[i] == trigram) {
+                return postings;
+            }
+        }
+    }
+
+    private static int hash(long trigram) {
+        long mixed = trigram * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static long[] trigrams(Task task) {
+        return distinct(task.getTitle().toLowerCase(), task.getDescription().toLowerCase());
+    }
+
+    /**
+     * Sorted distinct three-character windows of both texts, each packed into one long.
+     * Windows never span from one text into the other.
+     */
+    private static long[] distinct(String first, String second) {
+        long[] trigrams = new long[Math.max(0, first.length() - 2) + Math.max(0, second.length() - 2)];
+        int count = addTrigrams(first, trigrams, 0);
+        count = addTrigrams(second, trigrams, count);
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[i] != trigrams[distinct - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return distinct == trigrams.length ? trigrams : Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static int addTrigrams(String text, long[] target, int offset) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            target[offset++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return offset;
+    }
+
+    /**
+     * Open-addressing table from trigram to posting list. A key is written before
+     * its posting list is published, so a reader that sees the list sees the key.
+     */
+    private static final class Table {
+        final long[] keys;
+        final AtomicReferenceArray<SlotPostings> postings;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.postings = new AtomicReferenceArray<>(capacity);
+        }
+
+        void insert(long trigram, SlotPostings list) {
+            int mask = keys.length - 1;
+            int i = hash(trigram) & mask;
+            while (postings.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = trigram;
+            postings.set(i, list);
+            size++;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.exception.DataPersistenceException;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces many mutations into a single write.
+ * Mutations only mark the store dirty; one flusher thread runs the write action
+ * once per interval, or sooner when the number of pending mutations reaches the batch size.
+ */
+class WriteBehindFlusher implements AutoCloseable {
+    private final Runnable writeAction;
+    private final long intervalMillis;
+    private final int batchSize;
+    private final Thread thread;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final Object monitor = new Object();
+    private int pending;
+    private boolean closed;
+    private RuntimeException lastFailure;
+
+    WriteBehindFlusher(String name, Runnable writeAction, long intervalMillis, int batchSize) {
+        this.writeAction = writeAction;
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Record one mutation that still has to reach disk.
+     */
+    void markDirty() {
+        synchronized (monitor) {
+            if (closed) {
+                throw new DataPersistenceException("Store is closed");
+            }
+            pending++;
+            if (pending == 1 || pending >= batchSize) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            synchronized (monitor) {
+                try {
+                    while (pending == 0 && !closed) {
+                        monitor.wait();
+                    }
+                    long deadline = System.currentTimeMillis() + intervalMillis;
+                    long remaining;
+                    while (pending < batchSize && !closed
+                            && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                        monitor.wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                flush();
+            } catch (DataPersistenceException e) {
+                // Kept in lastFailure and reported by the next explicit flush()
+            }
+        }
+    }
+
+    /**
+     * Write all pending mutations now, from the calling thread.
+     *
+     * @throws DataPersistenceException if this or an earlier background write failed
+     */
+    void flush() {
+        writeLock.lock();
+        try {
+            int flushed;
+            synchronized (monitor) {
+                flushed = pending;
+                pending = 0;
+            }
+            if (flushed > 0) {
+                try {
+                    writeAction.run();
+                    lastFailure = null;
+                } catch (RuntimeException e) {
+                    synchronized (monitor) {
+                        pending += flushed;
+                    }
+                    lastFailure = e;
+                }
+            }
+            if (lastFailure != null) {
+                throw new DataPersistenceException("Write-behind flush failed", lastFailure);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Stop the flusher thread after writing everything still pending.
+     */
+    @Override
+    public void close() {
+        synchronized (monitor) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            monitor.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
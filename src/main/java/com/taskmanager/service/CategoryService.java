@@ -3,7 +3,7 @@ package com.taskmanager.service;
 import com.taskmanager.domain.Category;
 import com.taskmanager.domain.exception.CategoryNotFoundException;
 import com.taskmanager.repository.CategoryRepository;
-import com.taskmanager.repository.impl.JsonCategoryRepository;
+import com.taskmanager.repository.impl.RepositoryFactory;
 
 import java.util.List;
 
@@ -15,7 +15,7 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
 
     public CategoryService() {
-        this.categoryRepository = JsonCategoryRepository.getInstance();
+        this.categoryRepository = RepositoryFactory.getCategoryRepository();
     }
 
     /**
@@ -0,0 +1,181 @@
+package com.taskmanager.service;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.TaskQuery;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A set of named filters and aggregations evaluated together in one pass over
+ * the tasks, such as the lists and totals of a dashboard.
+ *
+ * <p>Every clock-dependent criterion of the batch is taken at the same instant,
+ * so a task cannot be overdue in one result and not yet due in another.
+ */
+public final class QueryBatch {
+    private final LocalDateTime now;
+    private final Map<String, Predicate<Task>> filters;
+    private final Map<String, TaskAggregation> aggregations;
+
+    private QueryBatch(Builder builder) {
+        this.now = builder.now;
+        this.filters = Collections.unmodifiableMap(new LinkedHashMap<>(builder.filters));
+        this.aggregations = Collections.unmodifiableMap(new LinkedHashMap<>(builder.aggregations));
+    }
+
+    /**
+     * Start a batch whose clock-dependent criteria are evaluated at the given instant.
+     */
+    public static Builder at(LocalDateTime now) {
+        return new Builder(now);
+    }
+
+    public LocalDateTime getNow() {
+        return now;
+    }
+
+    Map<String, Predicate<Task>> getFilters() {
+        return filters;
+    }
+
+    Map<String, TaskAggregation> getAggregations() {
+        return aggregations;
+    }
+
+    /**
+     * Builder for query batches. Names must be unique among the filters and
+     * among the aggregations.
+     */
+    public static class Builder {
+        private final LocalDateTime now;
+        private final Map<String, Predicate<Task>> filters = new LinkedHashMap<>();
+        private final Map<String, TaskAggregation> aggregations = new LinkedHashMap<>();
+
+        private Builder(LocalDateTime now) {
+            if (now == null) {
+                throw new IllegalArgumentException("Batch instant cannot be null");
+            }
+            this.now = now;
+        }
+
+        /**
+         * Add the tasks matching a search filter, with overdue taken at the batch instant.
+         */
+        public Builder filter(String name, SearchService.TaskFilter filter) {
+            return filter(name, filter.toQuery(now));
+        }
+
+        /**
+         * Add the tasks matching repository query criteria.
+         */
+        public Builder filter(String name, TaskQuery query) {
+            return addFilter(name, query.asPredicate());
+        }
+
+        /**
+         * Add the tasks matching an attribute filter.
+         */
+        public Builder filter(String name, AttributeQuery query) {
+            return addFilter(name, query.asPredicate());
+        }
+
+        /**
+         * Add the tasks overdue at the batch instant.
+         */
+        public Builder overdue(String name) {
+            return filter(name, TaskQuery.overdueAt(now));
+        }
+
+        /**
+         * Add the tasks due soon at the batch instant.
+         */
+        public Builder dueSoon(String name) {
+            return filter(name, TaskQuery.dueSoonAt(now));
+        }
+
+        /**
+         * Add every aggregate of the tasks matching the filter, grouped by the
+         * given dimensions, or one group of them all if none are given.
+         */
+        public Builder aggregate(String name, AttributeQuery filter, TaskAggregation.Dimension... dimensions) {
+            return aggregate(name, new TaskAggregation(List.of(dimensions), List.of(), filter, now));
+        }
+
+        /**
+         * Add an aggregation; its instant is replaced by the batch instant.
+         */
+        public Builder aggregate(String name, TaskAggregation aggregation) {
+            requireNewName(name, aggregations);
+            aggregations.put(name, new TaskAggregation(
+                aggregation.dimensions(), aggregation.aggregates(), aggregation.filter(), now));
+            return this;
+        }
+
+        public QueryBatch build() {
+            return new QueryBatch(this);
+        }
+
+        private Builder addFilter(String name, Predicate<Task> predicate) {
+            requireNewName(name, filters);
+            filters.put(name, predicate);
+            return this;
+        }
+
+        private static void requireNewName(String name, Map<String, ?> existing) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Query name cannot be empty");
+            }
+            if (existing.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate query name: " + name);
+            }
+        }
+    }
+
+    /**
+     * Results of a batch, by query name.
+     *
+     * @param now    the instant the batch was evaluated at
+     * @param tasks  matching tasks of each filter, in the order they were scanned
+     * @param groups groups of each aggregation, ordered by key
+     */
+    public record Result(LocalDateTime now, Map<String, List<Task>> tasks,
+                         Map<String, List<TaskAggregation.Group>> groups) {
+
+        public Result {
+            tasks = Collections.unmodifiableMap(tasks);
+            groups = Collections.unmodifiableMap(groups);
+        }
+
+        /**
+         * Tasks matching the named filter.
+         *
+         * @throws IllegalArgumentException if the batch had no such filter
+         */
+        public List<Task> tasks(String name) {
+            List<Task> result = tasks.get(name);
+            if (result == null) {
+                throw new IllegalArgumentException("Unknown query: " + name);
+            }
+            return result;
+        }
+
+        /**
+         * Groups of the named aggregation.
+         *
+         * @throws IllegalArgumentException if the batch had no such aggregation
+         */
+        public List<TaskAggregation.Group> groups(String name) {
+            List<TaskAggregation.Group> result = groups.get(name);
+            if (result == null) {
+                throw new IllegalArgumentException("Unknown aggregation: " + name);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.taskmanager.service;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.TaskChangeListener;
+import com.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache of query results with precise invalidation.
+ *
+ * <p>Results are keyed by a normalized {@link CachedQuery}. On every change the
+ * repository reports, only the entries whose query the old or new version of the
+ * changed task could match are dropped. A result is only stored if the repository
+ * version did not move while it was computed, so a result that raced with a write
+ * is never cached. Queries that depend on the clock also say whether a result
+ * computed at one instant still holds at a later one.
+ */
+class QueryCache implements TaskChangeListener {
+    private final TaskRepository repository;
+    private final LinkedHashMap<CachedQuery, Entry> entries;
+    private long hits;
+    private long misses;
+    private long invalidations;
+    private long evictions;
+
+    QueryCache(TaskRepository repository, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.repository = repository;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CachedQuery, Entry> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        repository.addChangeListener(this);
+    }
+
+    /**
+     * The query's result, from the cache when a valid entry exists.
+     *
+     * @param now the instant the query is evaluated at
+     * @return a modifiable copy of the result
+     */
+    List<Task> get(CachedQuery query, LocalDateTime now) {
+        long version = repository.version();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(query);
+        }
+        if (entry != null && query.stillValid(repository, entry.computedAt(), now)) {
+            synchronized (this) {
+                hits++;
+            }
+            return new ArrayList<>(entry.result());
+        }
+        List<Task> result = query.run(repository, now);
+        synchronized (this) {
+            misses++;
+            if (entry != null && entries.remove(query, entry)) {
+                invalidations++;
+            }
+            if (repository.version() == version) {
+                entries.put(query, new Entry(List.copyOf(result), now));
+            }
+        }
+        return result;
+    }
+
+    synchronized SearchService.CacheStatistics statistics() {
+        return new SearchService.CacheStatistics(hits, misses, invalidations, evictions, entries.size());
+    }
+
+    @Override
+    public synchronized void changed(Task old, Task current) {
+        Iterator<Map.Entry<CachedQuery, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CachedQuery, Entry> cached = iterator.next();
+            LocalDateTime computedAt = cached.getValue().computedAt();
+            if ((old != null && cached.getKey().affectedBy(old, computedAt))
+                    || (current != null && cached.getKey().affectedBy(current, computedAt))) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void changedAll() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * A cacheable query. Implementations are records holding the normalized
+     * criteria, so equal queries share an entry.
+     */
+    interface CachedQuery {
+        /**
+         * Evaluate the query against the repository.
+         */
+        List<Task> run(TaskRepository repository, LocalDateTime now);
+
+        /**
+         * Whether the task could be part of the result computed at the given instant.
+         */
+        boolean affectedBy(Task task, LocalDateTime computedAt);
+
+        /**
+         * Whether a result computed at one instant is still the result later,
+         * barring changes to tasks; true unless the query depends on the clock.
+         */
+        default boolean stillValid(TaskRepository repository, LocalDateTime computedAt, LocalDateTime now) {
+            return true;
+        }
+    }
+
+    private record Entry(List<Task> result, LocalDateTime computedAt) {
+    }
+}
@@ -3,62 +3,117 @@ package com.taskmanager.service;
 import com.taskmanager.domain.Priority;
 import com.taskmanager.domain.Status;
 import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.QueryPlan;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.repository.TaskOrder;
+import com.taskmanager.repository.TaskQuery;
 import com.taskmanager.repository.TaskRepository;
-import com.taskmanager.repository.impl.JsonTaskRepository;
+import com.taskmanager.repository.TextMatch;
+import com.taskmanager.repository.impl.RepositoryFactory;
+import com.taskmanager.util.SortUtil;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Service for searching, filtering, and sorting tasks.
  * Demonstrates Strategy pattern for different sorting strategies.
+ *
+ * <p>Keyword searches, filters and the overdue and due-soon lists can be served
+ * from a {@link QueryCache}, which drops a cached result only when a changed task
+ * could belong to it.
  */
 public class SearchService {
+    /** Query results cached by the default service unless {@code taskmanager.queryCache.size} says otherwise. */
+    public static final int DEFAULT_QUERY_CACHE_SIZE = 256;
+
     private final TaskRepository taskRepository;
+    private final QueryCache queryCache;
 
     public SearchService() {
-        this.taskRepository = JsonTaskRepository.getInstance();
+        this(RepositoryFactory.getTaskRepository(),
+            Integer.getInteger(StorageConfig.PREFIX + "queryCache.size", DEFAULT_QUERY_CACHE_SIZE));
     }
 
     public SearchService(TaskRepository taskRepository) {
+        this(taskRepository, 0);
+    }
+
+    /**
+     * Constructor caching the results of repeated searches and filters.
+     *
+     * @param taskRepository the repository to query
+     * @param queryCacheSize maximum number of cached results, or 0 to disable caching
+     */
+    public SearchService(TaskRepository taskRepository, int queryCacheSize) {
         this.taskRepository = taskRepository;
+        this.queryCache = queryCacheSize > 0 ? new QueryCache(taskRepository, queryCacheSize) : null;
     }
 
     /**
-     * Search tasks by keyword in title or description.
+     * Search tasks by keyword in title or description, ignoring case.
+     * The keyword may be any fragment, so "voice" finds "invoice".
      * 
      * @param keyword search keyword
      * @return matching tasks
      */
     public List<Task> searchByKeyword(String keyword) {
-        String lowerKeyword = keyword.toLowerCase();
-        return taskRepository.findAll().stream()
-            .filter(task -> 
-                task.getTitle().toLowerCase().contains(lowerKeyword) ||
-                task.getDescription().toLowerCase().contains(lowerKeyword)
-            )
-            .collect(Collectors.toList());
+        return searchByKeyword(keyword, TextMatch.SUBSTRING);
+    }
+
+    /**
+     * Search tasks by keywords in title or description.
+     * Word modes are answered from the repository's word index,
+     * substrings from its trigram index.
+     * 
+     * @param keyword search keywords
+     * @param match how the keywords are matched
+     * @return matching tasks
+     */
+    public List<Task> searchByKeyword(String keyword, TextMatch match) {
+        return cached(KeywordSearch.of(keyword, match));
+    }
+
+    /**
+     * The tasks most relevant to the keywords, best first, ranked by BM25 with
+     * title matches weighted above description matches.
+     * 
+     * @param keywords search words
+     * @param limit maximum number of tasks returned
+     * @return best matching tasks
+     */
+    public List<Task> searchRanked(String keywords, int limit) {
+        return searchRanked(keywords, Ranking.defaults(LocalDateTime.now()), limit);
+    }
+
+    /**
+     * The tasks most relevant to the keywords with custom field weights and
+     * priority or recency boosts, best first.
+     */
+    public List<Task> searchRanked(String keywords, Ranking ranking, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return taskRepository.searchRanked(keywords, ranking, limit);
     }
 
     /**
      * Filter tasks by status.
      */
     public List<Task> filterByStatus(Status status) {
-        return taskRepository.findAll().stream()
-            .filter(task -> task.getStatus() == status)
-            .collect(Collectors.toList());
+        return taskRepository.findByStatus(status);
     }
 
     /**
      * Filter tasks by priority.
      */
     public List<Task> filterByPriority(Priority priority) {
-        return taskRepository.findAll().stream()
-            .filter(task -> task.getPriority() == priority)
-            .collect(Collectors.toList());
+        return taskRepository.findByPriority(priority);
     }
 
     /**
@@ -72,70 +127,89 @@ public class SearchService {
      * Get overdue tasks.
      */
     public List<Task> getOverdueTasks() {
-        return taskRepository.findAll().stream()
-            .filter(Task::isOverdue)
-            .collect(Collectors.toList());
+        return cached(new Criteria(TaskQuery.all(), true, false));
     }
 
     /**
      * Get tasks due soon (within 24 hours).
      */
     public List<Task> getTasksDueSoon() {
-        return taskRepository.findAll().stream()
-            .filter(Task::isDueSoon)
-            .collect(Collectors.toList());
+        return cached(new Criteria(TaskQuery.all(), false, true));
     }
 
     /**
      * Filter tasks by date range.
      */
     public List<Task> filterByDateRange(LocalDateTime start, LocalDateTime end) {
-        return taskRepository.findAll().stream()
-            .filter(task -> {
-                LocalDateTime dueDate = task.getDueDate();
-                return dueDate != null && 
-                       !dueDate.isBefore(start) && 
-                       !dueDate.isAfter(end);
-            })
-            .collect(Collectors.toList());
+        return taskRepository.findByDueDateBetween(start, end);
     }
 
     /**
      * Advanced filter with multiple criteria.
-     * Demonstrates functional programming with predicates.
+     * Every criterion is handed to the repository, which evaluates it with its own indexes.
      */
     public List<Task> filter(TaskFilter filter) {
-        Predicate<Task> predicate = task -> true;
+        return cached(Criteria.of(filter));
+    }
 
-        if (filter.status() != null) {
-            predicate = predicate.and(task -> task.getStatus() == filter.status());
-        }
+    /**
+     * Filter by sets of allowed statuses, priorities and categories, for instance
+     * open tasks of at least HIGH priority in a few categories. Evaluated on the
+     * repository's attribute bitmaps where it keeps them.
+     */
+    public List<Task> filter(AttributeQuery query) {
+        return cached(new Attributes(query));
+    }
 
-        if (filter.priority() != null) {
-            predicate = predicate.and(task -> task.getPriority() == filter.priority());
-        }
+    /**
+     * Count the tasks an attribute filter matches without fetching them.
+     */
+    public long count(AttributeQuery query) {
+        return taskRepository.countByAttributes(query);
+    }
 
-        if (filter.categoryId() != null) {
-            predicate = predicate.and(task -> 
-                filter.categoryId().equals(task.getCategoryId())
-            );
-        }
+    /**
+     * Group tasks and compute aggregates per group in one pass over the tasks,
+     * in parallel for large task sets.
+     * 
+     * @param aggregation the grouping, aggregates and filter
+     * @return the non-empty groups, ordered by key
+     */
+    public List<TaskAggregation.Group> aggregate(TaskAggregation aggregation) {
+        return TaskAggregator.aggregate(taskRepository, aggregation);
+    }
 
-        if (filter.keyword() != null && !filter.keyword().isBlank()) {
-            String lowerKeyword = filter.keyword().toLowerCase();
-            predicate = predicate.and(task ->
-                task.getTitle().toLowerCase().contains(lowerKeyword) ||
-                task.getDescription().toLowerCase().contains(lowerKeyword)
-            );
-        }
+    /**
+     * Evaluate several filters and aggregations in one pass over the tasks, all
+     * at the batch's instant, for views that need them together.
+     * 
+     * @param batch the named filters and aggregations
+     * @return every result, by name
+     */
+    public QueryBatch.Result evaluate(QueryBatch batch) {
+        return TaskAggregator.evaluate(taskRepository, batch);
+    }
 
-        if (filter.overdueOnly()) {
-            predicate = predicate.and(Task::isOverdue);
-        }
+    /**
+     * Hit, miss, invalidation and eviction counts of the query result cache;
+     * all zero when caching is disabled.
+     */
+    public CacheStatistics getCacheStatistics() {
+        return queryCache == null ? new CacheStatistics(0, 0, 0, 0, 0) : queryCache.statistics();
+    }
 
-        return taskRepository.findAll().stream()
-            .filter(predicate)
-            .collect(Collectors.toList());
+    private List<Task> cached(QueryCache.CachedQuery query) {
+        LocalDateTime now = LocalDateTime.now();
+        return queryCache == null ? query.run(taskRepository, now) : queryCache.get(query, now);
+    }
+
+    /**
+     * Run a filter and show how the repository evaluated it: the index that drove
+     * the query, the indexes intersected with it, and the remaining predicates,
+     * each with estimated and actual rows.
+     */
+    public QueryPlan explain(TaskFilter filter) {
+        return taskRepository.explain(filter.toQuery(LocalDateTime.now()));
     }
 
     /**
@@ -148,6 +222,219 @@ public class SearchService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * The first {@code limit} tasks in strategy order, without sorting the rest.
+     * Uses a bounded heap, so the cost is O(n log limit).
+     */
+    public List<Task> top(Collection<Task> tasks, SortStrategy strategy, int limit) {
+        return page(tasks, strategy, 0, limit).tasks();
+    }
+
+    /**
+     * One page of all tasks in strategy order, selected by position. The repository
+     * walks a sorted view when it keeps one for the order, so no task beyond the
+     * page is compared.
+     *
+     * @param strategy the order of the pages
+     * @param offset number of tasks to skip
+     * @param limit maximum number of tasks on the page
+     */
+    public Page listAll(SortStrategy strategy, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+        return new Page(taskRepository.findSorted(strategy.getOrder(), null, offset, limit), offset,
+            taskRepository.count());
+    }
+
+    /**
+     * The tasks that follow a cursor in strategy order, across all tasks.
+     * Fewer than {@code limit} tasks means the listing is exhausted.
+     *
+     * @param strategy the order of the listing
+     * @param after the cursor, or null to start from the first task
+     * @param limit maximum number of tasks returned
+     */
+    public List<Task> listAllAfter(SortStrategy strategy, Task after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return taskRepository.findSorted(strategy.getOrder(), after, 0, limit);
+    }
+
+    /**
+     * One page of tasks in strategy order, selected by position.
+     * Costs O(n log (offset + limit)); for deep pages prefer {@link #pageAfter}.
+     *
+     * @param tasks the tasks to page through
+     * @param strategy the order of the pages
+     * @param offset number of tasks to skip
+     * @param limit maximum number of tasks on the page
+     */
+    public Page page(Collection<Task> tasks, SortStrategy strategy, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+        List<Task> head = SortUtil.smallest(tasks, strategy.getKeysetComparator(), task -> true, offset + limit);
+        List<Task> page = offset >= head.size() ? List.of() : head.subList(offset, head.size());
+        return new Page(List.copyOf(page), offset, tasks.size());
+    }
+
+    /**
+     * The page of tasks that follows a task in strategy order (keyset pagination).
+     * The cursor is usually the last task of the previous page; pages stay stable
+     * when tasks are added or removed in between, and each costs O(n log limit)
+     * however deep it is.
+     *
+     * @param tasks the tasks to page through
+     * @param strategy the order of the pages
+     * @param after the cursor, or null for the first page
+     * @param limit maximum number of tasks on the page
+     */
+    public Page pageAfter(Collection<Task> tasks, SortStrategy strategy, Task after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (after == null) {
+            return page(tasks, strategy, 0, limit);
+        }
+        Comparator<Task> order = strategy.getKeysetComparator();
+        int[] skipped = new int[1];
+        List<Task> page = SortUtil.smallest(tasks, order, task -> {
+            if (order.compare(task, after) > 0) {
+                return true;
+            }
+            skipped[0]++;
+            return false;
+        }, limit);
+        return new Page(page, skipped[0], tasks.size());
+    }
+
+    /**
+     * One page of an ordered task listing.
+     *
+     * @param tasks  the tasks on this page, in order
+     * @param offset number of tasks ordered before this page
+     * @param total  number of tasks in the whole listing
+     */
+    public record Page(List<Task> tasks, int offset, long total) {
+        /**
+         * Whether more tasks follow this page.
+         */
+        public boolean hasMore() {
+            return offset + tasks.size() < total;
+        }
+
+        /**
+         * Cursor for the next page: the last task of this one, or null if the page is empty.
+         */
+        public Task cursor() {
+            return tasks.isEmpty() ? null : tasks.get(tasks.size() - 1);
+        }
+    }
+
+    /**
+     * Counters of the query result cache.
+     *
+     * @param hits          lookups answered from the cache
+     * @param misses        lookups that ran the query
+     * @param invalidations cached results dropped because a change could affect them
+     * @param evictions     cached results dropped to stay within the size bound
+     * @param size          results currently cached
+     */
+    public record CacheStatistics(long hits, long misses, long invalidations, long evictions, int size) {
+        /**
+         * Fraction of lookups answered from the cache, or 0 before the first lookup.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Keyword search with its text normalized: lowercased for substrings,
+     * reduced to its words for the word modes.
+     */
+    private record KeywordSearch(String text, TextMatch match) implements QueryCache.CachedQuery {
+        static KeywordSearch of(String keyword, TextMatch match) {
+            return new KeywordSearch(match == TextMatch.SUBSTRING
+                ? keyword.toLowerCase() : String.join(" ", TextMatch.tokenize(keyword)), match);
+        }
+
+        @Override
+        public List<Task> run(TaskRepository repository, LocalDateTime now) {
+            return repository.search(text, match);
+        }
+
+        @Override
+        public boolean affectedBy(Task task, LocalDateTime computedAt) {
+            return match.asPredicate(text).test(task);
+        }
+    }
+
+    /**
+     * Repository criteria, optionally restricted to tasks overdue or due soon at
+     * the time the query runs.
+     *
+     * @param criteria the criteria that do not depend on the clock
+     */
+    private record Criteria(TaskQuery criteria, boolean overdue, boolean dueSoon) implements QueryCache.CachedQuery {
+        static Criteria of(TaskFilter filter) {
+            return new Criteria(new TaskQuery(filter.status(), filter.priority(), filter.categoryId(),
+                filter.keyword().toLowerCase(), null, null, null, null), filter.overdueOnly(), false);
+        }
+
+        @Override
+        public List<Task> run(TaskRepository repository, LocalDateTime now) {
+            return repository.findMatching(new TaskQuery(criteria.status(), criteria.priority(),
+                criteria.categoryId(), criteria.keyword(), criteria.dueFrom(), criteria.dueTo(),
+                overdue ? now : null, dueSoon ? now : null));
+        }
+
+        @Override
+        public boolean affectedBy(Task task, LocalDateTime computedAt) {
+            return criteria.asPredicate().test(task)
+                && (!overdue || task.isOverdue(computedAt))
+                && (!dueSoon || task.isDueSoon(computedAt));
+        }
+
+        /**
+         * An overdue result still holds if no open task fell due since it was computed;
+         * a due-soon result also needs no open task to have entered the window.
+         */
+        @Override
+        public boolean stillValid(TaskRepository repository, LocalDateTime computedAt, LocalDateTime now) {
+            if (!now.isAfter(computedAt) || !(overdue || dueSoon)) {
+                return true;
+            }
+            boolean valid = noOpenTaskDue(repository, computedAt, now);
+            if (dueSoon) {
+                valid = valid && noOpenTaskDue(repository,
+                    computedAt.plus(Task.DUE_SOON_WINDOW), now.plus(Task.DUE_SOON_WINDOW));
+            }
+            return valid;
+        }
+
+        private boolean noOpenTaskDue(TaskRepository repository, LocalDateTime from, LocalDateTime until) {
+            return repository.findMatching(new TaskQuery(criteria.status(), criteria.priority(),
+                    criteria.categoryId(), criteria.keyword(), from, until.minusNanos(1), null, null)).stream()
+                .allMatch(task -> task.getStatus() == Status.DONE);
+        }
+    }
+
+    private record Attributes(AttributeQuery query) implements QueryCache.CachedQuery {
+        @Override
+        public List<Task> run(TaskRepository repository, LocalDateTime now) {
+            return repository.findByAttributes(query);
+        }
+
+        @Override
+        public boolean affectedBy(Task task, LocalDateTime computedAt) {
+            return query.asPredicate().test(task);
+        }
+    }
+
     /**
      * Record for filter criteria.
      */
@@ -163,6 +450,16 @@ public class SearchService {
                 keyword = "";
             }
         }
+
+        /**
+         * Translate into repository query criteria.
+         *
+         * @param now instant against which overdue tasks are determined
+         */
+        public TaskQuery toQuery(LocalDateTime now) {
+            return new TaskQuery(status, priority, categoryId, keyword, null, null,
+                overdueOnly ? now : null, null);
+        }
     }
 
     /**
@@ -170,28 +467,38 @@ public class SearchService {
      * Demonstrates Strategy pattern with enum.
      */
     public enum SortStrategy {
-        PRIORITY_DESC(Comparator.comparing(Task::getPriority, 
-            Comparator.comparingInt(Priority::getLevel).reversed())),
-        PRIORITY_ASC(Comparator.comparing(Task::getPriority, 
-            Comparator.comparingInt(Priority::getLevel))),
-        DUE_DATE_ASC(Comparator.comparing(Task::getDueDate, 
-            Comparator.nullsLast(Comparator.naturalOrder()))),
-        DUE_DATE_DESC(Comparator.comparing(Task::getDueDate, 
-            Comparator.nullsLast(Comparator.reverseOrder()))),
-        CREATED_ASC(Comparator.comparing(Task::getCreatedAt)),
-        CREATED_DESC(Comparator.comparing(Task::getCreatedAt).reversed()),
-        TITLE_ASC(Comparator.comparing(Task::getTitle)),
-        TITLE_DESC(Comparator.comparing(Task::getTitle).reversed());
+        PRIORITY_DESC(TaskOrder.PRIORITY_DESC),
+        PRIORITY_ASC(TaskOrder.PRIORITY_ASC),
+        DUE_DATE_ASC(TaskOrder.DUE_DATE_ASC),
+        DUE_DATE_DESC(TaskOrder.DUE_DATE_DESC),
+        CREATED_ASC(TaskOrder.CREATED_ASC),
+        CREATED_DESC(TaskOrder.CREATED_DESC),
+        TITLE_ASC(TaskOrder.TITLE_ASC),
+        TITLE_DESC(TaskOrder.TITLE_DESC);
+
+        private final TaskOrder order;
 
-        private final Comparator<Task> comparator;
+        SortStrategy(TaskOrder order) {
+            this.order = order;
+        }
 
-        SortStrategy(Comparator<Task> comparator) {
-            this.comparator = comparator;
+        /**
+         * The repository order this strategy sorts by.
+         */
+        public TaskOrder getOrder() {
+            return order;
         }
 
         public Comparator<Task> getComparator() {
-            return comparator;
+            return order.getComparator();
+        }
+
+        /**
+         * The strategy's order with ties broken by task ID, so every task has one
+         * position and a task can serve as a page cursor.
+         */
+        public Comparator<Task> getKeysetComparator() {
+            return order.getKeysetComparator();
         }
     }
 }
-
@@ -0,0 +1,179 @@
+package com.taskmanager.service;
+
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A group-by aggregation over tasks: which tasks to include, how to group them,
+ * and which aggregates to report for each group.
+ *
+ * @param dimensions what to group by, outermost first; empty for one group of all tasks
+ * @param aggregates aggregates to report, in display order; empty for all of them
+ * @param filter     tasks to include
+ * @param now        instant against which overdue tasks are counted
+ */
+public record TaskAggregation(
+    List<Dimension> dimensions,
+    List<Aggregate> aggregates,
+    AttributeQuery filter,
+    LocalDateTime now
+) {
+    public TaskAggregation {
+        dimensions = List.copyOf(dimensions);
+        aggregates = aggregates.isEmpty() ? List.of(Aggregate.values()) : List.copyOf(aggregates);
+        if (filter == null) {
+            throw new IllegalArgumentException("Aggregation filter cannot be null");
+        }
+        if (now == null) {
+            throw new IllegalArgumentException("Aggregation instant cannot be null");
+        }
+    }
+
+    /**
+     * Every aggregate of all tasks, grouped by the given dimensions.
+     */
+    public static TaskAggregation groupBy(LocalDateTime now, Dimension... dimensions) {
+        return new TaskAggregation(List.of(dimensions), List.of(), AttributeQuery.any(), now);
+    }
+
+    /**
+     * This aggregation restricted to the tasks matching the filter.
+     */
+    public TaskAggregation where(AttributeQuery filter) {
+        return new TaskAggregation(dimensions, aggregates, filter, now);
+    }
+
+    /**
+     * This aggregation reporting only the given aggregates.
+     */
+    public TaskAggregation reporting(Aggregate... aggregates) {
+        return new TaskAggregation(dimensions, List.of(aggregates), filter, now);
+    }
+
+    /**
+     * The group key of a task: one value per dimension, any of which may be null.
+     */
+    List<Object> keyOf(Task task) {
+        if (dimensions.size() == 1) {
+            return Collections.singletonList(dimensions.get(0).valueFor(task));
+        }
+        Object[] key = new Object[dimensions.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = dimensions.get(i).valueFor(task);
+        }
+        return Arrays.asList(key);
+    }
+
+    /**
+     * A property tasks are grouped by. Tasks without a value (no category, no due
+     * date, not completed) form a group of their own with a null key.
+     */
+    public enum Dimension {
+        CATEGORY(Task::getCategoryId),
+        STATUS(Task::getStatus),
+        PRIORITY(Task::getPriority),
+        /** Monday of the week a task is due. */
+        DUE_WEEK(task -> weekOf(task.getDueDate())),
+        /** Month a task is due. */
+        DUE_MONTH(task -> task.getDueDate() == null ? null : YearMonth.from(task.getDueDate())),
+        /** Monday of the week a task was created. */
+        CREATED_WEEK(task -> weekOf(task.getCreatedAt())),
+        /** Monday of the week a task was completed, taken as its last update while DONE. */
+        COMPLETED_WEEK(task -> task.getStatus() == Status.DONE ? weekOf(task.getUpdatedAt()) : null);
+
+        private final Function<Task, Object> value;
+
+        Dimension(Function<Task, Object> value) {
+            this.value = value;
+        }
+
+        /**
+         * The task's value for this dimension, or null if it has none.
+         */
+        public Object valueFor(Task task) {
+            return value.apply(task);
+        }
+
+        /**
+         * Parse a dimension name, ignoring case; short names such as "week" are accepted.
+         *
+         * @throws IllegalArgumentException if the name is not a dimension
+         */
+        public static Dimension fromString(String value) {
+            String name = value.trim().toUpperCase().replace('-', '_');
+            return switch (name) {
+                case "WEEK", "DUE" -> DUE_WEEK;
+                case "MONTH" -> DUE_MONTH;
+                case "CREATED" -> CREATED_WEEK;
+                case "COMPLETED", "DONE" -> COMPLETED_WEEK;
+                default -> {
+                    try {
+                        yield valueOf(name);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Invalid group-by dimension: " + value, e);
+                    }
+                }
+            };
+        }
+
+        private static LocalDate weekOf(LocalDateTime instant) {
+            return instant == null ? null : instant.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    }
+
+    /**
+     * A value reported for every group.
+     */
+    public enum Aggregate {
+        COUNT,
+        DONE,
+        OVERDUE,
+        MIN_DUE,
+        MAX_DUE,
+        /** Share of the group's tasks that are DONE, from 0 to 1. */
+        COMPLETION_RATE
+    }
+
+    /**
+     * Aggregates of one group.
+     *
+     * @param key     the group's value for each dimension, in dimension order
+     * @param count   tasks in the group
+     * @param done    tasks in the group that are DONE
+     * @param overdue tasks in the group overdue at the aggregation instant
+     * @param minDue  earliest due date in the group, or null if none is dated
+     * @param maxDue  latest due date in the group, or null if none is dated
+     */
+    public record Group(List<Object> key, long count, long done, long overdue,
+                        LocalDateTime minDue, LocalDateTime maxDue) {
+
+        public double completionRate() {
+            return count == 0 ? 0.0 : (double) done / count;
+        }
+
+        /**
+         * The value of one aggregate, for display.
+         */
+        public Object value(Aggregate aggregate) {
+            return switch (aggregate) {
+                case COUNT -> count;
+                case DONE -> done;
+                case OVERDUE -> overdue;
+                case MIN_DUE -> minDue;
+                case MAX_DUE -> maxDue;
+                case COMPLETION_RATE -> completionRate();
+            };
+        }
+    }
+}
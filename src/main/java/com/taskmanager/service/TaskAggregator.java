@@ -0,0 +1,222 @@
+package com.taskmanager.service;
+
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates a {@link TaskAggregation}, or a whole {@link QueryBatch}, in a single
+ * pass over the tasks.
+ *
+ * <p>Each task is folded into the accumulator of its group as it streams by, so
+ * no intermediate lists are built. At {@value #PARALLEL_THRESHOLD} tasks or more the
+ * stream runs in parallel on the common fork-join pool: every worker groups its
+ * own split and the partial groups are merged at the end. Filtered aggregations
+ * take their tasks from the repository's attribute indexes rather than a full scan.
+ */
+final class TaskAggregator {
+    /** Number of tasks from which aggregation runs in parallel. */
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> VALUE_ORDER =
+        Comparator.nullsLast((a, b) -> ((Comparable) a).compareTo(b));
+
+    private static final Comparator<TaskAggregation.Group> GROUP_ORDER = (a, b) -> {
+        for (int i = 0; i < a.key().size(); i++) {
+            int order = VALUE_ORDER.compare(a.key().get(i), b.key().get(i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    };
+
+    private TaskAggregator() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * The aggregates of every non-empty group, ordered by key with null values last.
+     */
+    static List<TaskAggregation.Group> aggregate(TaskRepository repository, TaskAggregation aggregation) {
+        Stream<Task> tasks;
+        long size;
+        if (aggregation.filter().equals(AttributeQuery.any())) {
+            size = repository.count();
+            tasks = repository.stream();
+        } else {
+            List<Task> matching = repository.findByAttributes(aggregation.filter());
+            size = matching.size();
+            tasks = matching.stream();
+        }
+        return aggregate(size >= PARALLEL_THRESHOLD ? tasks.parallel() : tasks, aggregation);
+    }
+
+    /**
+     * Aggregate the given tasks, sequentially or in parallel as the stream is.
+     */
+    static List<TaskAggregation.Group> aggregate(Stream<Task> tasks, TaskAggregation aggregation) {
+        LocalDateTime now = aggregation.now();
+        Map<List<Object>, Accumulator> groups = tasks.collect(Collectors.groupingBy(
+            aggregation::keyOf,
+            Collector.of(() -> new Accumulator(now), Accumulator::add, Accumulator::merge)));
+        return toGroups(groups);
+    }
+
+    /**
+     * Evaluate every filter and aggregation of a batch in one pass over all tasks.
+     */
+    static QueryBatch.Result evaluate(TaskRepository repository, QueryBatch batch) {
+        Stream<Task> tasks = repository.stream();
+        if (repository.count() >= PARALLEL_THRESHOLD) {
+            tasks = tasks.parallel();
+        }
+        return evaluate(tasks, batch);
+    }
+
+    /**
+     * Evaluate a batch over the given tasks, sequentially or in parallel as the stream is.
+     */
+    static QueryBatch.Result evaluate(Stream<Task> tasks, QueryBatch batch) {
+        return tasks.collect(Collector.of(
+            () -> new BatchAccumulator(batch), BatchAccumulator::add, BatchAccumulator::merge,
+            BatchAccumulator::toResult));
+    }
+
+    private static List<TaskAggregation.Group> toGroups(Map<List<Object>, Accumulator> groups) {
+        return groups.entrySet().stream()
+            .map(entry -> entry.getValue().toGroup(entry.getKey()))
+            .sorted(GROUP_ORDER)
+            .toList();
+    }
+
+    /**
+     * Matches and running aggregates of every query in a batch, within one split of the stream.
+     */
+    private static final class BatchAccumulator {
+        private final QueryBatch batch;
+        private final List<Predicate<Task>> filters;
+        private final List<List<Task>> matches = new ArrayList<>();
+        private final List<TaskAggregation> aggregations;
+        private final List<Predicate<Task>> aggregationFilters = new ArrayList<>();
+        private final List<Map<List<Object>, Accumulator>> groups = new ArrayList<>();
+
+        BatchAccumulator(QueryBatch batch) {
+            this.batch = batch;
+            this.filters = List.copyOf(batch.getFilters().values());
+            this.aggregations = List.copyOf(batch.getAggregations().values());
+            filters.forEach(filter -> matches.add(new ArrayList<>()));
+            for (TaskAggregation aggregation : aggregations) {
+                aggregationFilters.add(aggregation.filter().asPredicate());
+                groups.add(new HashMap<>());
+            }
+        }
+
+        void add(Task task) {
+            for (int i = 0; i < filters.size(); i++) {
+                if (filters.get(i).test(task)) {
+                    matches.get(i).add(task);
+                }
+            }
+            for (int i = 0; i < aggregations.size(); i++) {
+                if (aggregationFilters.get(i).test(task)) {
+                    TaskAggregation aggregation = aggregations.get(i);
+                    groups.get(i).computeIfAbsent(aggregation.keyOf(task), key -> new Accumulator(aggregation.now()))
+                        .add(task);
+                }
+            }
+        }
+
+        BatchAccumulator merge(BatchAccumulator other) {
+            for (int i = 0; i < matches.size(); i++) {
+                matches.get(i).addAll(other.matches.get(i));
+            }
+            for (int i = 0; i < groups.size(); i++) {
+                Map<List<Object>, Accumulator> mine = groups.get(i);
+                other.groups.get(i).forEach((key, accumulator) -> mine.merge(key, accumulator, Accumulator::merge));
+            }
+            return this;
+        }
+
+        QueryBatch.Result toResult() {
+            Map<String, List<Task>> tasks = new LinkedHashMap<>();
+            int i = 0;
+            for (String name : batch.getFilters().keySet()) {
+                tasks.put(name, Collections.unmodifiableList(matches.get(i++)));
+            }
+            Map<String, List<TaskAggregation.Group>> aggregates = new LinkedHashMap<>();
+            i = 0;
+            for (String name : batch.getAggregations().keySet()) {
+                aggregates.put(name, toGroups(groups.get(i++)));
+            }
+            return new QueryBatch.Result(batch.getNow(), tasks, aggregates);
+        }
+    }
+
+    /**
+     * Running aggregates of one group within one split of the stream.
+     */
+    private static final class Accumulator {
+        private final LocalDateTime now;
+        private long count;
+        private long done;
+        private long overdue;
+        private LocalDateTime minDue;
+        private LocalDateTime maxDue;
+
+        Accumulator(LocalDateTime now) {
+            this.now = now;
+        }
+
+        void add(Task task) {
+            count++;
+            if (task.getStatus() == Status.DONE) {
+                done++;
+            }
+            if (task.isOverdue(now)) {
+                overdue++;
+            }
+            LocalDateTime due = task.getDueDate();
+            if (due != null) {
+                if (minDue == null || due.isBefore(minDue)) {
+                    minDue = due;
+                }
+                if (maxDue == null || due.isAfter(maxDue)) {
+                    maxDue = due;
+                }
+            }
+        }
+
+        Accumulator merge(Accumulator other) {
+            count += other.count;
+            done += other.done;
+            overdue += other.overdue;
+            if (other.minDue != null && (minDue == null || other.minDue.isBefore(minDue))) {
+                minDue = other.minDue;
+            }
+            if (other.maxDue != null && (maxDue == null || other.maxDue.isAfter(maxDue))) {
+                maxDue = other.maxDue;
+            }
+            return this;
+        }
+
+        TaskAggregation.Group toGroup(List<Object> key) {
+            return new TaskAggregation.Group(key, count, done, overdue, minDue, maxDue);
+        }
+    }
+}
@@ -4,11 +4,19 @@ import com.taskmanager.domain.Priority;
 import com.taskmanager.domain.Status;
 import com.taskmanager.domain.Task;
 import com.taskmanager.domain.exception.TaskNotFoundException;
+import com.taskmanager.repository.TaskCounts;
+import com.taskmanager.repository.TaskQuery;
 import com.taskmanager.repository.TaskRepository;
-import com.taskmanager.repository.impl.JsonTaskRepository;
+import com.taskmanager.repository.impl.RepositoryFactory;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Service layer for task management operations.
@@ -19,7 +27,7 @@ public class TaskService {
     private final TaskRepository taskRepository;
 
     public TaskService() {
-        this.taskRepository = JsonTaskRepository.getInstance();
+        this.taskRepository = RepositoryFactory.getTaskRepository();
     }
 
     /**
@@ -55,7 +63,8 @@ public class TaskService {
 
     /**
      * Update task status.
-     * Validates state transition before updating.
+     * The transition is validated against the task's current status, at the
+     * moment the change is stored.
      * 
      * @param taskId task ID
      * @param newStatus new status
@@ -63,11 +72,7 @@ public class TaskService {
      * @throws TaskNotFoundException if task not found
      */
     public Task updateTaskStatus(String taskId, Status newStatus) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new TaskNotFoundException(taskId));
-        
-        Task updatedTask = task.withStatus(newStatus);
-        return taskRepository.save(updatedTask);
+        return update(taskId, task -> task.withStatus(newStatus));
     }
 
     /**
@@ -78,55 +83,106 @@ public class TaskService {
      * @return updated task
      */
     public Task updateTaskPriority(String taskId, Priority newPriority) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new TaskNotFoundException(taskId));
-        
-        Task updatedTask = task.withPriority(newPriority);
-        return taskRepository.save(updatedTask);
+        return update(taskId, task -> task.withPriority(newPriority));
     }
 
     /**
      * Update task title.
      */
     public Task updateTaskTitle(String taskId, String newTitle) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new TaskNotFoundException(taskId));
-        
-        Task updatedTask = task.withTitle(newTitle);
-        return taskRepository.save(updatedTask);
+        return update(taskId, task -> task.withTitle(newTitle));
     }
 
     /**
      * Update task description.
      */
     public Task updateTaskDescription(String taskId, String newDescription) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new TaskNotFoundException(taskId));
-        
-        Task updatedTask = task.withDescription(newDescription);
-        return taskRepository.save(updatedTask);
+        return update(taskId, task -> task.withDescription(newDescription));
     }
 
     /**
      * Update task due date.
      */
     public Task updateTaskDueDate(String taskId, LocalDateTime newDueDate) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new TaskNotFoundException(taskId));
-        
-        Task updatedTask = task.withDueDate(newDueDate);
-        return taskRepository.save(updatedTask);
+        return update(taskId, task -> task.withDueDate(newDueDate));
     }
 
     /**
      * Update task category.
      */
     public Task updateTaskCategory(String taskId, String categoryId) {
-        Task task = taskRepository.findById(taskId)
+        return update(taskId, task -> task.withCategory(categoryId));
+    }
+
+    /**
+     * Apply a change to one task atomically, retrying it if the task is changed
+     * concurrently, so no update is lost.
+     *
+     * @throws TaskNotFoundException if task not found
+     */
+    private Task update(String taskId, UnaryOperator<Task> change) {
+        return taskRepository.update(taskId, change)
             .orElseThrow(() -> new TaskNotFoundException(taskId));
-        
-        Task updatedTask = task.withCategory(categoryId);
-        return taskRepository.save(updatedTask);
+    }
+
+    /**
+     * Apply a change to every task matching a filter and save the results as one batch.
+     * All changes are computed before anything is written, so the batch is persisted
+     * with a single version-checked repository write. A task saved concurrently since
+     * it was read is not overwritten: the change is applied again to its current
+     * version through the optimistic single-task update, if it still matches.
+     * Tasks whose change would make an invalid status transition are left untouched
+     * and reported as rejected.
+     *
+     * @param filter selects the tasks to change
+     * @param change produces the updated task; returning the same instance means no change
+     * @return updated and rejected tasks
+     */
+    public BulkUpdateResult bulkUpdate(SearchService.TaskFilter filter, UnaryOperator<Task> change) {
+        TaskQuery query = filter.toQuery(LocalDateTime.now());
+        List<Task> changed = new ArrayList<>();
+        List<RejectedUpdate> rejected = new ArrayList<>();
+        for (Task task : taskRepository.findMatching(query)) {
+            BulkChange outcome = BulkChange.of(task, change);
+            if (outcome.rejection() != null) {
+                rejected.add(outcome.rejection());
+            } else if (outcome.result() != null) {
+                changed.add(outcome.result());
+            }
+        }
+        if (changed.isEmpty()) {
+            return new BulkUpdateResult(List.of(), List.copyOf(rejected));
+        }
+
+        List<Task> updated = new ArrayList<>(taskRepository.saveAllIfUnchanged(changed));
+        Set<String> saved = new HashSet<>();
+        updated.forEach(task -> saved.add(task.getId()));
+        Predicate<Task> matches = query.asPredicate();
+        for (Task task : changed) {
+            if (saved.contains(task.getId())) {
+                continue;
+            }
+            BulkChange[] retried = new BulkChange[1];
+            Optional<Task> stored = taskRepository.update(task.getId(), current -> {
+                retried[0] = matches.test(current) ? BulkChange.of(current, change) : BulkChange.NONE;
+                return retried[0].result() == null ? current : retried[0].result();
+            });
+            if (retried[0] != null && retried[0].rejection() != null) {
+                rejected.add(retried[0].rejection());
+            } else if (retried[0] != null && retried[0].result() != null && stored.isPresent()) {
+                updated.add(stored.get());
+            }
+        }
+        return new BulkUpdateResult(List.copyOf(updated), List.copyOf(rejected));
+    }
+
+    /**
+     * Delete several tasks with a single repository write.
+     *
+     * @return number of tasks deleted
+     */
+    public int deleteTasks(List<String> taskIds) {
+        return taskRepository.deleteAllById(taskIds);
     }
 
     /**
@@ -159,18 +215,17 @@ public class TaskService {
     }
 
     /**
-     * Get task statistics.
+     * Get task statistics, read from the repository's live counters.
      */
     public TaskStatistics getStatistics() {
-        List<Task> allTasks = taskRepository.findAll();
-        
-        long total = allTasks.size();
-        long todo = allTasks.stream().filter(t -> t.getStatus() == Status.TODO).count();
-        long inProgress = allTasks.stream().filter(t -> t.getStatus() == Status.IN_PROGRESS).count();
-        long done = allTasks.stream().filter(t -> t.getStatus() == Status.DONE).count();
-        long overdue = allTasks.stream().filter(Task::isOverdue).count();
-        
-        return new TaskStatistics(total, todo, inProgress, done, overdue);
+        TaskCounts counts = taskRepository.countTasks(LocalDateTime.now());
+        return new TaskStatistics(
+            counts.total(),
+            counts.withStatus(Status.TODO),
+            counts.withStatus(Status.IN_PROGRESS),
+            counts.withStatus(Status.DONE),
+            counts.overdue()
+        );
     }
 
     /**
@@ -184,5 +239,50 @@ public class TaskService {
         long done,
         long overdue
     ) {}
-}
 
+    /**
+     * Outcome of a bulk update.
+     *
+     * @param updated  tasks as saved after the change
+     * @param rejected tasks left unchanged because their change failed validation
+     */
+    public record BulkUpdateResult(
+        List<Task> updated,
+        List<RejectedUpdate> rejected
+    ) {}
+
+    /**
+     * A task excluded from a bulk update, with the reason.
+     */
+    public record RejectedUpdate(
+        Task task,
+        String reason
+    ) {}
+
+    /**
+     * A bulk change applied to one task: the changed task, a rejection, or neither if nothing changed.
+     */
+    private record BulkChange(Task result, RejectedUpdate rejection) {
+        static final BulkChange NONE = new BulkChange(null, null);
+
+        static BulkChange of(Task task, UnaryOperator<Task> change) {
+            Task result;
+            try {
+                result = change.apply(task);
+            } catch (IllegalStateException e) {
+                return new BulkChange(null, new RejectedUpdate(task, e.getMessage()));
+            }
+            if (result == null || result == task) {
+                return NONE;
+            }
+            if (!result.getId().equals(task.getId())) {
+                throw new IllegalArgumentException("Bulk update must not change task IDs: " + task.getId());
+            }
+            if (result.getStatus() != task.getStatus() && !task.getStatus().canTransitionTo(result.getStatus())) {
+                return new BulkChange(null, new RejectedUpdate(task,
+                    String.format("Cannot transition from %s to %s", task.getStatus(), result.getStatus())));
+            }
+            return new BulkChange(result, null);
+        }
+    }
+}
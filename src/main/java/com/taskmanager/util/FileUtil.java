@@ -0,0 +1,109 @@
+package com.taskmanager.util;
+
+import com.taskmanager.domain.exception.DataPersistenceException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class for crash-safe file replacement.
+ * A file is never written in place: content goes to a sibling temp file which is
+ * then renamed over the target, so readers and a restart after a crash see either
+ * the old or the new content, never a torn mix.
+ */
+public final class FileUtil {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private FileUtil() {
+        // Prevent instantiation
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Writes content onto an output stream.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Replace a file atomically with the given content.
+     * With {@code force}, the temp file is synced before the rename and the directory
+     * after it, so the new content also survives power loss once this returns.
+     *
+     * @param path the file to replace
+     * @param force whether to fsync before returning
+     * @param content writes the new content; the stream is closed afterwards
+     */
+    public static void writeAtomically(Path path, boolean force, ContentWriter content) {
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile), WRITE_BUFFER_SIZE)) {
+                content.write(out);
+            }
+            if (force) {
+                force(tempFile);
+            }
+            try {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (force) {
+                forceDirectory(path.toAbsolutePath().getParent());
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            if (e instanceof DataPersistenceException persistenceException) {
+                throw persistenceException;
+            }
+            throw new DataPersistenceException("Failed to write to file: " + path, e);
+        }
+    }
+
+    /**
+     * Flush a file's content and metadata to the storage device.
+     *
+     * @param path the file to sync; ignored if it does not exist
+     */
+    public static void force(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Flush a directory entry list, making renames and creations in it durable.
+     * Platforms that cannot open directories (Windows) are skipped.
+     *
+     * @param directory the directory to sync
+     */
+    public static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory sync is not supported here; the rename is still atomic
+        }
+    }
+}
@@ -2,24 +2,47 @@ package com.taskmanager.util;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.taskmanager.domain.Category;
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
 import com.taskmanager.domain.exception.DataPersistenceException;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
 
 /**
  * Utility class for JSON serialization and deserialization.
  * Demonstrates utility class pattern and proper resource handling.
+ * Files are pretty-printed unless {@code -Dtaskmanager.json.pretty=false} is set,
+ * which production deployments should use for smaller, faster writes.
  */
 public final class JsonUtil {
-    private static final Gson GSON = createGson();
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final boolean PRETTY_PRINT =
+        Boolean.parseBoolean(System.getProperty("taskmanager.json.pretty", "true"));
+    private static final Gson COMPACT_GSON = createGson();
+    private static final Gson GSON = PRETTY_PRINT
+        ? COMPACT_GSON.newBuilder().setPrettyPrinting().create()
+        : COMPACT_GSON;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
     private JsonUtil() {
         // Prevent instantiation
@@ -27,17 +50,16 @@ public final class JsonUtil {
     }
 
     /**
-     * Create configured Gson instance with custom type adapters.
+     * Create configured Gson instance with the streaming domain adapters.
      */
     private static Gson createGson() {
         return new GsonBuilder()
-            .setPrettyPrinting()
-            .registerTypeAdapter(LocalDateTime.class, 
-                (JsonSerializer<LocalDateTime>) (src, typeOfSrc, context) -> 
-                    new JsonPrimitive(src.format(DATE_FORMATTER)))
-            .registerTypeAdapter(LocalDateTime.class,
-                (JsonDeserializer<LocalDateTime>) (json, typeOfT, context) ->
-                    LocalDateTime.parse(json.getAsString(), DATE_FORMATTER))
+            .disableHtmlEscaping()
+            .registerTypeAdapter(LocalDateTime.class, new TaskCodecs.LocalDateTimeAdapter().nullSafe())
+            .registerTypeAdapter(Priority.class, new TaskCodecs.PriorityAdapter())
+            .registerTypeAdapter(Status.class, new TaskCodecs.StatusAdapter())
+            .registerTypeAdapter(Task.class, new TaskCodecs.TaskAdapter())
+            .registerTypeAdapter(Category.class, new TaskCodecs.CategoryAdapter())
             .create();
     }
 
@@ -51,6 +73,27 @@ public final class JsonUtil {
         return GSON.toJson(object);
     }
 
+    /**
+     * Convert object to single-line JSON string.
+     * Used for append-only records where one line holds one entry.
+     * 
+     * @param object the object to serialize
+     * @return compact JSON string
+     */
+    public static String toCompactJson(Object object) {
+        return COMPACT_GSON.toJson(object);
+    }
+
+    /**
+     * Convert object to a JSON tree using the configured adapters.
+     * 
+     * @param object the object to convert
+     * @return JSON tree
+     */
+    public static JsonElement toJsonTree(Object object) {
+        return COMPACT_GSON.toJsonTree(object);
+    }
+
     /**
      * Convert JSON string to object.
      * 
@@ -63,22 +106,99 @@ public final class JsonUtil {
     }
 
     /**
-     * Write object to JSON file.
+     * Convert JSON string to object of a generic type.
+     * 
+     * @param json the JSON string
+     * @param type the target type, e.g. from a {@code TypeToken}
+     * @return deserialized object
+     */
+    public static <T> T fromJson(String json, Type type) {
+        return GSON.fromJson(json, type);
+    }
+
+    /**
+     * Convert JSON tree to object.
+     * 
+     * @param json the JSON tree
+     * @param clazz the target class
+     * @return deserialized object
+     */
+    public static <T> T fromJson(JsonElement json, Class<T> clazz) {
+        return GSON.fromJson(json, clazz);
+    }
+
+    /**
+     * Write object to JSON file, replacing it atomically.
+     * The content is OS-buffered; see {@link #writeToFile(Object, Path, boolean)} to sync it.
      * 
      * @param object the object to write
      * @param path the file path
      */
     public static void writeToFile(Object object, Path path) {
+        writeToFile(object, path, false);
+    }
+
+    /**
+     * Write object to JSON file through a temp file and an atomic rename,
+     * so a crash mid-write leaves the previous content intact.
+     * 
+     * @param object the object to write
+     * @param path the file path
+     * @param force whether to fsync the file before returning
+     */
+    public static void writeToFile(Object object, Path path, boolean force) {
+        FileUtil.writeAtomically(path, force, out -> writeTo(object, out));
+    }
+
+    /**
+     * Write object as JSON onto a stream. The stream is flushed but not closed.
+     * 
+     * @param object the object to write
+     * @param out the target stream
+     */
+    public static void writeTo(Object object, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
         try {
-            // Ensure parent directory exists
-            if (path.getParent() != null) {
-                Files.createDirectories(path.getParent());
+            GSON.toJson(object, writer);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Stream the elements of a top-level JSON array from a file, one at a time.
+     * Only the element being parsed is held in memory, so peak heap stays close
+     * to whatever the consumer keeps rather than a multiple of the file size.
+     * 
+     * @param path the file path
+     * @param clazz the element class
+     * @param consumer receives each element in file order
+     * @return number of elements read, or 0 if the file doesn't exist or is empty
+     */
+    public static <T> long readArrayFromFile(Path path, Class<T> clazz, Consumer<? super T> consumer) {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             JsonReader reader = new JsonReader(new BufferedReader(
+                 Channels.newReader(channel, StandardCharsets.UTF_8), READ_BUFFER_SIZE))) {
+            if (channel.size() == 0) {
+                return 0;
             }
-            
-            String json = toJson(object);
-            Files.writeString(path, json);
-        } catch (IOException e) {
-            throw new DataPersistenceException("Failed to write to file: " + path, e);
+            long count = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                T element = GSON.fromJson(reader, clazz);
+                if (element != null) {
+                    consumer.accept(element);
+                    count++;
+                }
+            }
+            reader.endArray();
+            return count;
+        } catch (IOException | JsonParseException e) {
+            throw new DataPersistenceException("Failed to read from file: " + path, e);
         }
     }
 
@@ -0,0 +1,46 @@
+package com.taskmanager.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Utility class for ordering collections.
+ */
+public final class SortUtil {
+
+    private SortUtil() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Select the k smallest items accepted by a filter with a max-heap of size k,
+     * in O(n log k) instead of sorting all n items.
+     *
+     * @param items the items to select from
+     * @param order the order to select in
+     * @param filter which items may be selected
+     * @param k maximum number of items to select
+     * @return the selected items in ascending order
+     */
+    public static <T> List<T> smallest(Iterable<T> items, Comparator<? super T> order,
+                                       Predicate<? super T> filter, int k) {
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.min(k, 1_024) + 1, order.reversed());
+        for (T item : items) {
+            if (!filter.test(item)) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+}
@@ -0,0 +1,351 @@
+package com.taskmanager.util;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.taskmanager.domain.Category;
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hand-written streaming Gson adapters for the domain model.
+ * They replace Gson's reflective adapters so (de)serialization needs no field
+ * reflection, writes enums as short numeric codes and formats timestamps
+ * without going through a DateTimeFormatter on the common path.
+ *
+ * <p>Readers stay lenient about older files: enums may also be given by name
+ * (anything {@code fromString} accepts) and timestamps in any ISO local format.
+ */
+final class TaskCodecs {
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final Status[] STATUSES = Status.values();
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private TaskCodecs() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Priority as its level (1 = LOW .. 4 = CRITICAL).
+     */
+    static final class PriorityAdapter extends TypeAdapter<Priority> {
+        @Override
+        public void write(JsonWriter out, Priority value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(value.getLevel());
+            }
+        }
+
+        @Override
+        public Priority read(JsonReader in) throws IOException {
+            return switch (in.peek()) {
+                case NULL -> {
+                    in.nextNull();
+                    yield null;
+                }
+                case NUMBER -> switch (in.nextInt()) {
+                    case 1 -> Priority.LOW;
+                    case 2 -> Priority.MEDIUM;
+                    case 3 -> Priority.HIGH;
+                    case 4 -> Priority.CRITICAL;
+                    default -> throw new JsonParseException("Invalid priority code at " + in.getPath());
+                };
+                default -> Priority.fromString(in.nextString());
+            };
+        }
+    }
+
+    /**
+     * Status as its position in the lifecycle (1 = TODO .. 4 = CANCELLED).
+     */
+    static final class StatusAdapter extends TypeAdapter<Status> {
+        @Override
+        public void write(JsonWriter out, Status value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(value.ordinal() + 1);
+            }
+        }
+
+        @Override
+        public Status read(JsonReader in) throws IOException {
+            return switch (in.peek()) {
+                case NULL -> {
+                    in.nextNull();
+                    yield null;
+                }
+                case NUMBER -> {
+                    int code = in.nextInt();
+                    if (code < 1 || code > STATUSES.length) {
+                        throw new JsonParseException("Invalid status code at " + in.getPath());
+                    }
+                    yield STATUSES[code - 1];
+                }
+                default -> Status.fromString(in.nextString());
+            };
+        }
+    }
+
+    /**
+     * ISO-8601 local date-time, formatted and parsed by hand for four-digit years.
+     */
+    static final class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
+        @Override
+        public void write(JsonWriter out, LocalDateTime value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.value(formatTimestamp(value));
+            }
+        }
+
+        @Override
+        public LocalDateTime read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return parseTimestamp(in.nextString());
+        }
+    }
+
+    /**
+     * Task fields in declaration order; null fields and a version of 0 are omitted,
+     * so files written before versions existed read back as version 0.
+     */
+    static final class TaskAdapter extends TypeAdapter<Task> {
+        private final PriorityAdapter priorityAdapter = new PriorityAdapter();
+        private final StatusAdapter statusAdapter = new StatusAdapter();
+        private final LocalDateTimeAdapter dateAdapter = new LocalDateTimeAdapter();
+
+        @Override
+        public void write(JsonWriter out, Task task) throws IOException {
+            if (task == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(task.getId());
+            out.name("title").value(task.getTitle());
+            if (task.getDescription() != null) {
+                out.name("description").value(task.getDescription());
+            }
+            out.name("priority");
+            priorityAdapter.write(out, task.getPriority());
+            out.name("status");
+            statusAdapter.write(out, task.getStatus());
+            if (task.getCategoryId() != null) {
+                out.name("categoryId").value(task.getCategoryId());
+            }
+            writeTimestamp(out, "dueDate", task.getDueDate());
+            writeTimestamp(out, "createdAt", task.getCreatedAt());
+            writeTimestamp(out, "updatedAt", task.getUpdatedAt());
+            if (task.getVersion() != 0) {
+                out.name("version").value(task.getVersion());
+            }
+            out.endObject();
+        }
+
+        private static void writeTimestamp(JsonWriter out, String name, LocalDateTime value) throws IOException {
+            if (value != null) {
+                out.name(name).value(formatTimestamp(value));
+            }
+        }
+
+        @Override
+        public Task read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Task.Builder builder = new Task.Builder();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id" -> builder.id(in.nextString());
+                    case "title" -> builder.title(in.nextString());
+                    case "description" -> builder.description(in.nextString());
+                    case "priority" -> builder.priority(priorityAdapter.read(in));
+                    case "status" -> builder.status(statusAdapter.read(in));
+                    case "categoryId" -> builder.categoryId(in.nextString());
+                    case "dueDate" -> builder.dueDate(dateAdapter.read(in));
+                    case "createdAt" -> builder.createdAt(dateAdapter.read(in));
+                    case "updatedAt" -> builder.updatedAt(dateAdapter.read(in));
+                    case "version" -> builder.version(in.nextLong());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            try {
+                return builder.build();
+            } catch (RuntimeException e) {
+                throw new JsonParseException("Invalid task at " + in.getPath() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Category record components; the compact constructor applies defaults.
+     */
+    static final class CategoryAdapter extends TypeAdapter<Category> {
+        @Override
+        public void write(JsonWriter out, Category category) throws IOException {
+            if (category == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(category.id());
+            out.name("name").value(category.name());
+            out.name("description").value(category.description());
+            out.name("color").value(category.color());
+            out.endObject();
+        }
+
+        @Override
+        public Category read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String id = null;
+            String name = null;
+            String description = null;
+            String color = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String field = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (field) {
+                    case "id" -> id = in.nextString();
+                    case "name" -> name = in.nextString();
+                    case "description" -> description = in.nextString();
+                    case "color" -> color = in.nextString();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            try {
+                return new Category(id, name, description, color);
+            } catch (RuntimeException e) {
+                throw new JsonParseException("Invalid category at " + in.getPath() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Format as ISO_LOCAL_DATE_TIME would: seconds always, fraction without trailing zeros.
+     */
+    static String formatTimestamp(LocalDateTime value) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return value.format(ISO_FORMATTER);
+        }
+        char[] buffer = new char[29];
+        appendDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        appendDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        appendDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        appendDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        appendDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        appendDigits(buffer, 17, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano == 0) {
+            return new String(buffer, 0, 19);
+        }
+        buffer[19] = '.';
+        appendDigits(buffer, 20, nano, 9);
+        int length = 29;
+        while (buffer[length - 1] == '0') {
+            length--;
+        }
+        return new String(buffer, 0, length);
+    }
+
+    private static void appendDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Parse {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]} directly, falling back to the
+     * ISO formatter for anything else so unusual but valid input still works.
+     */
+    static LocalDateTime parseTimestamp(String text) {
+        int length = text.length();
+        if (length >= 16 && length <= 29
+                && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && text.charAt(10) == 'T' && text.charAt(13) == ':') {
+            int year = parseDigits(text, 0, 4);
+            int month = parseDigits(text, 5, 7);
+            int day = parseDigits(text, 8, 10);
+            int hour = parseDigits(text, 11, 13);
+            int minute = parseDigits(text, 14, 16);
+            int second = 0;
+            int nano = 0;
+            boolean valid = true;
+            if (length > 16) {
+                valid = length >= 19 && text.charAt(16) == ':';
+                second = valid ? parseDigits(text, 17, 19) : -1;
+                if (valid && length > 19) {
+                    valid = length > 20 && text.charAt(19) == '.';
+                    int fraction = valid ? parseDigits(text, 20, length) : -1;
+                    nano = fraction < 0 ? -1 : fraction * POWERS_OF_TEN[29 - length];
+                }
+            }
+            if (valid && year >= 0 && month >= 0 && day >= 0 && hour >= 0
+                    && minute >= 0 && second >= 0 && nano >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                } catch (DateTimeException e) {
+                    throw new JsonParseException("Invalid timestamp: " + text, e);
+                }
+            }
+        }
+        try {
+            return LocalDateTime.parse(text, ISO_FORMATTER);
+        } catch (DateTimeException e) {
+            throw new JsonParseException("Invalid timestamp: " + text, e);
+        }
+    }
+
+    /**
+     * @return the decimal value of text[start, end), or -1 if it contains a non-digit
+     */
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
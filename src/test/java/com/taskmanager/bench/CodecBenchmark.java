@@ -0,0 +1,99 @@
+package com.taskmanager.bench;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.google.gson.reflect.TypeToken;
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.util.JsonUtil;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Serialize/deserialize throughput of the hand-written codecs against the
+ * reflective Gson setup they replaced. Not a unit test; run it directly:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes:&lt;gson.jar&gt; com.taskmanager.bench.CodecBenchmark [tasks]
+ * </pre>
+ *
+ * Add {@code -Dtaskmanager.json.pretty=false} to measure the compact production output.
+ */
+public final class CodecBenchmark {
+    private static final Type TASK_LIST = new TypeToken<List<Task>>(){}.getType();
+    private static final int ROUNDS = 5;
+
+    private CodecBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Task> tasks = sampleTasks(count);
+        Gson reflective = reflectiveGson();
+
+        String reflectiveJson = reflective.toJson(tasks);
+        String codecJson = JsonUtil.toJson(tasks);
+        System.out.printf("%,d tasks: reflective %,d bytes, codec %,d bytes%n",
+            count, reflectiveJson.length(), codecJson.length());
+
+        report("serialize   reflective", count, () -> reflective.toJson(tasks));
+        report("serialize   codec     ", count, () -> JsonUtil.toJson(tasks));
+        report("deserialize reflective", count, () -> reflective.fromJson(reflectiveJson, TASK_LIST));
+        report("deserialize codec     ", count, () -> JsonUtil.fromJson(codecJson, TASK_LIST));
+    }
+
+    /**
+     * The configuration JsonUtil used before the codecs: reflective field
+     * access plus DateTimeFormatter-based timestamp lambdas.
+     */
+    private static Gson reflectiveGson() {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        return new GsonBuilder()
+            .setPrettyPrinting()
+            .registerTypeAdapter(LocalDateTime.class,
+                (JsonSerializer<LocalDateTime>) (src, typeOfSrc, context) -> new JsonPrimitive(src.format(formatter)))
+            .registerTypeAdapter(LocalDateTime.class,
+                (JsonDeserializer<LocalDateTime>) (json, typeOfT, context) ->
+                    LocalDateTime.parse(json.getAsString(), formatter))
+            .create();
+    }
+
+    private static List<Task> sampleTasks(int count) {
+        Priority[] priorities = Priority.values();
+        Status[] statuses = Status.values();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task.Builder()
+                .title("Task number " + i)
+                .description("Description for task " + i + " with a few more words")
+                .priority(priorities[i % priorities.length])
+                .status(statuses[i % statuses.length])
+                .categoryId("category-" + (i % 20))
+                .dueDate(i % 3 == 0 ? null : base.plusMinutes(i * 37L))
+                .build());
+        }
+        return tasks;
+    }
+
+    private static void report(String label, int count, Supplier<Object> operation) {
+        operation.get();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            operation.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s %8.1f ms  %,12.0f tasks/s%n", label, best / 1e6, count / (best / 1e9));
+    }
+}
@@ -0,0 +1,73 @@
+package com.taskmanager.bench;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.impl.RepositoryFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Save throughput of each sync policy in snapshot and journal persistence.
+ * Not a unit test; run it directly on the disk you want to measure:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes:&lt;gson.jar&gt; com.taskmanager.bench.SyncPolicyBenchmark [saves] [dir]
+ * </pre>
+ *
+ * Each save is a single-task write acknowledged by the repository; with {@code always}
+ * that includes the fsync, so the numbers show what durability costs on this device.
+ */
+public final class SyncPolicyBenchmark {
+
+    private SyncPolicyBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int saves = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        Path root = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("sync-bench");
+
+        for (StorageConfig.PersistenceMode mode :
+                new StorageConfig.PersistenceMode[] {StorageConfig.PersistenceMode.SNAPSHOT, StorageConfig.PersistenceMode.JOURNAL}) {
+            for (StorageConfig.SyncPolicy policy : StorageConfig.SyncPolicy.values()) {
+                Path dataDir = Files.createDirectories(root.resolve(mode.name().toLowerCase() + "-" + policy.name().toLowerCase()));
+                StorageConfig config = new StorageConfig.Builder()
+                    .dataDirectory(dataDir)
+                    .persistenceMode(mode)
+                    .syncPolicy(policy)
+                    .build();
+                report(mode, policy, saves, config);
+                deleteRecursively(dataDir);
+            }
+        }
+    }
+
+    private static void report(StorageConfig.PersistenceMode mode, StorageConfig.SyncPolicy policy,
+                               int saves, StorageConfig config) {
+        long elapsed;
+        try (TaskRepository repository = RepositoryFactory.createTaskRepository(config)) {
+            repository.save(new Task.Builder().title("Warm-up").build());
+            long start = System.nanoTime();
+            for (int i = 0; i < saves; i++) {
+                repository.save(new Task.Builder().title("Task number " + i).build());
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        System.out.printf("%-8s %-8s %8.1f ms  %,10.0f saves/s  %8.3f ms/save%n",
+            mode.name().toLowerCase(), policy.name().toLowerCase(),
+            elapsed / 1e6, saves / (elapsed / 1e9), elapsed / 1e6 / saves);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
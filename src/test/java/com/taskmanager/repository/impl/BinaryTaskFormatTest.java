@@ -0,0 +1,154 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary snapshot format and converter.
+ */
+class BinaryTaskFormatTest {
+
+    @TempDir
+    Path dataDir;
+
+    private final LocalDateTime due = LocalDateTime.of(2025, 11, 3, 17, 45, 12, 123_456_789);
+
+    private List<Task> sampleTasks() {
+        return List.of(
+            new Task.Builder().title("Write report").description("Quarterly numbers – ünïcode")
+                .priority(Priority.CRITICAL).status(Status.IN_PROGRESS)
+                .categoryId("work").dueDate(due).version(5).build(),
+            new Task.Builder().title("Buy milk").categoryId("shopping").build(),
+            new Task.Builder().title("Call mom").categoryId("work").build(),
+            new Task.Builder().title("No category").build()
+        );
+    }
+
+    @Test
+    @DisplayName("Should round-trip every field through the binary format")
+    void shouldRoundTripAllFields() {
+        List<Task> tasks = sampleTasks();
+        Path file = dataDir.resolve("tasks.bin");
+        BinaryTaskFormat format = new BinaryTaskFormat();
+        format.write(tasks, file);
+
+        Map<String, Task> read = new HashMap<>();
+        format.read(file, read);
+
+        assertEquals(tasks.size(), read.size());
+        for (Task expected : tasks) {
+            Task actual = read.get(expected.getId());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getPriority(), actual.getPriority());
+            assertEquals(expected.getStatus(), actual.getStatus());
+            assertEquals(expected.getCategoryId(), actual.getCategoryId());
+            assertEquals(expected.getDueDate(), actual.getDueDate());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+            assertEquals(expected.getVersion(), actual.getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read version 1 snapshots with every task at version 0")
+    void shouldReadVersionOneSnapshots() throws Exception {
+        Path file = dataDir.resolve("tasks.bin");
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(record);
+        for (String value : List.of("t-1", "Legacy", "")) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+        data.writeByte(Priority.HIGH.ordinal());
+        data.writeByte(Status.TODO.ordinal());
+        data.writeInt(-1);
+        data.writeLong(Long.MIN_VALUE);
+        data.writeInt(0);
+        for (int i = 0; i < 2; i++) {
+            data.writeLong(due.toEpochSecond(ZoneOffset.UTC));
+            data.writeInt(0);
+        }
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(BinaryTaskFormat.MAGIC);
+            out.writeInt(1);
+            out.writeInt(0);
+            out.writeInt(1);
+            out.writeInt(record.size());
+            record.writeTo(out);
+        }
+
+        Map<String, Task> read = new HashMap<>();
+        new BinaryTaskFormat().read(file, read);
+
+        assertEquals("Legacy", read.get("t-1").getTitle());
+        assertEquals(Priority.HIGH, read.get("t-1").getPriority());
+        assertEquals(0, read.get("t-1").getVersion());
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not task snapshots")
+    void shouldRejectForeignFiles() throws Exception {
+        Path file = dataDir.resolve("tasks.bin");
+        Files.writeString(file, "[{\"id\":\"1\"}]");
+
+        assertThrows(DataPersistenceException.class, () -> new BinaryTaskFormat().read(file, new HashMap<>()));
+    }
+
+    @Test
+    @DisplayName("Should report corrupted bytes as a persistence failure")
+    void shouldRejectCorruptedSnapshots() throws Exception {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        new BinaryTaskFormat().encode(sampleTasks(), encoded);
+        byte[] valid = encoded.toByteArray();
+        Path file = dataDir.resolve("tasks.bin");
+
+        for (int i = 0; i < valid.length; i++) {
+            for (int pattern : new int[] {0xFF, 0x80}) {
+                byte[] corrupted = valid.clone();
+                corrupted[i] ^= (byte) pattern;
+                Files.write(file, corrupted);
+                try {
+                    new BinaryTaskFormat().read(file, new HashMap<>());
+                } catch (DataPersistenceException e) {
+                    // Expected for most corruptions; anything else escapes and fails the test
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should convert JSON snapshot to binary and back")
+    void shouldConvertBetweenFormats() {
+        List<Task> tasks = sampleTasks();
+        Path json = dataDir.resolve("tasks.json");
+        new JsonTaskFormat().write(tasks, json);
+
+        assertEquals(4, TaskSnapshotConverter.convert(json, dataDir.resolve("tasks.bin")));
+        assertEquals(4, TaskSnapshotConverter.convert(dataDir.resolve("tasks.bin"), dataDir.resolve("copy.json")));
+
+        Map<String, Task> read = new HashMap<>();
+        new JsonTaskFormat().read(dataDir.resolve("copy.json"), read);
+        assertEquals(due, read.get(tasks.get(0).getId()).getDueDate());
+        assertEquals("shopping", read.get(tasks.get(1).getId()).getCategoryId());
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the attribute bitmap index.
+ */
+class BitmapIndexTest {
+    private static final String[] CATEGORIES = {"work", "home", "finance", null};
+
+    private final Random random = new Random(42);
+
+    private Task randomTask() {
+        return new Task.Builder()
+            .title("Task")
+            .priority(Priority.values()[random.nextInt(Priority.values().length)])
+            .status(Status.values()[random.nextInt(Status.values().length)])
+            .categoryId(CATEGORIES[random.nextInt(CATEGORIES.length)])
+            .build();
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).sorted().toList();
+    }
+
+    @Test
+    @DisplayName("Should match and count the same tasks as the query predicate across updates and deletes")
+    void shouldAgreeWithPredicate() {
+        TaskCache cache = new TaskCache();
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Task task = randomTask();
+            cache.put(task.getId(), task);
+            saved.add(task);
+        }
+        for (int i = 0; i < saved.size(); i += 3) {
+            Task changed = new Task.Builder(randomTask()).id(saved.get(i).getId()).build();
+            cache.put(changed.getId(), changed);
+        }
+        for (int i = 1; i < saved.size(); i += 4) {
+            cache.remove(saved.get(i).getId());
+        }
+        for (int i = 0; i < 1_000; i++) {
+            Task task = randomTask();
+            cache.put(task.getId(), task);
+        }
+
+        List<AttributeQuery> queries = List.of(
+            AttributeQuery.any(),
+            AttributeQuery.any().withStatuses(Status.TODO, Status.IN_PROGRESS),
+            AttributeQuery.any().withStatuses(Status.TODO, Status.IN_PROGRESS)
+                .withPriorityAtLeast(Priority.HIGH).inCategories("work", "finance"),
+            AttributeQuery.any().withPriorities(Priority.LOW).inCategories((String) null),
+            AttributeQuery.any().inCategories("missing"));
+        for (AttributeQuery query : queries) {
+            List<Task> expected = cache.values().stream().filter(query.asPredicate()).toList();
+            assertEquals(ids(expected), ids(cache.matchingAttributes(query)), query.toString());
+            assertEquals(expected.size(), cache.countMatchingAttributes(query), query.toString());
+        }
+        assertEquals(cache.size(), cache.countMatchingAttributes(AttributeQuery.any()));
+    }
+
+    @Test
+    @DisplayName("Should drop deleted tasks and give new tasks their slots")
+    void shouldReuseSlots() {
+        BitmapIndex index = new BitmapIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Task task = randomTask();
+            index.update(null, task);
+            tasks.add(task);
+        }
+        tasks.forEach(task -> index.update(task, null));
+        assertEquals(0, index.count(AttributeQuery.any()));
+
+        Task done = new Task.Builder().title("Done").status(Status.DONE).build();
+        index.update(null, done);
+        assertEquals(List.of(done), index.find(AttributeQuery.any().withStatuses(Status.DONE)));
+        assertEquals(1, index.count(AttributeQuery.any()));
+    }
+}
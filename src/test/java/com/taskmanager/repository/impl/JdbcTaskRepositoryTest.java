@@ -0,0 +1,267 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.QueryPlan;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.TaskOrder;
+import com.taskmanager.repository.TaskQuery;
+import com.taskmanager.repository.TextMatch;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JDBC repositories against an in-memory H2 database.
+ */
+class JdbcTaskRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private JdbcConnectionPool pool;
+    private JdbcTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        pool = JdbcConnectionPool.create("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        repository = new JdbcTaskRepository(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.dispose();
+    }
+
+    private Task task(String title, Priority priority, Status status, String categoryId, LocalDateTime dueDate) {
+        return new Task.Builder()
+            .title(title)
+            .description("Description of " + title)
+            .priority(priority)
+            .status(status)
+            .categoryId(categoryId)
+            .dueDate(dueDate)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should round-trip every task field")
+    void shouldRoundTripTask() {
+        Task task = task("Write report", Priority.CRITICAL, Status.IN_PROGRESS, "work",
+            LocalDateTime.of(2025, 6, 2, 9, 30, 15, 123_456_789));
+        repository.save(task);
+
+        Optional<Task> loaded = repository.findById(task.getId());
+        assertTrue(loaded.isPresent());
+        assertEquals(task.getTitle(), loaded.get().getTitle());
+        assertEquals(task.getDescription(), loaded.get().getDescription());
+        assertEquals(Priority.CRITICAL, loaded.get().getPriority());
+        assertEquals(Status.IN_PROGRESS, loaded.get().getStatus());
+        assertEquals("work", loaded.get().getCategoryId());
+        assertEquals(task.getDueDate(), loaded.get().getDueDate());
+        assertEquals(task.getCreatedAt(), loaded.get().getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should keep local date-times that fall in a daylight saving gap")
+    void shouldKeepDateTimesInDaylightSavingGap() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        try {
+            LocalDateTime inGap = LocalDateTime.of(2025, 3, 9, 2, 30);
+            Task task = repository.save(task("Night shift", Priority.LOW, Status.TODO, null, inGap));
+
+            assertEquals(inGap, repository.findById(task.getId()).orElseThrow().getDueDate());
+            assertEquals(1, repository.findMatching(TaskQuery.dueBetween(inGap, inGap)).size());
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    @DisplayName("Should update an existing task on save")
+    void shouldUpdateOnSave() {
+        Task task = task("Draft", Priority.LOW, Status.TODO, null, null);
+        repository.save(task);
+        Task saved = repository.save(task.withStatus(Status.IN_PROGRESS));
+        List<Task> batch = repository.saveAll(List.of(saved.withPriority(Priority.HIGH)));
+
+        assertEquals(1, repository.count());
+        Task stored = repository.findById(task.getId()).orElseThrow();
+        assertEquals(Status.IN_PROGRESS, stored.getStatus());
+        assertEquals(1, saved.getVersion());
+        assertEquals(2, stored.getVersion());
+        assertEquals(stored.getVersion(), batch.get(0).getVersion());
+    }
+
+    @Test
+    @DisplayName("Should evaluate every query criterion in SQL")
+    void shouldFilterByQuery() {
+        Task overdue = task("Pay invoice", Priority.HIGH, Status.TODO, "finance", NOW.minusDays(1));
+        Task done = task("Pay rent", Priority.HIGH, Status.DONE, "finance", NOW.minusDays(2));
+        Task later = task("Plan 100% trip", Priority.LOW, Status.TODO, "personal", NOW.plusDays(5));
+        repository.save(overdue);
+        repository.save(done);
+        repository.save(later);
+
+        assertEquals(List.of(done.getId()), ids(repository.findByStatus(Status.DONE)));
+        assertEquals(2, repository.findByPriority(Priority.HIGH).size());
+        assertEquals(2, repository.findByCategoryId("finance").size());
+        assertEquals(List.of(later.getId()),
+            ids(repository.findByDueDateBetween(NOW, NOW.plusDays(10))));
+        assertEquals(List.of(overdue.getId()),
+            ids(repository.findMatching(new TaskQuery(null, null, null, null, null, null, NOW, null))));
+        assertEquals(2, repository.findMatching(
+            new TaskQuery(null, Priority.HIGH, "finance", "PAY", null, null, null, null)).size());
+        assertEquals(List.of(later.getId()),
+            ids(repository.findMatching(new TaskQuery(null, null, null, "100%", null, null, null, null))));
+        assertEquals(3, repository.findMatching(TaskQuery.all()).size());
+    }
+
+    @Test
+    @DisplayName("Should delete single and all tasks")
+    void shouldDelete() {
+        Task first = task("One", Priority.MEDIUM, Status.TODO, null, null);
+        Task second = task("Two", Priority.MEDIUM, Status.TODO, null, null);
+        repository.save(first);
+        repository.save(second);
+
+        assertTrue(repository.deleteById(first.getId()));
+        assertFalse(repository.deleteById(first.getId()));
+        assertEquals(1, repository.count());
+        repository.deleteAll();
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Should seed default categories and find them by name ignoring case")
+    void shouldSeedDefaultCategories() {
+        JdbcCategoryRepository categories = new JdbcCategoryRepository(pool);
+
+        assertEquals(DefaultCategories.create().size(), categories.count());
+        String name = DefaultCategories.create().get(0).name();
+        assertTrue(categories.findByName(name.toUpperCase()).isPresent());
+        assertEquals(DefaultCategories.create().size(), new JdbcCategoryRepository(pool).count());
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Should apply word semantics to text search")
+    void shouldSearchByWords() {
+        Task report = repository.save(task("Sales report", Priority.LOW, Status.TODO, null, null));
+        Task reporting = repository.save(task("Reporting tool", Priority.LOW, Status.TODO, null, null));
+
+        assertEquals(List.of(report.getId()), repository.search("report", TextMatch.ALL_TERMS).stream()
+            .map(Task::getId).toList());
+        assertEquals(2, repository.search("report", TextMatch.SUBSTRING).size());
+        assertEquals(2, repository.search("sales OR tool", TextMatch.ANY_TERM).size());
+        assertEquals(List.of(reporting.getId()), repository.search("of reporting tool", TextMatch.PHRASE).stream()
+            .map(Task::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should explain a query with the database plan and actual rows")
+    void shouldExplainQuery() {
+        repository.save(task("Pay rent", Priority.HIGH, Status.TODO, "finance", null));
+        repository.save(task("Walk", Priority.LOW, Status.TODO, "health", null));
+
+        QueryPlan plan = repository.explain(new TaskQuery(null, null, "finance", null, null, null, null, null));
+
+        assertEquals(1, plan.actualRows());
+        assertTrue(plan.detail().toUpperCase().contains("IDX_TASKS_CATEGORY"), plan.detail());
+    }
+
+    @Test
+    @DisplayName("Should filter and count by sets of attribute values")
+    void shouldFilterByAttributes() {
+        Task urgent = repository.save(task("Fix outage", Priority.CRITICAL, Status.IN_PROGRESS, "work", null));
+        Task loose = repository.save(task("Call back", Priority.HIGH, Status.TODO, null, null));
+        repository.save(task("Tidy desk", Priority.LOW, Status.TODO, "work", null));
+        repository.save(task("Shipped", Priority.HIGH, Status.DONE, "work", null));
+
+        AttributeQuery open = AttributeQuery.any().withStatuses(Status.TODO, Status.IN_PROGRESS)
+            .withPriorityAtLeast(Priority.HIGH);
+        assertEquals(2, repository.countByAttributes(open));
+        assertEquals(List.of(urgent), repository.findByAttributes(open.inCategories("work", "home")));
+        assertEquals(List.of(loose), repository.findByAttributes(open.inCategories((String) null)));
+        assertEquals(4, repository.countByAttributes(AttributeQuery.any()));
+    }
+
+    @Test
+    @DisplayName("Should rank search results by relevance and return only the best")
+    void shouldRankSearchResults() {
+        Task inTitle = repository.save(task("Invoice", Priority.LOW, Status.TODO, null, null));
+        Task inDescription = repository.save(task("Accounts", Priority.LOW, Status.TODO, null, null)
+            .withDescription("Send the invoice"));
+        repository.save(task("Groceries", Priority.LOW, Status.TODO, null, null));
+
+        List<Task> ranked = repository.searchRanked("invoice", Ranking.defaults(NOW), 10);
+        assertEquals(List.of(inTitle, inDescription), ranked);
+        assertEquals(List.of(inTitle), repository.searchRanked("invoice", Ranking.defaults(NOW), 1));
+    }
+
+    @Test
+    @DisplayName("Should page through every order with a keyset cursor")
+    void shouldPageWithCursor() {
+        Priority[] priorities = Priority.values();
+        for (int i = 0; i < 30; i++) {
+            repository.save(task("Task " + (i % 7), priorities[i % priorities.length], Status.TODO, null,
+                i % 3 == 0 ? null : NOW.plusDays(i % 5)));
+        }
+
+        for (TaskOrder order : TaskOrder.values()) {
+            List<Task> expected = new ArrayList<>(repository.findAll());
+            expected.sort(order.getKeysetComparator());
+            List<Task> paged = new ArrayList<>();
+            Task cursor = null;
+            List<Task> page;
+            do {
+                page = repository.findSorted(order, cursor, 0, 4);
+                paged.addAll(page);
+                cursor = page.isEmpty() ? null : page.get(page.size() - 1);
+            } while (page.size() == 4);
+
+            assertEquals(ids(expected), ids(paged), order.name());
+            assertEquals(ids(expected.subList(6, 9)), ids(repository.findSorted(order, expected.get(3), 2, 3)),
+                order.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should update with optimistic versions and retry on conflict")
+    void shouldUpdateOptimistically() {
+        Task saved = repository.save(task("Draft", Priority.LOW, Status.TODO, null, null));
+        assertEquals(0, repository.findById(saved.getId()).orElseThrow().getVersion());
+
+        boolean[] interfered = new boolean[1];
+        int[] attempts = new int[1];
+        Task updated = repository.update(saved.getId(), task -> {
+            attempts[0]++;
+            if (!interfered[0]) {
+                interfered[0] = true;
+                repository.save(task.withTitle("Renamed elsewhere"));
+            }
+            return task.withPriority(Priority.HIGH);
+        }).orElseThrow();
+
+        assertEquals(2, attempts[0]);
+        assertEquals("Renamed elsewhere", updated.getTitle());
+        assertEquals(Priority.HIGH, updated.getPriority());
+        assertEquals(2, updated.getVersion());
+        assertEquals(updated.getVersion(), repository.findById(saved.getId()).orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,153 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the append-only journal store.
+ */
+class JournalTaskStoreTest {
+
+    @TempDir
+    Path dataDir;
+
+    private Task task(String title) {
+        return new Task.Builder().title(title).priority(Priority.HIGH).build();
+    }
+
+    @Test
+    @DisplayName("Should replay journal records on startup")
+    void shouldReplayJournalOnStartup() {
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        JournalTaskStore store = new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), cache::values, cache::get, 1_000);
+
+        Task first = task("First");
+        Task second = task("Second");
+        cache.put(first.getId(), first);
+        store.saved(first);
+        cache.put(second.getId(), second);
+        store.saved(second);
+        Task started = first.withStatus(Status.IN_PROGRESS);
+        cache.put(started.getId(), started);
+        store.saved(started);
+        cache.remove(second.getId());
+        store.deleted(second.getId());
+        store.close();
+
+        Map<String, Task> reloaded = new HashMap<>();
+        new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), reloaded::values, reloaded::get, 1_000).load(reloaded);
+
+        assertEquals(1, reloaded.size());
+        assertEquals(Status.IN_PROGRESS, reloaded.get(first.getId()).getStatus());
+        assertFalse(Files.exists(dataDir.resolve("tasks.json")));
+    }
+
+    @Test
+    @DisplayName("Should write a bulk mutation as one journal record")
+    void shouldWriteBatchAsOneRecord() throws Exception {
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        JournalTaskStore store = new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), cache::values, cache::get, 1_000);
+
+        List<Task> batch = List.of(task("First"), task("Second"), task("Third"));
+        batch.forEach(task -> cache.put(task.getId(), task));
+        store.savedAll(batch);
+        cache.remove(batch.get(1).getId());
+        store.deletedAll(List.of(batch.get(1).getId()));
+        store.close();
+
+        assertEquals(2, Files.readAllLines(dataDir.resolve("tasks.journal")).size());
+        Map<String, Task> reloaded = new HashMap<>();
+        new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), reloaded::values, reloaded::get, 1_000).load(reloaded);
+        assertEquals(2, reloaded.size());
+        assertFalse(reloaded.containsKey(batch.get(1).getId()));
+    }
+
+    @Test
+    @DisplayName("Should fold journal into snapshot on compaction")
+    void shouldCompactJournalIntoSnapshot() throws Exception {
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        JournalTaskStore store = new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), cache::values, cache::get, 1_000);
+
+        Task first = task("First");
+        cache.put(first.getId(), first);
+        store.saved(first);
+        store.compact();
+
+        Task second = task("Second");
+        cache.put(second.getId(), second);
+        store.saved(second);
+        store.close();
+
+        assertTrue(Files.exists(dataDir.resolve("tasks.json")));
+        assertFalse(Files.exists(dataDir.resolve("tasks.journal.1")));
+        assertEquals(1, Files.readAllLines(dataDir.resolve("tasks.journal")).size());
+
+        Map<String, Task> reloaded = new HashMap<>();
+        new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), reloaded::values, reloaded::get, 1_000).load(reloaded);
+        assertEquals(2, reloaded.size());
+        assertEquals("Second", reloaded.get(second.getId()).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should report a failed background compaction on the next flush")
+    void shouldReportFailedCompactionOnFlush() throws Exception {
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        JournalTaskStore store = new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), () -> {
+            throw new DataPersistenceException("Disk full");
+        }, cache::get, 1);
+
+        Task first = task("First");
+        cache.put(first.getId(), first);
+        store.saved(first);
+
+        DataPersistenceException failure = null;
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (failure == null && System.currentTimeMillis() < deadline) {
+            try {
+                store.flush();
+                Thread.sleep(10);
+            } catch (DataPersistenceException e) {
+                failure = e;
+            }
+        }
+        assertNotNull(failure);
+        assertEquals("Disk full", failure.getCause().getMessage());
+        assertDoesNotThrow(store::flush);
+        store.close();
+
+        Map<String, Task> reloaded = new HashMap<>();
+        new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), reloaded::values, reloaded::get, 1_000).load(reloaded);
+        assertEquals(1, reloaded.size());
+    }
+
+    @Test
+    @DisplayName("Should ignore a torn final journal record")
+    void shouldIgnoreTornFinalRecord() throws Exception {
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        JournalTaskStore store = new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), cache::values, cache::get, 1_000);
+        Task first = task("First");
+        cache.put(first.getId(), first);
+        store.saved(first);
+        store.close();
+        Files.writeString(dataDir.resolve("tasks.journal"), "{\"op\":\"put\",\"task\":{\"id\"",
+            java.nio.file.StandardOpenOption.APPEND);
+
+        Map<String, Task> reloaded = new HashMap<>();
+        new JournalTaskStore(dataDir.resolve("tasks.json"), new JsonTaskFormat(), reloaded::values, reloaded::get, 1_000).load(reloaded);
+        assertEquals(1, reloaded.size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.repository.StorageConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the file-backed task repository.
+ */
+class JsonTaskRepositoryTest {
+
+    @TempDir
+    Path dataDir;
+
+    private StorageConfig config(StorageConfig.PersistenceMode mode, StorageConfig.SyncPolicy policy) {
+        return config(dataDir, mode, policy);
+    }
+
+    private StorageConfig config(Path directory, StorageConfig.PersistenceMode mode, StorageConfig.SyncPolicy policy) {
+        return new StorageConfig.Builder()
+            .dataDirectory(directory)
+            .persistenceMode(mode)
+            .syncPolicy(policy)
+            .syncIntervalMillis(10)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should persist tasks under every sync policy")
+    void shouldPersistUnderEverySyncPolicy() {
+        for (StorageConfig.PersistenceMode mode : StorageConfig.PersistenceMode.values()) {
+            for (StorageConfig.SyncPolicy policy : StorageConfig.SyncPolicy.values()) {
+                JsonTaskRepository repository = new JsonTaskRepository(config(mode, policy));
+                repository.deleteAll();
+                Task saved = repository.save(new Task.Builder().title("Durable").build());
+                repository.close();
+
+                JsonTaskRepository reopened = new JsonTaskRepository(config(mode, policy));
+                assertTrue(reopened.findById(saved.getId()).isPresent(), mode + "/" + policy);
+                assertEquals(1, reopened.count());
+                reopened.close();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail to start on a corrupt data file instead of starting empty")
+    void shouldFailOnCorruptDataFile() throws Exception {
+        Files.writeString(dataDir.resolve("tasks.json"), "[{\"id\": \"broken\"");
+
+        assertThrows(DataPersistenceException.class,
+            () -> new JsonTaskRepository(config(StorageConfig.PersistenceMode.SNAPSHOT, StorageConfig.SyncPolicy.NONE)));
+        assertTrue(Files.exists(dataDir.resolve("tasks.json")));
+    }
+
+    @Test
+    @DisplayName("Should apply and persist concurrent updates to one task without losing any")
+    void shouldNotLoseConcurrentUpdates() throws Exception {
+        for (StorageConfig.PersistenceMode mode : StorageConfig.PersistenceMode.values()) {
+            StorageConfig config = config(dataDir.resolve(mode.name()), mode, StorageConfig.SyncPolicy.NONE);
+            JsonTaskRepository repository = new JsonTaskRepository(config);
+            Task saved = repository.save(new Task.Builder().title("Counter").build());
+            long initialVersion = saved.getVersion();
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        repository.update(saved.getId(), task -> task.withDescription(task.getDescription() + "x"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            Task counted = repository.findById(saved.getId()).orElseThrow();
+            assertEquals(400, counted.getDescription().length(), mode.name());
+            assertEquals(initialVersion + 400, counted.getVersion(), mode.name());
+
+            assertThrows(IllegalStateException.class,
+                () -> repository.update(saved.getId(), task -> task.withStatus(Status.DONE)));
+            assertEquals(Status.TODO, repository.findById(saved.getId()).orElseThrow().getStatus());
+            assertTrue(repository.update("missing", task -> task.withTitle("Ghost")).isEmpty());
+            repository.close();
+
+            JsonTaskRepository reopened = new JsonTaskRepository(config);
+            Task reloaded = reopened.findById(saved.getId()).orElseThrow();
+            assertEquals(400, reloaded.getDescription().length(), mode.name());
+            assertEquals(initialVersion + 400, reloaded.getVersion(), mode.name());
+            reopened.close();
+        }
+    }
+}
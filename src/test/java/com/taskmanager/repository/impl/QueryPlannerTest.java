@@ -0,0 +1,109 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.QueryPlan;
+import com.taskmanager.repository.TaskQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for cost-based query planning over the task cache.
+ */
+class QueryPlannerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private TaskCache cache;
+    private QueryPlanner planner;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskCache(Set.of(), false, true);
+        planner = new QueryPlanner(cache);
+        tasks = new ArrayList<>();
+        Priority[] priorities = Priority.values();
+        for (int i = 0; i < 400; i++) {
+            Task task = new Task.Builder()
+                .title(i % 50 == 0 ? "Pay invoice " + i : "Routine task " + i)
+                .priority(priorities[i % priorities.length])
+                .status(i % 3 == 0 ? Status.DONE : Status.TODO)
+                .categoryId(i % 40 == 0 ? "finance" : "general")
+                .dueDate(NOW.plusDays(i - 200))
+                .build();
+            tasks.add(task);
+            cache.put(task.getId(), task);
+        }
+    }
+
+    private Set<String> expected(TaskQuery query) {
+        return tasks.stream().filter(query.asPredicate()).map(Task::getId).collect(Collectors.toSet());
+    }
+
+    private Set<String> ids(List<Task> result) {
+        return result.stream().map(Task::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    @DisplayName("Should drive the query from the most selective index")
+    void shouldPickMostSelectiveDriver() {
+        TaskQuery query = new TaskQuery(Status.TODO, null, "finance", null, null, null, null, null);
+
+        QueryPlan plan = planner.explain(query);
+
+        assertEquals("category=finance", plan.steps().get(0).accessPath());
+        assertEquals(QueryPlan.Role.DRIVER, plan.steps().get(0).role());
+        assertEquals(10, plan.steps().get(0).estimatedRows());
+        assertEquals(QueryPlan.Role.INTERSECT, plan.steps().get(1).role());
+        assertEquals(expected(query).size(), plan.actualRows());
+        assertEquals(expected(query), ids(planner.execute(query)));
+    }
+
+    @Test
+    @DisplayName("Should verify trigram candidates with a residual predicate")
+    void shouldApplyResidualToKeywordCandidates() {
+        TaskQuery query = new TaskQuery(null, Priority.HIGH, null, "invoice", null, null, null, null);
+
+        QueryPlan plan = planner.explain(query);
+
+        assertTrue(plan.steps().get(0).accessPath().startsWith("keyword"));
+        assertEquals(QueryPlan.Role.RESIDUAL, plan.steps().get(plan.steps().size() - 1).role());
+        assertEquals(expected(query), ids(planner.execute(query)));
+    }
+
+    @Test
+    @DisplayName("Should use the due-date index for a narrow overdue window")
+    void shouldUseDueDateIndex() {
+        TaskQuery query = new TaskQuery(null, null, null, null, NOW.minusDays(5), NOW, NOW, null);
+
+        QueryPlan plan = planner.explain(query);
+
+        assertTrue(plan.steps().get(0).accessPath().startsWith("due "), plan.toString());
+        assertEquals(expected(query), ids(planner.execute(query)));
+    }
+
+    @Test
+    @DisplayName("Should return the same rows as a scan for every criterion combination")
+    void shouldAgreeWithScan() {
+        List<TaskQuery> queries = List.of(
+            TaskQuery.all(),
+            TaskQuery.withKeyword("ta"),
+            TaskQuery.dueSoonAt(NOW),
+            TaskQuery.dueBetween(NOW.minusDays(10), NOW.plusDays(10)),
+            new TaskQuery(Status.DONE, Priority.LOW, "general", "task", null, NOW, null, null),
+            new TaskQuery(Status.TODO, Priority.CRITICAL, null, "pay", NOW.minusDays(300), NOW.plusDays(300), NOW, null));
+        for (TaskQuery query : queries) {
+            assertEquals(expected(query), ids(planner.execute(query)), query.toString());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.domain.exception.DataPersistenceException;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.repository.StorageConfig.Backpressure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the single-writer persistence queue.
+ */
+class QueuedTaskStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private StorageConfig config(StorageConfig.PersistenceMode mode) {
+        return new StorageConfig.Builder()
+            .dataDirectory(tempDir)
+            .persistenceMode(mode)
+            .writeQueueCapacity(16)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should complete the returned future once the task is on disk")
+    void shouldAwaitDurableWrites() {
+        for (StorageConfig.PersistenceMode mode : StorageConfig.PersistenceMode.values()) {
+            JsonTaskRepository repository = new JsonTaskRepository(config(mode));
+            Task saved = repository.saveAsync(new Task.Builder().title("Queued " + mode).build()).join();
+            Task other = repository.save(new Task.Builder().title("Fire and forget").build());
+
+            JsonTaskRepository reopened = new JsonTaskRepository(config(mode));
+            assertTrue(reopened.findById(saved.getId()).isPresent(), mode.name());
+            reopened.close();
+
+            assertTrue(repository.deleteByIdAsync(saved.getId()).join());
+            repository.close();
+            reopened = new JsonTaskRepository(config(mode));
+            assertFalse(reopened.findById(saved.getId()).isPresent(), mode.name());
+            assertTrue(reopened.findById(other.getId()).isPresent(), mode.name());
+            reopened.deleteAll();
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject writes when the queue is full and backpressure is FAIL")
+    void shouldFailWhenQueueIsFull() throws InterruptedException {
+        GatedStore delegate = new GatedStore();
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        QueuedTaskStore store = new QueuedTaskStore(delegate, cache::get, 1, Backpressure.FAIL);
+
+        CompletableFuture<Void> first = store.savedAsync(cached(cache, "First"));
+        delegate.started.await();
+        store.saved(cached(cache, "Second"));
+        assertThrows(DataPersistenceException.class, () -> store.saved(cached(cache, "Third")));
+
+        delegate.gate.countDown();
+        first.join();
+        store.close();
+        assertEquals(List.of("First", "Second"), delegate.titles());
+    }
+
+    @Test
+    @DisplayName("Should write on the calling thread when the queue is full and backpressure is SYNC")
+    void shouldWriteSynchronouslyWhenQueueIsFull() throws InterruptedException {
+        GatedStore delegate = new GatedStore();
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        QueuedTaskStore store = new QueuedTaskStore(delegate, cache::get, 1, Backpressure.SYNC);
+
+        store.saved(cached(cache, "First"));
+        delegate.started.await();
+        store.saved(cached(cache, "Second"));
+        Thread release = new Thread(() -> {
+            sleep();
+            delegate.gate.countDown();
+        });
+        release.start();
+        CompletableFuture<Void> third = store.savedAsync(cached(cache, "Third"));
+
+        assertTrue(third.isDone());
+        assertEquals(List.of("First", "Second", "Third"), delegate.titles());
+        store.close();
+        release.join();
+    }
+
+    @Test
+    @DisplayName("Should drop a queued delete of a task that is cached again")
+    void shouldSkipDeleteOfRecachedTask() {
+        GatedStore delegate = new GatedStore();
+        delegate.gate.countDown();
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        QueuedTaskStore store = new QueuedTaskStore(delegate, cache::get, 4, Backpressure.BLOCK);
+        Task kept = cached(cache, "Kept");
+        Task removed = cached(cache, "Removed");
+
+        store.deleted(kept.getId());
+        cache.remove(removed.getId());
+        store.deletedAll(List.of(kept.getId(), removed.getId()));
+        store.flush();
+
+        assertEquals(List.of(removed.getId()), delegate.deleted);
+        store.close();
+        assertThrows(DataPersistenceException.class, () -> store.deleted(kept.getId()));
+    }
+
+    @Test
+    @DisplayName("Should write each queued batch to the underlying store once")
+    void shouldCollapseQueuedBatch() throws InterruptedException {
+        GatedStore delegate = new GatedStore();
+        Map<String, Task> cache = new ConcurrentHashMap<>();
+        QueuedTaskStore store = new QueuedTaskStore(delegate, cache::get, 16, Backpressure.BLOCK);
+
+        store.saved(cached(cache, "First"));
+        delegate.started.await();
+        Task updated = cached(cache, "Updated");
+        Task removed = cached(cache, "Removed");
+        store.saved(updated);
+        store.saved(removed);
+        store.saved(cached(cache, "Other"));
+        cache.put(updated.getId(), new Task.Builder().id(updated.getId()).title("Updated twice").build());
+        store.saved(updated);
+        cache.remove(removed.getId());
+        store.deleted(removed.getId());
+        delegate.gate.countDown();
+        store.flush();
+
+        assertEquals(2, delegate.saveWrites.get());
+        assertEquals(1, delegate.deleteWrites.get());
+        assertEquals(List.of("First", "Other", "Updated twice"), delegate.titles());
+        assertEquals(List.of(removed.getId()), delegate.deleted);
+        store.close();
+    }
+
+    private static Task cached(Map<String, Task> cache, String title) {
+        Task task = new Task.Builder().title(title).build();
+        cache.put(task.getId(), task);
+        return task;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Store whose first write blocks until the gate is opened, so the queue can be filled.
+     * Counts the save and delete writes it receives.
+     */
+    private static class GatedStore implements TaskStore {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<Task> written = new CopyOnWriteArrayList<>();
+        final List<String> deleted = new CopyOnWriteArrayList<>();
+        final AtomicInteger saveWrites = new AtomicInteger();
+        final AtomicInteger deleteWrites = new AtomicInteger();
+
+        List<String> titles() {
+            return written.stream().map(Task::getTitle).toList();
+        }
+
+        @Override
+        public void load(Map<String, Task> target) {
+        }
+
+        @Override
+        public void saved(Task task) {
+            savedAll(List.of(task));
+        }
+
+        @Override
+        public void savedAll(Collection<Task> tasks) {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            saveWrites.incrementAndGet();
+            written.addAll(tasks);
+        }
+
+        @Override
+        public void deleted(String id) {
+            deletedAll(List.of(id));
+        }
+
+        @Override
+        public void deletedAll(Collection<String> ids) {
+            deleteWrites.incrementAndGet();
+            deleted.addAll(ids);
+        }
+
+        @Override
+        public void cleared() {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for hash-sharded task storage.
+ */
+class ShardedTaskStoreTest {
+
+    @TempDir
+    Path dataDir;
+
+    private final Map<String, Task> cache = new HashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private ShardedTaskStore store(int shardCount, TaskFormat format) {
+        return new ShardedTaskStore(dataDir.resolve("tasks-shards"), dataDir.resolve("tasks.json"), format,
+            id -> {
+                lookups.incrementAndGet();
+                return cache.get(id);
+            }, shardCount);
+    }
+
+    private void save(ShardedTaskStore store, Task task) {
+        cache.put(task.getId(), task);
+        store.saved(task);
+    }
+
+    private void delete(ShardedTaskStore store, String id) {
+        cache.remove(id);
+        store.deleted(id);
+    }
+
+    private List<Path> shardFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dataDir.resolve("tasks-shards"))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("shard-"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private List<Task> tasks(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Task.Builder().title("Task " + i).build())
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should rewrite only the shard that owns a saved task")
+    void shouldRewriteOnlyAffectedShard() throws Exception {
+        ShardedTaskStore store = store(4, new JsonTaskFormat());
+        store.load(new HashMap<>());
+        for (Task task : tasks(40)) {
+            save(store, task);
+        }
+        List<Path> files = shardFiles();
+        assertEquals(4, files.size());
+        FileTime old = FileTime.fromMillis(0);
+        for (Path file : files) {
+            Files.setLastModifiedTime(file, old);
+        }
+
+        lookups.set(0);
+        Task added = new Task.Builder().title("One more").build();
+        save(store, added);
+
+        long touched = files.stream()
+            .filter(file -> !getLastModified(file).equals(old))
+            .count();
+        assertEquals(1, touched);
+        long members = cache.keySet().stream()
+            .filter(id -> Math.floorMod(id.hashCode(), 4) == Math.floorMod(added.getId().hashCode(), 4))
+            .count();
+        assertEquals(members, lookups.get());
+    }
+
+    private FileTime getLastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reload tasks from all shards")
+    void shouldReloadFromAllShards() {
+        ShardedTaskStore store = store(8, new JsonTaskFormat());
+        store.load(new HashMap<>());
+        List<Task> tasks = tasks(50);
+        tasks.forEach(task -> save(store, task));
+        Task started = tasks.get(0).withStatus(Status.IN_PROGRESS);
+        save(store, started);
+        delete(store, tasks.get(1).getId());
+
+        Map<String, Task> reloaded = new HashMap<>();
+        store(8, new JsonTaskFormat()).load(reloaded);
+
+        assertEquals(49, reloaded.size());
+        assertEquals(Status.IN_PROGRESS, reloaded.get(started.getId()).getStatus());
+        assertFalse(reloaded.containsKey(tasks.get(1).getId()));
+    }
+
+    @Test
+    @DisplayName("Should reshard when shard count or format changes")
+    void shouldReshardOnLayoutChange() throws Exception {
+        ShardedTaskStore store = store(4, new JsonTaskFormat());
+        store.load(new HashMap<>());
+        tasks(30).forEach(task -> save(store, task));
+
+        Map<String, Task> resharded = new HashMap<>();
+        store(7, new BinaryTaskFormat()).load(resharded);
+
+        assertEquals(30, resharded.size());
+        List<Path> files = shardFiles();
+        assertEquals(7, files.size());
+        assertTrue(files.stream().allMatch(file -> file.toString().endsWith(".bin")));
+
+        Map<String, Task> reloaded = new HashMap<>();
+        store(7, new BinaryTaskFormat()).load(reloaded);
+        assertEquals(resharded.keySet(), reloaded.keySet());
+    }
+
+    @Test
+    @DisplayName("Should split an existing single-file snapshot into shards")
+    void shouldMigrateLegacySnapshot() {
+        List<Task> tasks = tasks(12);
+        new JsonTaskFormat().write(tasks, dataDir.resolve("tasks.json"));
+
+        Map<String, Task> loaded = new HashMap<>();
+        store(3, new JsonTaskFormat()).load(loaded);
+
+        assertEquals(12, loaded.size());
+        assertFalse(Files.exists(dataDir.resolve("tasks.json")));
+        assertTrue(Files.exists(dataDir.resolve("tasks.json.migrated")));
+        Map<String, Task> reloaded = new HashMap<>();
+        store(3, new JsonTaskFormat()).load(reloaded);
+        assertEquals(12, reloaded.size());
+    }
+}
@@ -0,0 +1,157 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Category;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.StorageConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for coordinating several repositories (standing in for processes)
+ * over one shared data directory.
+ */
+class SharedTaskStoreTest {
+
+    @TempDir
+    Path dataDir;
+
+    private StorageConfig config(StorageConfig.PersistenceMode mode) {
+        return new StorageConfig.Builder()
+            .dataDirectory(dataDir)
+            .persistenceMode(mode)
+            .shardCount(4)
+            .sharedAccess(true)
+            .build();
+    }
+
+    private Task task(String title) {
+        return new Task.Builder().title(title).build();
+    }
+
+    @Test
+    @DisplayName("Should merge writes from processes that loaded the same state")
+    void shouldMergeConcurrentWriters() {
+        for (StorageConfig.PersistenceMode mode :
+                List.of(StorageConfig.PersistenceMode.SNAPSHOT, StorageConfig.PersistenceMode.SHARDED)) {
+            JsonTaskRepository first = new JsonTaskRepository(config(mode));
+            JsonTaskRepository second = new JsonTaskRepository(config(mode));
+            first.deleteAll();
+
+            Task a = first.save(task("A"));
+            Task b = second.save(task("B"));
+
+            JsonTaskRepository fresh = new JsonTaskRepository(config(mode));
+            assertEquals(2, fresh.count(), mode.name());
+            assertTrue(fresh.findById(a.getId()).isPresent());
+            assertTrue(fresh.findById(b.getId()).isPresent());
+            first.close();
+            second.close();
+            fresh.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write a save over another process's newer version")
+    void shouldWriteOverNewerVersionFromOtherProcess() {
+        JsonTaskRepository first = new JsonTaskRepository(config(StorageConfig.PersistenceMode.SNAPSHOT));
+        JsonTaskRepository second = new JsonTaskRepository(config(StorageConfig.PersistenceMode.SNAPSHOT));
+        Task created = first.save(task("Original"));
+        Task loaded = second.findById(created.getId()).orElseThrow();
+
+        Task fromFirst = first.save(first.save(created.withTitle("First")).withTitle("First again"));
+        Task fromSecond = second.save(loaded.withTitle("Second"));
+        assertTrue(fromFirst.getVersion() > fromSecond.getVersion());
+
+        Task seen = first.findById(created.getId()).orElseThrow();
+        assertEquals("Second", seen.getTitle());
+        assertEquals(fromFirst.getVersion() + 1, seen.getVersion());
+        assertEquals(seen.getVersion(), second.findById(created.getId()).orElseThrow().getVersion());
+        first.close();
+        second.close();
+
+        JsonTaskRepository reopened = new JsonTaskRepository(config(StorageConfig.PersistenceMode.SNAPSHOT));
+        assertEquals("Second", reopened.findById(created.getId()).orElseThrow().getTitle());
+        assertEquals(seen.getVersion(), reopened.findById(created.getId()).orElseThrow().getVersion());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should see other processes' updates and deletes on the next read")
+    void shouldRefreshReaders() throws IOException {
+        JsonTaskRepository writer = new JsonTaskRepository(config(StorageConfig.PersistenceMode.SNAPSHOT));
+        JsonTaskRepository reader = new JsonTaskRepository(config(StorageConfig.PersistenceMode.SNAPSHOT));
+
+        Task created = writer.save(task("Shared"));
+        assertTrue(reader.findById(created.getId()).isPresent());
+
+        writer.save(created.withStatus(Status.IN_PROGRESS));
+        assertEquals(Status.IN_PROGRESS, reader.findById(created.getId()).orElseThrow().getStatus());
+
+        assertTrue(reader.deleteById(created.getId()));
+        assertTrue(writer.findAll().isEmpty());
+        String log = Files.readString(dataDir.resolve("tasks.changes"));
+        assertFalse(log.contains("\0"));
+        assertTrue(log.lines().allMatch(line -> line.startsWith("{") && line.endsWith("}")));
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    @DisplayName("Should reload from files when the change log was restarted")
+    void shouldReloadWhenBehindChangeLog() {
+        Path file = dataDir.resolve("tasks.json");
+        Map<String, Task> firstCache = new ConcurrentHashMap<>();
+        Map<String, Task> secondCache = new ConcurrentHashMap<>();
+        SharedTaskStore first = new SharedTaskStore(new SnapshotTaskStore(file, new JsonTaskFormat(), firstCache::values),
+            new ProcessCoordinator<>(dataDir.resolve("tasks.lock"), dataDir.resolve("tasks.changes"), Task.class, Task::getId, 1));
+        SharedTaskStore second = new SharedTaskStore(new SnapshotTaskStore(file, new JsonTaskFormat(), secondCache::values),
+            new ProcessCoordinator<>(dataDir.resolve("tasks.lock"), dataDir.resolve("tasks.changes"), Task.class, Task::getId, 1));
+        first.load(firstCache);
+        second.load(secondCache);
+
+        first.saved(task("One"));
+        first.saved(task("Two"));
+        second.saved(task("Three"));
+        first.refresh();
+
+        assertEquals(3, firstCache.size());
+        assertEquals(3, secondCache.size());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should share categories between processes")
+    void shouldShareCategories() {
+        JsonCategoryRepository first = new JsonCategoryRepository(config(StorageConfig.PersistenceMode.SNAPSHOT));
+        JsonCategoryRepository second = new JsonCategoryRepository(config(StorageConfig.PersistenceMode.SNAPSHOT));
+
+        assertEquals(DefaultCategories.create().size(), second.count());
+        Category errands = first.save(Category.create("Errands", "Things to run", "#000000"));
+        assertTrue(second.findByName("errands").isPresent());
+        assertTrue(second.deleteById(errands.id()));
+        assertTrue(first.findById(errands.id()).isEmpty());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should reject shared access with write-behind or journal persistence")
+    void shouldRejectUnsupportedSharedModes() {
+        assertThrows(IllegalArgumentException.class, () -> new StorageConfig.Builder()
+            .sharedAccess(true).writeBehind(true).build());
+        assertThrows(IllegalArgumentException.class, () -> new StorageConfig.Builder()
+            .sharedAccess(true).persistenceMode(StorageConfig.PersistenceMode.JOURNAL).build());
+    }
+}
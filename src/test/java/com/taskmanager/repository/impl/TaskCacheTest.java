@@ -0,0 +1,209 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.Ranking;
+import com.taskmanager.repository.TaskCounts;
+import com.taskmanager.repository.TaskOrder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the indexed task cache.
+ */
+class TaskCacheTest {
+
+    private Task task(String title, Priority priority, String categoryId) {
+        return new Task.Builder().title(title).priority(priority).categoryId(categoryId).build();
+    }
+
+    @Test
+    @DisplayName("Should move a task between status buckets when it is saved again")
+    void shouldMoveBetweenStatusBuckets() {
+        TaskCache cache = new TaskCache();
+        Task task = task("Write report", Priority.HIGH, "work");
+        cache.put(task.getId(), task);
+
+        Task started = task.withStatus(Status.IN_PROGRESS);
+        cache.put(started.getId(), started);
+
+        assertTrue(cache.withStatus(Status.TODO).isEmpty());
+        assertEquals(List.of(started), List.copyOf(cache.withStatus(Status.IN_PROGRESS)));
+        assertEquals(List.of(started), List.copyOf(cache.withPriority(Priority.HIGH)));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should index categories and drop removed tasks from every bucket")
+    void shouldMaintainCategoryIndex() {
+        TaskCache cache = new TaskCache();
+        Task work = task("Review", Priority.LOW, "work");
+        Task home = task("Shop", Priority.LOW, "home");
+        Task loose = task("Idea", Priority.LOW, null);
+        cache.put(work.getId(), work);
+        cache.put(home.getId(), home);
+        cache.put(loose.getId(), loose);
+
+        Task moved = new Task.Builder(work).categoryId("home").build();
+        cache.put(moved.getId(), moved);
+        assertTrue(cache.inCategory("work").isEmpty());
+        assertEquals(2, cache.inCategory("home").size());
+        assertEquals(List.of(loose), List.copyOf(cache.inCategory(null)));
+
+        assertSame(home, cache.remove(home.getId()));
+        assertEquals(List.of(moved), List.copyOf(cache.inCategory("home")));
+        assertEquals(2, cache.withPriority(Priority.LOW).size());
+
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertTrue(cache.withStatus(Status.TODO).isEmpty());
+        assertTrue(cache.inCategory("home").isEmpty());
+        assertTrue(cache.inCategory(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should answer due-date ranges, overdue and due-soon from one clock")
+    void shouldIndexDueDates() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        TaskCache cache = new TaskCache(Set.of(), true, false);
+        Task late = new Task.Builder().title("Late").dueDate(now.minusDays(1)).build();
+        Task doneLate = new Task.Builder().title("Done").status(Status.DONE).dueDate(now.minusDays(2)).build();
+        Task soon = new Task.Builder().title("Soon").dueDate(now.plusHours(3)).build();
+        Task atNow = new Task.Builder().title("Now").dueDate(now).build();
+        Task later = new Task.Builder().title("Later").dueDate(now.plusDays(5)).build();
+        Task undated = new Task.Builder().title("Undated").build();
+        List.of(late, doneLate, soon, atNow, later, undated).forEach(task -> cache.put(task.getId(), task));
+
+        assertEquals(List.of(late), List.copyOf(cache.overdueAt(now)));
+        assertEquals(List.of(atNow, soon), List.copyOf(cache.dueSoonAt(now)));
+        assertEquals(List.of(doneLate, late, atNow), List.copyOf(cache.dueBetween(null, now)));
+        assertEquals(List.of(atNow, soon, later), List.copyOf(cache.dueBetween(now, null)));
+        for (Task task : cache.values()) {
+            assertEquals(task.isOverdue(now), cache.overdueAt(now).contains(task), task.getTitle());
+            assertEquals(task.isDueSoon(now), cache.dueSoonAt(now).contains(task), task.getTitle());
+        }
+
+        Task finished = late.withStatus(Status.IN_PROGRESS).withStatus(Status.DONE);
+        cache.put(finished.getId(), finished);
+        Task postponed = soon.withDueDate(now.plusDays(2));
+        cache.put(postponed.getId(), postponed);
+        cache.remove(atNow.getId());
+
+        assertTrue(cache.overdueAt(now).isEmpty());
+        assertTrue(cache.dueSoonAt(now).isEmpty());
+        assertEquals(List.of(postponed, later), List.copyOf(cache.dueBetween(now, now.plusDays(7))));
+    }
+
+    @Test
+    @DisplayName("Should keep live counts through status changes and as the clock moves")
+    void shouldCountTasks() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        TaskCache cache = new TaskCache(Set.of(), true, false);
+        Task late = new Task.Builder().title("Late").priority(Priority.HIGH).dueDate(now.minusDays(1)).build();
+        Task tomorrow = new Task.Builder().title("Tomorrow").dueDate(now.plusDays(1)).build();
+        Task nextWeek = new Task.Builder().title("Next week").dueDate(now.plusDays(7)).build();
+        Task undated = new Task.Builder().title("Undated").priority(Priority.HIGH).build();
+        List.of(late, tomorrow, nextWeek, undated).forEach(task -> cache.put(task.getId(), task));
+
+        TaskCounts counts = cache.counts(now);
+        assertEquals(4, counts.total());
+        assertEquals(4, counts.withStatus(Status.TODO));
+        assertEquals(0, counts.withStatus(Status.DONE));
+        assertEquals(2, counts.withPriority(Priority.HIGH));
+        assertEquals(1, counts.overdue());
+
+        Task started = tomorrow.withStatus(Status.IN_PROGRESS);
+        cache.put(started.getId(), started);
+        Task finished = late.withStatus(Status.IN_PROGRESS).withStatus(Status.DONE);
+        cache.put(finished.getId(), finished);
+        Task lateAgain = new Task.Builder().title("Also late").priority(Priority.HIGH).dueDate(now.minusHours(1)).build();
+        cache.put(lateAgain.getId(), lateAgain);
+        cache.remove(undated.getId());
+
+        counts = cache.counts(now);
+        assertEquals(4, counts.total());
+        assertEquals(2, counts.withStatus(Status.TODO));
+        assertEquals(1, counts.withStatus(Status.IN_PROGRESS));
+        assertEquals(1, counts.withStatus(Status.DONE));
+        assertEquals(2, counts.withPriority(Priority.HIGH));
+        assertEquals(1, counts.overdue());
+
+        for (LocalDateTime at : List.of(now.plusDays(2), now.plusDays(8), now.minusDays(3), now)) {
+            long expected = cache.values().stream().filter(task -> task.isOverdue(at)).count();
+            assertEquals(expected, cache.counts(at).overdue(), at.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep sorted views in order as tasks are saved, changed and removed")
+    void shouldMaintainSortedViews() {
+        TaskCache cache = new TaskCache(Set.of(TaskOrder.PRIORITY_DESC, TaskOrder.DUE_DATE_ASC), false, false);
+        LocalDateTime base = LocalDateTime.of(2025, 6, 1, 9, 0);
+        Priority[] priorities = Priority.values();
+        for (int i = 0; i < 50; i++) {
+            Task task = new Task.Builder().title("Task " + i).priority(priorities[i % priorities.length])
+                .dueDate(i % 5 == 0 ? null : base.plusHours(i % 7)).build();
+            cache.put(task.getId(), task);
+        }
+        List<Task> all = List.copyOf(cache.values());
+        for (int i = 0; i < all.size(); i += 3) {
+            Task task = all.get(i);
+            Task changed = new Task.Builder(task).priority(priorities[(i + 1) % priorities.length])
+                .dueDate(base.minusHours(i)).build();
+            cache.put(changed.getId(), changed);
+        }
+        for (int i = 1; i < all.size(); i += 7) {
+            cache.remove(all.get(i).getId());
+        }
+        Task started = cache.values().iterator().next().withStatus(Status.IN_PROGRESS);
+        cache.put(started.getId(), started);
+
+        for (TaskOrder order : List.of(TaskOrder.PRIORITY_DESC, TaskOrder.DUE_DATE_ASC)) {
+            List<Task> expected = cache.values().stream().sorted(order.getKeysetComparator()).toList();
+            List<Task> view = List.copyOf(cache.sorted(order, null));
+            assertEquals(expected, view, order.name());
+            assertSame(started, view.get(view.indexOf(started)), "views hold the latest version");
+            assertEquals(expected.subList(11, expected.size()), List.copyOf(cache.sorted(order, expected.get(10))));
+        }
+        assertNull(cache.sorted(TaskOrder.TITLE_ASC, null));
+    }
+
+    @Test
+    @DisplayName("Should rank title matches, rare words and boosted tasks first")
+    void shouldRankByRelevance() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        TaskCache cache = new TaskCache(Set.of(), true, false);
+        Task inTitle = new Task.Builder().title("Invoice supplier").description("Pay by Friday")
+            .updatedAt(now.minusDays(30)).build();
+        Task inDescription = new Task.Builder().title("Accounts").description("Check the supplier invoice")
+            .updatedAt(now.minusDays(30)).build();
+        Task common = new Task.Builder().title("Supplier call").description("Ask about delivery")
+            .priority(Priority.CRITICAL).updatedAt(now).build();
+        List.of(inTitle, inDescription, common).forEach(task -> cache.put(task.getId(), task));
+        for (int i = 0; i < 20; i++) {
+            Task filler = new Task.Builder().title("Supplier note " + i).description("Nothing else").build();
+            cache.put(filler.getId(), filler);
+        }
+
+        Ranking ranking = Ranking.defaults(now);
+        assertEquals(List.of(inTitle, inDescription), cache.rankedText("invoice supplier", ranking, 2));
+        assertEquals(inTitle, cache.rankedText("invoice", ranking, 10).get(0));
+        assertEquals(23, cache.rankedText("supplier", ranking, 100).size());
+        assertEquals(common, cache.rankedText("supplier", ranking.withPriorityBoost(1.0)
+            .withRecencyBoost(1.0, Duration.ofDays(1)), 1).get(0));
+
+        Task renamed = new Task.Builder(inDescription).title("Invoice run").build();
+        cache.put(renamed.getId(), renamed);
+        cache.remove(inTitle.getId());
+        assertEquals(List.of(renamed), cache.rankedText("invoice", ranking, 10));
+        assertTrue(cache.rankedText("", ranking, 10).isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.TextMatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the word index over titles and descriptions.
+ */
+class TextIndexTest {
+
+    private Task task(String title, String description) {
+        return new Task.Builder().title(title).description(description).build();
+    }
+
+    /**
+     * Index the tasks in slots numbered by their position in the list.
+     */
+    private TextIndex index(List<Task> tasks) {
+        TextIndex index = new TextIndex();
+        for (int slot = 0; slot < tasks.size(); slot++) {
+            index.update(null, tasks.get(slot), slot);
+        }
+        return index;
+    }
+
+    private int[] slots(List<Task> tasks, Task... matching) {
+        return IntStream.range(0, tasks.size())
+            .filter(slot -> List.of(matching).contains(tasks.get(slot)))
+            .toArray();
+    }
+
+    @Test
+    @DisplayName("Should answer all-words, any-word and phrase queries")
+    void shouldAnswerWordQueries() {
+        Task report = task("Quarterly report", "Send the sales report to finance");
+        Task sales = task("Sales meeting", "Discuss report format");
+        Task other = task("Groceries", "Milk, eggs");
+        List<Task> tasks = List.of(report, sales, other);
+        TextIndex index = index(tasks);
+
+        assertArrayEquals(slots(tasks, report, sales), index.search("REPORT sales", TextMatch.ALL_TERMS));
+        assertArrayEquals(slots(tasks, report, other), index.search("quarterly eggs", TextMatch.ANY_TERM));
+        assertArrayEquals(slots(tasks, report), index.search("sales report", TextMatch.PHRASE));
+        assertArrayEquals(slots(tasks, sales), index.search("report format", TextMatch.PHRASE));
+        assertEquals(0, index.search("rep", TextMatch.ALL_TERMS).length);
+        assertEquals(0, index.search("!!", TextMatch.ANY_TERM).length);
+    }
+
+    @Test
+    @DisplayName("Should not match a phrase across title and description")
+    void shouldNotMatchPhraseAcrossFields() {
+        TextIndex index = index(List.of(task("Plan trip", "Book hotel")));
+
+        assertEquals(0, index.search("trip book", TextMatch.PHRASE).length);
+        assertArrayEquals(new int[] {0}, index.search("trip book", TextMatch.ALL_TERMS));
+    }
+
+    @Test
+    @DisplayName("Should follow title edits and deletions")
+    void shouldFollowUpdates() {
+        Task task = task("Draft proposal", "");
+        TextIndex index = index(List.of(task));
+
+        Task renamed = task.withTitle("Final proposal");
+        index.update(task, renamed, 0);
+        assertEquals(0, index.search("draft", TextMatch.ANY_TERM).length);
+        assertArrayEquals(new int[] {0}, index.search("final proposal", TextMatch.PHRASE));
+
+        index.update(renamed, null, 0);
+        assertEquals(0, index.search("proposal", TextMatch.ANY_TERM).length);
+    }
+
+    @Test
+    @DisplayName("Should agree with the scanning predicate")
+    void shouldAgreeWithPredicate() {
+        List<Task> tasks = List.of(
+            task("Fix login bug", "Users cannot log in after reset"),
+            task("Login page", "New design for the login page"),
+            task("Bug bash", "Find bugs before release"));
+        TextIndex index = index(tasks);
+
+        for (TextMatch match : List.of(TextMatch.ALL_TERMS, TextMatch.ANY_TERM, TextMatch.PHRASE)) {
+            for (String query : List.of("login", "login bug", "login page", "bug", "log in", "release notes")) {
+                int[] expected = slots(tasks, tasks.stream().filter(match.asPredicate(query)).toArray(Task[]::new));
+                assertArrayEquals(expected, index.search(query, match), match + " " + query);
+            }
+        }
+    }
+}
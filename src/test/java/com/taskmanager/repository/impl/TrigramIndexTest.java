@@ -0,0 +1,99 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.TextMatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for substring search through the trigram index.
+ */
+class TrigramIndexTest {
+
+    private Task task(String title, String description) {
+        return new Task.Builder().title(title).description(description).build();
+    }
+
+    @Test
+    @DisplayName("Should narrow infix queries to tasks containing every trigram")
+    void shouldNarrowInfixQueries() {
+        TrigramIndex index = new TrigramIndex();
+        Task invoice = task("Pay Invoice", "");
+        Task voicemail = task("Check voicemail", "");
+        Task other = task("Groceries", "Milk");
+        index.update(null, invoice, 0);
+        index.update(null, voicemail, 1);
+        index.update(null, other, 2);
+
+        assertArrayEquals(new int[] {0, 1}, index.candidates("voice"));
+        assertArrayEquals(new int[] {0}, index.candidates("invoice"));
+        assertEquals(0, index.candidates("xyz").length);
+        assertNull(index.candidates("vo"));
+        assertEquals(2, index.estimate("voice"));
+    }
+
+    @Test
+    @DisplayName("Should follow title and description edits")
+    void shouldFollowEdits() {
+        TrigramIndex index = new TrigramIndex();
+        Task task = task("Draft invoice", "For ACME");
+        index.update(null, task, 7);
+
+        Task renamed = task.withTitle("Draft receipt");
+        index.update(task, renamed, 7);
+        assertEquals(0, index.candidates("invoice").length);
+        assertArrayEquals(new int[] {7}, index.candidates("receipt"));
+        assertArrayEquals(new int[] {7}, index.candidates("acme"));
+
+        Task described = renamed.withDescription("For Globex");
+        index.update(renamed, described, 7);
+        assertEquals(0, index.candidates("acme").length);
+
+        index.update(described, null, 7);
+        assertEquals(0, index.candidates("draft").length);
+    }
+
+    @Test
+    @DisplayName("Should keep postings apart when the table grows")
+    void shouldGrowTable() {
+        TrigramIndex index = new TrigramIndex();
+        for (int slot = 0; slot < 2000; slot++) {
+            index.update(null, task("Item " + slot, ""), slot);
+        }
+
+        assertEquals(2000, index.estimate("ite"));
+        assertArrayEquals(new int[] {1234}, index.candidates("item 1234"));
+        assertArrayEquals(new int[] {5, 50, 500}, Arrays.stream(index.candidates("m 5"))
+            .filter(slot -> slot == 5 || slot == 50 || slot == 500).toArray());
+    }
+
+    @Test
+    @DisplayName("Should return every substring match after verification")
+    void shouldAgreeWithPredicate() {
+        TaskCache cache = new TaskCache(Set.of(), false, true);
+        List<Task> tasks = List.of(
+            task("Invoice for March", "Send to accounting"),
+            task("Voice call", "Discuss the count"),
+            task("Accounting review", "Invoices and receipts"));
+        tasks.forEach(task -> cache.put(task.getId(), task));
+
+        for (String query : List.of("voice", "INVOICE", "count", "ac", "e", "s and r", "missing")) {
+            Set<String> expected = tasks.stream()
+                .filter(TextMatch.SUBSTRING.asPredicate(query))
+                .map(Task::getId)
+                .collect(Collectors.toSet());
+            Set<String> actual = cache.substringCandidates(query).stream()
+                .filter(TextMatch.SUBSTRING.asPredicate(query))
+                .map(Task::getId)
+                .collect(Collectors.toSet());
+            assertEquals(expected, actual, query);
+        }
+    }
+}
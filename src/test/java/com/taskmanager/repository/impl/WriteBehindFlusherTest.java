@@ -0,0 +1,80 @@
+package com.taskmanager.repository.impl;
+
+import com.taskmanager.domain.exception.DataPersistenceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for write-behind coalescing.
+ */
+class WriteBehindFlusherTest {
+
+    @Test
+    @DisplayName("Should coalesce a burst of mutations into few writes")
+    void shouldCoalesceBurstOfMutations() {
+        AtomicInteger writes = new AtomicInteger();
+        WriteBehindFlusher flusher = new WriteBehindFlusher("test-flusher", writes::incrementAndGet, 60_000, 10_000);
+
+        for (int i = 0; i < 1_000; i++) {
+            flusher.markDirty();
+        }
+        flusher.flush();
+
+        assertEquals(1, writes.get());
+        flusher.close();
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    @DisplayName("Should write pending mutations on close")
+    void shouldWritePendingMutationsOnClose() {
+        AtomicInteger writes = new AtomicInteger();
+        WriteBehindFlusher flusher = new WriteBehindFlusher("test-flusher", writes::incrementAndGet, 60_000, 10_000);
+
+        flusher.markDirty();
+        flusher.close();
+
+        assertEquals(1, writes.get());
+        assertThrows(DataPersistenceException.class, flusher::markDirty);
+    }
+
+    @Test
+    @DisplayName("Should flush in the background once the batch size is reached")
+    void shouldFlushWhenBatchIsFull() throws InterruptedException {
+        AtomicInteger writes = new AtomicInteger();
+        WriteBehindFlusher flusher = new WriteBehindFlusher("test-flusher", writes::incrementAndGet, 60_000, 5);
+
+        for (int i = 0; i < 5; i++) {
+            flusher.markDirty();
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (writes.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, writes.get());
+        flusher.close();
+    }
+
+    @Test
+    @DisplayName("Should report failed writes and keep changes pending")
+    void shouldReportFailedWrites() {
+        AtomicInteger attempts = new AtomicInteger();
+        WriteBehindFlusher flusher = new WriteBehindFlusher("test-flusher", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new DataPersistenceException("disk full");
+            }
+        }, 60_000, 10_000);
+
+        flusher.markDirty();
+        assertThrows(DataPersistenceException.class, flusher::flush);
+        flusher.flush();
+
+        assertEquals(2, attempts.get());
+        flusher.close();
+    }
+}
@@ -0,0 +1,107 @@
+package com.taskmanager.service;
+
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.StorageConfig;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.impl.RepositoryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the query result cache behind SearchService.
+ */
+class QueryCacheTest {
+
+    @TempDir
+    Path dataDir;
+
+    private TaskRepository repository;
+    private SearchService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = RepositoryFactory.createTaskRepository(new StorageConfig.Builder()
+            .dataDirectory(dataDir)
+            .syncPolicy(StorageConfig.SyncPolicy.NONE)
+            .build());
+        service = new SearchService(repository, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private Task save(String title) {
+        return repository.save(new Task.Builder().title(title).build());
+    }
+
+    @Test
+    @DisplayName("Should invalidate only the cached queries a saved task could match")
+    void shouldInvalidatePrecisely() {
+        Task report = save("Quarterly report");
+        save("Groceries");
+
+        assertEquals(List.of(report), service.searchByKeyword("REPORT"));
+        assertEquals(List.of(report), service.searchByKeyword("report"));
+        assertEquals(1, service.getCacheStatistics().hits());
+
+        save("Water plants");
+        assertEquals(List.of(report), service.searchByKeyword("report"));
+        assertEquals(2, service.getCacheStatistics().hits());
+
+        Task draft = save("Report draft");
+        assertEquals(2, service.searchByKeyword("report").size());
+        SearchService.CacheStatistics statistics = service.getCacheStatistics();
+        assertEquals(2, statistics.misses());
+        assertEquals(1, statistics.invalidations());
+
+        assertEquals(4, service.filter(new SearchService.TaskFilter(Status.TODO, null, null, null, false)).size());
+        repository.save(draft.withStatus(Status.IN_PROGRESS));
+        List<Task> todo = service.filter(new SearchService.TaskFilter(Status.TODO, null, null, "", false));
+        assertEquals(3, todo.size());
+        assertFalse(todo.contains(draft));
+        assertEquals(2, service.getCacheStatistics().hits());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used result beyond the size bound")
+    void shouldEvictLeastRecentlyUsed() {
+        save("Alpha");
+        service.searchByKeyword("alpha");
+        service.searchByKeyword("beta");
+        service.searchByKeyword("alpha");
+        service.searchByKeyword("gamma");
+        service.searchByKeyword("alpha");
+
+        SearchService.CacheStatistics statistics = service.getCacheStatistics();
+        assertEquals(2, statistics.hits());
+        assertEquals(1, statistics.evictions());
+        assertEquals(2, statistics.size());
+        assertEquals(0.4, statistics.hitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should recompute the overdue list once a task falls due")
+    void shouldExpireOverdueResultsWithTheClock() throws InterruptedException {
+        Task soon = repository.save(new Task.Builder().title("Call bank")
+            .dueDate(LocalDateTime.now().plusNanos(50_000_000)).build());
+        assertTrue(service.getOverdueTasks().isEmpty());
+        assertTrue(service.getOverdueTasks().isEmpty());
+        assertEquals(1, service.getCacheStatistics().hits());
+
+        Thread.sleep(100);
+        assertEquals(List.of(soon), service.getOverdueTasks());
+        assertEquals(1, service.getCacheStatistics().invalidations());
+    }
+}
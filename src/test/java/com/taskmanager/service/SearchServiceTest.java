@@ -0,0 +1,185 @@
+package com.taskmanager.service;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.AttributeQuery;
+import com.taskmanager.repository.TaskQuery;
+import com.taskmanager.repository.impl.JdbcTaskRepository;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchService ordering and pagination.
+ */
+class SearchServiceTest {
+
+    private JdbcConnectionPool pool;
+    private JdbcTaskRepository repository;
+    private SearchService service;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        pool = JdbcConnectionPool.create("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        repository = new JdbcTaskRepository(pool);
+        service = new SearchService(repository);
+        Priority[] priorities = Priority.values();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 137; i++) {
+            tasks.add(new Task.Builder()
+                .title("Task " + (i % 10))
+                .priority(priorities[i % priorities.length])
+                .dueDate(i % 4 == 0 ? null : base.plusHours(i % 17))
+                .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.dispose();
+    }
+
+    private List<Task> fullySorted(SearchService.SortStrategy strategy) {
+        return tasks.stream().sorted(strategy.getKeysetComparator()).toList();
+    }
+
+    @Test
+    @DisplayName("Should return the same top tasks as a full sort")
+    void shouldSelectTopK() {
+        for (SearchService.SortStrategy strategy : SearchService.SortStrategy.values()) {
+            assertEquals(fullySorted(strategy).subList(0, 10), service.top(tasks, strategy, 10), strategy.name());
+        }
+        assertEquals(137, service.top(tasks, SearchService.SortStrategy.TITLE_ASC, 500).size());
+    }
+
+    @Test
+    @DisplayName("Should page by offset and report the remaining tasks")
+    void shouldPageByOffset() {
+        List<Task> sorted = fullySorted(SearchService.SortStrategy.PRIORITY_DESC);
+
+        SearchService.Page page = service.page(tasks, SearchService.SortStrategy.PRIORITY_DESC, 40, 20);
+        assertEquals(sorted.subList(40, 60), page.tasks());
+        assertEquals(137, page.total());
+        assertTrue(page.hasMore());
+
+        SearchService.Page last = service.page(tasks, SearchService.SortStrategy.PRIORITY_DESC, 120, 20);
+        assertEquals(sorted.subList(120, 137), last.tasks());
+        assertFalse(last.hasMore());
+        assertTrue(service.page(tasks, SearchService.SortStrategy.PRIORITY_DESC, 200, 20).tasks().isEmpty());
+        assertThrows(IllegalArgumentException.class,
+            () -> service.page(tasks, SearchService.SortStrategy.PRIORITY_DESC, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should walk every task exactly once with keyset cursors despite ties")
+    void shouldPageByCursor() {
+        for (SearchService.SortStrategy strategy : SearchService.SortStrategy.values()) {
+            List<Task> walked = new ArrayList<>();
+            SearchService.Page page = service.pageAfter(tasks, strategy, null, 25);
+            walked.addAll(page.tasks());
+            while (page.hasMore()) {
+                page = service.pageAfter(tasks, strategy, page.cursor(), 25);
+                assertEquals(walked.size(), page.offset());
+                walked.addAll(page.tasks());
+            }
+            assertEquals(fullySorted(strategy), walked, strategy.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should list all stored tasks in strategy order by position and by cursor")
+    void shouldListAllFromRepository() {
+        tasks.forEach(repository::save);
+        for (SearchService.SortStrategy strategy : SearchService.SortStrategy.values()) {
+            List<Task> sorted = fullySorted(strategy);
+            SearchService.Page page = service.listAll(strategy, 40, 20);
+            assertEquals(sorted.subList(40, 60), page.tasks(), strategy.name());
+            assertEquals(137, page.total());
+
+            List<Task> walked = new ArrayList<>();
+            List<Task> batch = service.listAllAfter(strategy, null, 25);
+            while (!batch.isEmpty()) {
+                walked.addAll(batch);
+                batch = service.listAllAfter(strategy, batch.get(batch.size() - 1), 25);
+            }
+            assertEquals(sorted, walked, strategy.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should aggregate groups in one pass, the same sequentially and in parallel")
+    void shouldAggregateByGroup() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            saved.add(i % 3 == 0 ? tasks.get(i).withStatus(Status.IN_PROGRESS).withStatus(Status.DONE) : tasks.get(i));
+        }
+        repository.saveAll(saved);
+
+        TaskAggregation byPriority = TaskAggregation.groupBy(now, TaskAggregation.Dimension.PRIORITY);
+        List<TaskAggregation.Group> groups = service.aggregate(byPriority);
+        assertEquals(Priority.values().length, groups.size());
+        for (TaskAggregation.Group group : groups) {
+            Priority priority = (Priority) group.key().get(0);
+            List<Task> members = saved.stream().filter(task -> task.getPriority() == priority).toList();
+            assertEquals(members.size(), group.count(), priority.name());
+            assertEquals(members.stream().filter(task -> task.getStatus() == Status.DONE).count(), group.done());
+            assertEquals(members.stream().filter(task -> task.isOverdue(now)).count(), group.overdue());
+            assertEquals(members.stream().map(Task::getDueDate).filter(Objects::nonNull)
+                .min(Comparator.naturalOrder()).orElse(null), group.minDue());
+        }
+
+        TaskAggregation open = byPriority.where(AttributeQuery.any().withStatuses(Status.TODO));
+        assertEquals(saved.stream().filter(task -> task.getStatus() == Status.TODO).count(),
+            service.aggregate(open).stream().mapToLong(TaskAggregation.Group::count).sum());
+        assertTrue(service.aggregate(open).stream().allMatch(group -> group.done() == 0));
+
+        TaskAggregation byPriorityAndWeek = TaskAggregation.groupBy(now,
+            TaskAggregation.Dimension.PRIORITY, TaskAggregation.Dimension.DUE_WEEK);
+        assertEquals(TaskAggregator.aggregate(saved.stream(), byPriorityAndWeek),
+            TaskAggregator.aggregate(saved.parallelStream(), byPriorityAndWeek));
+    }
+
+    @Test
+    @DisplayName("Should evaluate a batch of filters and aggregations at one instant")
+    void shouldEvaluateBatch() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 6, 0);
+        repository.saveAll(tasks);
+        QueryBatch batch = QueryBatch.at(now)
+            .overdue("overdue")
+            .dueSoon("soon")
+            .filter("high", AttributeQuery.any().withPriorityAtLeast(Priority.HIGH))
+            .filter("critical", new SearchService.TaskFilter(null, Priority.CRITICAL, null, null, false))
+            .aggregate("byPriority", AttributeQuery.any(), TaskAggregation.Dimension.PRIORITY)
+            .build();
+
+        QueryBatch.Result result = service.evaluate(batch);
+        assertEquals(now, result.now());
+        assertEquals(Set.copyOf(repository.findMatching(TaskQuery.overdueAt(now))), Set.copyOf(result.tasks("overdue")));
+        assertEquals(Set.copyOf(repository.findMatching(TaskQuery.dueSoonAt(now))), Set.copyOf(result.tasks("soon")));
+        assertEquals(Set.copyOf(repository.findByAttributes(AttributeQuery.any().withPriorityAtLeast(Priority.HIGH))),
+            Set.copyOf(result.tasks("high")));
+        assertEquals(service.aggregate(TaskAggregation.groupBy(now, TaskAggregation.Dimension.PRIORITY)),
+            result.groups("byPriority"));
+        assertEquals(Set.copyOf(repository.findByPriority(Priority.CRITICAL)), Set.copyOf(result.tasks("critical")));
+        assertThrows(IllegalArgumentException.class, () -> result.tasks("missing"));
+
+        QueryBatch.Result parallel = TaskAggregator.evaluate(tasks.parallelStream(), batch);
+        assertEquals(TaskAggregator.evaluate(tasks.stream(), batch), parallel);
+    }
+}
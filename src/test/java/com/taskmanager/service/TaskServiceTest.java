@@ -0,0 +1,143 @@
+package com.taskmanager.service;
+
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import com.taskmanager.repository.impl.JdbcTaskRepository;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TaskService bulk operations.
+ */
+class TaskServiceTest {
+
+    private JdbcConnectionPool pool;
+    private CountingRepository repository;
+    private TaskService service;
+
+    @BeforeEach
+    void setUp() {
+        pool = JdbcConnectionPool.create("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        repository = new CountingRepository(pool);
+        service = new TaskService(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.dispose();
+    }
+
+    private Task save(String title, Status status, String categoryId) {
+        return repository.save(new Task.Builder()
+            .title(title)
+            .status(status)
+            .categoryId(categoryId)
+            .build());
+    }
+
+    @Test
+    @DisplayName("Should apply a bulk update with one batch write and report invalid transitions")
+    void shouldBulkUpdateWithSingleWrite() {
+        Task inProgress = save("Review", Status.IN_PROGRESS, "work");
+        Task todo = save("Plan", Status.TODO, "work");
+        Task other = save("Shop", Status.IN_PROGRESS, "home");
+
+        TaskService.BulkUpdateResult result = service.bulkUpdate(
+            new SearchService.TaskFilter(null, null, "work", null, false),
+            task -> task.withStatus(Status.DONE));
+
+        assertEquals(1, repository.batchWrites);
+        assertEquals(List.of(inProgress.getId()), result.updated().stream().map(Task::getId).toList());
+        assertEquals(1, result.rejected().size());
+        assertEquals(todo.getId(), result.rejected().get(0).task().getId());
+        assertEquals(Status.DONE, repository.findById(inProgress.getId()).orElseThrow().getStatus());
+        assertEquals(Status.TODO, repository.findById(todo.getId()).orElseThrow().getStatus());
+        assertEquals(Status.IN_PROGRESS, repository.findById(other.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject changes that bypass status validation")
+    void shouldRejectInvalidTransitionFromBuilder() {
+        Task todo = save("Idea", Status.TODO, null);
+
+        TaskService.BulkUpdateResult result = service.bulkUpdate(
+            new SearchService.TaskFilter(Status.TODO, null, null, null, false),
+            task -> new Task.Builder(task).status(Status.DONE).priority(Priority.HIGH).build());
+
+        assertTrue(result.updated().isEmpty());
+        assertEquals(todo.getId(), result.rejected().get(0).task().getId());
+        assertEquals(Priority.MEDIUM, repository.findById(todo.getId()).orElseThrow().getPriority());
+        assertEquals(0, repository.batchWrites);
+    }
+
+    @Test
+    @DisplayName("Should reapply a bulk change to a task updated concurrently instead of overwriting it")
+    void shouldNotOverwriteConcurrentUpdateInBulk() {
+        Task raced = save("Draft", Status.TODO, "work");
+        Task plain = save("Notes", Status.TODO, "work");
+        boolean[] interfered = new boolean[1];
+
+        TaskService.BulkUpdateResult result = service.bulkUpdate(
+            new SearchService.TaskFilter(null, null, "work", null, false),
+            task -> {
+                if (task.getId().equals(raced.getId()) && !interfered[0]) {
+                    interfered[0] = true;
+                    service.updateTaskTitle(raced.getId(), "Final");
+                }
+                return task.withPriority(Priority.HIGH);
+            });
+
+        Task stored = repository.findById(raced.getId()).orElseThrow();
+        assertEquals("Final", stored.getTitle());
+        assertEquals(Priority.HIGH, stored.getPriority());
+        assertEquals(Priority.HIGH, repository.findById(plain.getId()).orElseThrow().getPriority());
+        assertEquals(2, result.updated().size());
+        for (Task updated : result.updated()) {
+            assertEquals(repository.findById(updated.getId()).orElseThrow().getVersion(), updated.getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete several tasks with one batch write")
+    void shouldDeleteTasksInBatch() {
+        Task first = save("One", Status.TODO, null);
+        Task second = save("Two", Status.TODO, null);
+        save("Three", Status.TODO, null);
+
+        assertEquals(2, service.deleteTasks(List.of(first.getId(), second.getId(), "missing")));
+        assertEquals(1, repository.count());
+    }
+
+    /**
+     * Repository that counts batch writes.
+     */
+    private static final class CountingRepository extends JdbcTaskRepository {
+        int batchWrites;
+
+        CountingRepository(JdbcConnectionPool pool) {
+            super(pool);
+        }
+
+        @Override
+        public List<Task> saveAll(Collection<Task> tasks) {
+            batchWrites++;
+            return super.saveAll(tasks);
+        }
+
+        @Override
+        public List<Task> saveAllIfUnchanged(Collection<Task> tasks) {
+            batchWrites++;
+            return super.saveAllIfUnchanged(tasks);
+        }
+    }
+}
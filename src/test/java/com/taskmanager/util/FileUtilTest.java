@@ -0,0 +1,49 @@
+package com.taskmanager.util;
+
+import com.taskmanager.domain.exception.DataPersistenceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for atomic file replacement.
+ */
+class FileUtilTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("Should replace file content without leaving a temp file")
+    void shouldReplaceContent() throws IOException {
+        Path file = dataDir.resolve("tasks.json");
+        Files.writeString(file, "old");
+
+        FileUtil.writeAtomically(file, true, out -> out.write("new".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("new", Files.readString(file));
+        assertFalse(Files.exists(dataDir.resolve("tasks.json.tmp")));
+    }
+
+    @Test
+    @DisplayName("Should keep the old content when a write fails part-way")
+    void shouldKeepOldContentOnFailure() throws IOException {
+        Path file = dataDir.resolve("tasks.json");
+        Files.writeString(file, "old");
+
+        assertThrows(DataPersistenceException.class, () -> FileUtil.writeAtomically(file, false, out -> {
+            out.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("disk full");
+        }));
+
+        assertEquals("old", Files.readString(file));
+        assertFalse(Files.exists(dataDir.resolve("tasks.json.tmp")));
+    }
+}
@@ -0,0 +1,69 @@
+package com.taskmanager.util;
+
+import com.taskmanager.domain.Category;
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JSON file helpers.
+ */
+class JsonUtilTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("Should stream array elements from file")
+    void shouldStreamArrayElements() {
+        LocalDateTime due = LocalDateTime.of(2025, 10, 1, 9, 30);
+        List<Task> tasks = List.of(
+            new Task.Builder().title("One").priority(Priority.HIGH).dueDate(due).build(),
+            new Task.Builder().title("Two").build()
+        );
+        Path file = dataDir.resolve("tasks.json");
+        JsonUtil.writeToFile(tasks, file);
+
+        List<Task> read = new ArrayList<>();
+        long count = JsonUtil.readArrayFromFile(file, Task.class, read::add);
+
+        assertEquals(2, count);
+        assertEquals("One", read.get(0).getTitle());
+        assertEquals(Priority.HIGH, read.get(0).getPriority());
+        assertEquals(due, read.get(0).getDueDate());
+        assertEquals(tasks.get(1).getId(), read.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should stream records such as categories")
+    void shouldStreamRecords() {
+        Path file = dataDir.resolve("categories.json");
+        JsonUtil.writeToFile(List.of(Category.create("Work", "Work tasks", "#3498db")), file);
+
+        List<Category> read = new ArrayList<>();
+        JsonUtil.readArrayFromFile(file, Category.class, read::add);
+
+        assertEquals(1, read.size());
+        assertEquals("Work", read.get(0).name());
+    }
+
+    @Test
+    @DisplayName("Should treat missing and empty files as empty")
+    void shouldTreatMissingAndEmptyFilesAsEmpty() throws Exception {
+        Path missing = dataDir.resolve("missing.json");
+        Path empty = Files.createFile(dataDir.resolve("empty.json"));
+
+        assertEquals(0, JsonUtil.readArrayFromFile(missing, Task.class, task -> fail()));
+        assertEquals(0, JsonUtil.readArrayFromFile(empty, Task.class, task -> fail()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskmanager.util;
+
+import com.taskmanager.domain.Category;
+import com.taskmanager.domain.Priority;
+import com.taskmanager.domain.Status;
+import com.taskmanager.domain.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hand-written JSON codecs.
+ */
+class TaskCodecsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "2025-10-01T09:30:00",
+        "2025-10-01T09:30:05.1",
+        "2025-10-01T09:30:05.123",
+        "2025-10-01T09:30:05.123456789",
+        "0001-01-01T00:00:00",
+        "9999-12-31T23:59:59.999999999"
+    })
+    @DisplayName("Should format timestamps exactly like ISO_LOCAL_DATE_TIME")
+    void shouldFormatLikeIsoFormatter(String text) {
+        LocalDateTime value = LocalDateTime.parse(text);
+        assertEquals(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), TaskCodecs.formatTimestamp(value));
+        assertEquals(value, TaskCodecs.parseTimestamp(TaskCodecs.formatTimestamp(value)));
+    }
+
+    @Test
+    @DisplayName("Should parse timestamps without seconds and with odd fractions")
+    void shouldParseShortAndFractionalTimestamps() {
+        assertEquals(LocalDateTime.of(2025, 1, 2, 3, 4), TaskCodecs.parseTimestamp("2025-01-02T03:04"));
+        assertEquals(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 120_000_000), TaskCodecs.parseTimestamp("2025-01-02T03:04:05.12"));
+        assertThrows(RuntimeException.class, () -> TaskCodecs.parseTimestamp("2025-13-02T03:04"));
+        assertThrows(RuntimeException.class, () -> TaskCodecs.parseTimestamp("not a date"));
+    }
+
+    @Test
+    @DisplayName("Should round-trip a task and encode enums as codes")
+    void shouldRoundTripTask() {
+        Task task = new Task.Builder()
+            .title("Write \"quoted\" report")
+            .description("Line one\nLine two")
+            .priority(Priority.CRITICAL)
+            .status(Status.IN_PROGRESS)
+            .categoryId("work")
+            .dueDate(LocalDateTime.of(2025, 12, 24, 18, 0))
+            .version(7)
+            .build();
+
+        String json = JsonUtil.toCompactJson(task);
+        Task read = JsonUtil.fromJson(json, Task.class);
+
+        assertTrue(json.contains("\"priority\":4"));
+        assertTrue(json.contains("\"status\":2"));
+        assertEquals(task.getId(), read.getId());
+        assertEquals(task.getTitle(), read.getTitle());
+        assertEquals(task.getDescription(), read.getDescription());
+        assertEquals(Priority.CRITICAL, read.getPriority());
+        assertEquals(Status.IN_PROGRESS, read.getStatus());
+        assertEquals("work", read.getCategoryId());
+        assertEquals(task.getDueDate(), read.getDueDate());
+        assertEquals(task.getCreatedAt(), read.getCreatedAt());
+        assertEquals(7, read.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should read tasks written with enum names by earlier versions")
+    void shouldReadLegacyEnumNames() {
+        String json = """
+            {"id":"t-1","title":"Legacy","description":"","priority":"HIGH","status":"DONE",
+             "createdAt":"2025-09-01T10:00:00","updatedAt":"2025-09-02T11:30:00","extra":{"ignored":true}}
+            """;
+
+        Task read = JsonUtil.fromJson(json, Task.class);
+
+        assertEquals("t-1", read.getId());
+        assertEquals(Priority.HIGH, read.getPriority());
+        assertEquals(Status.DONE, read.getStatus());
+        assertNull(read.getDueDate());
+        assertEquals(LocalDateTime.of(2025, 9, 2, 11, 30), read.getUpdatedAt());
+        assertEquals(0, read.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should round-trip a category")
+    void shouldRoundTripCategory() {
+        Category category = Category.create("Health", "Health and fitness", "#9b59b6");
+
+        Category read = JsonUtil.fromJson(JsonUtil.toCompactJson(category), Category.class);
+
+        assertEquals(category, read);
+    }
+}